@@ -0,0 +1,160 @@
+package com.carlaospa.cache;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Final serialized bodies of single resource reads, so a hit skips mapping,
+ * link building and serialization altogether. Entries are grouped per
+ * resource and id, holding one body per variant (media type, API version and
+ * base URI, since the self links are absolute), so a write drops every
+ * variant of the resource in one step.
+ *
+ * With off-heap storage the bodies live in direct buffers: the heap only
+ * keeps the small index objects, so a large cache adds little to what the
+ * collector has to trace and copy. The total is bounded by max-size either
+ * way, and direct memory by -XX:MaxDirectMemorySize.
+ *
+ * A read that started before a write of the same resource must not store
+ * what it read. Writes bump a generation stripe that readers capture before
+ * loading; a put is dropped when its stripe has moved since.
+ */
+@Component
+public class ResponseCache {
+
+	private static final int STRIPES = 1024;
+
+	/** Bounds the variants kept per resource, the base URI comes from the Host header. */
+	private static final int MAX_VARIANTS = 16;
+
+	private static final int ENTRY_OVERHEAD = 128;
+
+	private Logger logger = Logger.getLogger(ResponseCache.class.getName());
+
+	@Value("${response-cache.enabled:true}")
+	private boolean enabled = true;
+
+	@Value("${response-cache.off-heap:false}")
+	private boolean offHeap = false;
+
+	@Value("${response-cache.max-size:64MB}")
+	private DataSize maxSize = DataSize.ofMegabytes(64);
+
+	@Value("${response-cache.max-entry-size:64KB}")
+	private DataSize maxEntrySize = DataSize.ofKilobytes(64);
+
+	@Value("${response-cache.expire-after-write:600000}")
+	private long expireAfterWrite = 600000; // 10min
+
+	private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+	private Cache<Key, Variants> cache;
+
+	@PostConstruct
+	public void init() {
+		cache = Caffeine.newBuilder()
+				.maximumWeight(maxSize.toBytes())
+				.weigher((Key key, Variants variants) -> variants.weight())
+				.expireAfterWrite(Duration.ofMillis(expireAfterWrite))
+				.recordStats()
+				.build();
+		logger.info("Response cache of " + maxSize + (offHeap ? " off heap" : " on heap"));
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public CachedResponse get(Key key, Variant variant) {
+		var variants = cache.getIfPresent(key);
+		return variants == null ? null : variants.responses().get(variant);
+	}
+
+	/** The generation to hand back to {@link #put} for a read that starts now. */
+	public long generation(Key key) {
+		return generations.get(stripe(key));
+	}
+
+	public void put(Key key, Variant variant, long generation, String contentType, String etag, byte[] body) {
+		if (body.length > maxEntrySize.toBytes()) return;
+
+		var response = new CachedResponse(contentType, etag, store(body));
+		cache.asMap().compute(key, (k, current) -> {
+			// checked under the entry lock, so an invalidation cannot slip in between
+			if (generations.get(stripe(k)) != generation) return current;
+			if (current == null) return new Variants(Map.of(variant, response));
+			if (current.responses().size() >= MAX_VARIANTS && !current.responses().containsKey(variant)) return current;
+			Map<Variant, CachedResponse> responses = new HashMap<>(current.responses());
+			responses.put(variant, response);
+			return new Variants(Map.copyOf(responses));
+		});
+	}
+
+	public void invalidate(String resource, Long id) {
+		if (id == null) return;
+		var key = new Key(resource, id);
+		generations.incrementAndGet(stripe(key));
+		cache.invalidate(key);
+	}
+
+	public void clear() {
+		for (int i = 0; i < STRIPES; i++) generations.incrementAndGet(i);
+		cache.invalidateAll();
+	}
+
+	public CacheStats stats() {
+		return cache.stats();
+	}
+
+	public long size() {
+		return cache.estimatedSize();
+	}
+
+	private ByteBuffer store(byte[] body) {
+		if (!offHeap) return ByteBuffer.wrap(body).asReadOnlyBuffer();
+		var buffer = ByteBuffer.allocateDirect(body.length);
+		buffer.put(body).flip();
+		return buffer.asReadOnlyBuffer();
+	}
+
+	private static int stripe(Key key) {
+		return (key.hashCode() & 0x7fffffff) % STRIPES;
+	}
+
+	public record Key(String resource, Long id) {
+	}
+
+	public record Variant(String mediaType, String version, String baseUri) {
+	}
+
+	/** A stored body and its ETag, if any; read it through a duplicate, the buffer is shared. */
+	public record CachedResponse(String contentType, String etag, ByteBuffer body) {
+
+		public int length() {
+			return body.remaining();
+		}
+	}
+
+	private record Variants(Map<Variant, CachedResponse> responses) {
+
+		int weight() {
+			long weight = 0;
+			for (var response : responses.values()) weight += response.length() + ENTRY_OVERHEAD;
+			return (int) Math.min(Integer.MAX_VALUE, weight);
+		}
+	}
+}
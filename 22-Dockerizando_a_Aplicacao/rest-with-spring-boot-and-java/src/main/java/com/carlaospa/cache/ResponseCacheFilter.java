@@ -0,0 +1,135 @@
+package com.carlaospa.cache;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.carlaospa.util.ETags;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves GET /api/{resource}/{version}/{id} from the {@link ResponseCache}
+ * and fills it on a miss. It runs after the security filters, so only
+ * authenticated requests see cached bodies, and inside the compression
+ * filter, which encodes hits like any other response.
+ *
+ * The media type is negotiated here from the Accept header the same way the
+ * header strategy of WebConfig does. A body is only stored when the response
+ * really has that type, so a disagreement costs a miss, never a wrong body.
+ * The ETag is stored with the body, so a conditional hit answers 304 here.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+	// at most 18 digits always fit a long; longer ids are left to the controller's 400
+	private static final Pattern RESOURCE_PATH = Pattern.compile("^/api/([a-z]+)/(v\\d+)/(\\d{1,18})$");
+
+	private final ResponseCache cache;
+	private final List<String> resources;
+	private final List<MediaType> producibleTypes;
+
+	/**
+	 * @param producibleTypes the negotiable types, the first one being the
+	 *        default when the request does not say
+	 */
+	public ResponseCacheFilter(ResponseCache cache, List<String> resources, List<MediaType> producibleTypes) {
+		this.cache = cache;
+		this.resources = resources;
+		this.producibleTypes = producibleTypes;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !cache.isEnabled() || !"GET".equals(request.getMethod());
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		Matcher path = RESOURCE_PATH.matcher(request.getRequestURI().substring(request.getContextPath().length()));
+		MediaType mediaType = path.matches() && resources.contains(path.group(1)) ? negotiate(request) : null;
+		if (mediaType == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		var key = new ResponseCache.Key(path.group(1), Long.valueOf(path.group(3)));
+		var variant = new ResponseCache.Variant(mediaType.toString(), path.group(2), baseUri(request));
+
+		var hit = cache.get(key, variant);
+		if (hit != null) {
+			// negotiated here rather than in NegotiatedVaryAdvice, which a hit never reaches
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+			if (hit.etag() != null) response.setHeader(HttpHeaders.ETAG, hit.etag());
+			if (hit.etag() != null && ETags.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), hit.etag())) {
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				return;
+			}
+			response.setStatus(HttpServletResponse.SC_OK);
+			response.setContentType(hit.contentType());
+			response.setContentLength(hit.length());
+			Channels.newChannel(response.getOutputStream()).write(hit.body().duplicate());
+			return;
+		}
+
+		long generation = cache.generation(key);
+		var wrapper = new ContentCachingResponseWrapper(response);
+		try {
+			chain.doFilter(request, wrapper);
+			if (isCacheable(wrapper, mediaType)) {
+				cache.put(key, variant, generation, wrapper.getContentType(), wrapper.getHeader(HttpHeaders.ETAG),
+						wrapper.getContentAsByteArray());
+			}
+		} finally {
+			wrapper.copyBodyToResponse();
+		}
+	}
+
+	private static boolean isCacheable(ContentCachingResponseWrapper response, MediaType mediaType) {
+		if (response.getStatus() != HttpServletResponse.SC_OK || response.getContentType() == null) return false;
+		if (response.containsHeader(HttpHeaders.CONTENT_ENCODING)) return false;
+		try {
+			return mediaType.equalsTypeAndSubtype(MediaType.parseMediaType(response.getContentType()));
+		} catch (InvalidMediaTypeException e) {
+			return false;
+		}
+	}
+
+	/** The type the response will have, or null when nothing acceptable is produced. */
+	@SuppressWarnings("deprecation")
+	MediaType negotiate(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept == null || accept.isBlank()) return producibleTypes.get(0);
+
+		List<MediaType> acceptable;
+		try {
+			acceptable = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return null;
+		}
+		MediaType.sortBySpecificityAndQuality(acceptable);
+		for (MediaType candidate : acceptable) {
+			if (candidate.getQualityValue() == 0) continue;
+			for (MediaType producible : producibleTypes) {
+				if (candidate.isCompatibleWith(producible)) return producible;
+			}
+		}
+		return null;
+	}
+
+	private static String baseUri(HttpServletRequest request) {
+		return request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort()
+				+ request.getContextPath();
+	}
+}
@@ -0,0 +1,42 @@
+package com.carlaospa.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.logging.Logger;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+
+/**
+ * Brotli through brotli4j, which needs a native library for the platform.
+ * Where the library cannot be loaded, brotli is simply not offered and
+ * clients get gzip instead.
+ */
+final class Brotli {
+
+	private static final Logger logger = Logger.getLogger(Brotli.class.getName());
+
+	private static final boolean AVAILABLE = load();
+
+	private Brotli() {
+	}
+
+	static boolean isAvailable() {
+		return AVAILABLE;
+	}
+
+	static OutputStream encoder(OutputStream out, int quality) throws IOException {
+		return new BrotliOutputStream(out, new Encoder.Parameters().setQuality(quality));
+	}
+
+	private static boolean load() {
+		try {
+			Brotli4jLoader.ensureAvailability();
+			return true;
+		} catch (Throwable e) {
+			logger.info("Brotli is not available, responses fall back to gzip: " + e.getMessage());
+			return false;
+		}
+	}
+}
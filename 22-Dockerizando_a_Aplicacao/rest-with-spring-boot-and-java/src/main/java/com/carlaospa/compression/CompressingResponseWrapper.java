@@ -0,0 +1,287 @@
+package com.carlaospa.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StreamUtils;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Holds back the first bytes of a response until it is clear whether they
+ * are worth compressing. Up to the minimum size everything is buffered and
+ * Content-Length is withheld; once the body outgrows the buffer, or the
+ * response is finished or explicitly flushed, the headers set so far decide
+ * between the encoder and the plain stream, and the buffer is replayed into
+ * it. Bodies that stay under the minimum are sent as they are, with their
+ * Content-Length restored.
+ *
+ * Responses of an async request are never compressed: they are written from
+ * another thread, usually as a stream that must reach the client as it goes.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+	private final HttpServletRequest request;
+	private final ResponseCompressionFilter filter;
+	private final String coding;
+
+	private ByteArrayOutputStream buffer;
+	private long contentLength = -1;
+	private boolean decided;
+	private boolean compressing;
+	private OutputStream target;
+
+	private ServletOutputStream stream;
+	private PrintWriter writer;
+
+	CompressingResponseWrapper(HttpServletRequest request, HttpServletResponse response,
+			ResponseCompressionFilter filter, String coding) {
+		super(response);
+		this.request = request;
+		this.filter = filter;
+		this.coding = coding;
+	}
+
+	boolean isCompressing() {
+		return compressing;
+	}
+
+	@Override
+	public ServletOutputStream getOutputStream() throws IOException {
+		if (writer != null) throw new IllegalStateException("getWriter() has already been called");
+		if (stream == null) stream = new BufferingStream();
+		return stream;
+	}
+
+	@Override
+	public PrintWriter getWriter() throws IOException {
+		if (writer == null) {
+			if (stream != null) throw new IllegalStateException("getOutputStream() has already been called");
+			stream = new BufferingStream();
+			writer = new PrintWriter(new OutputStreamWriter(stream, getCharacterEncoding()));
+		}
+		return writer;
+	}
+
+	@Override
+	public void setContentLength(int len) {
+		setContentLengthLong(len);
+	}
+
+	@Override
+	public void setContentLengthLong(long len) {
+		if (decided) {
+			if (!compressing) super.setContentLengthLong(len);
+		} else {
+			contentLength = len;
+		}
+	}
+
+	@Override
+	public void setHeader(String name, String value) {
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(value == null ? -1 : Long.parseLong(value));
+		} else {
+			super.setHeader(name, value);
+		}
+	}
+
+	@Override
+	public void addHeader(String name, String value) {
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(Long.parseLong(value));
+		} else {
+			super.addHeader(name, value);
+		}
+	}
+
+	@Override
+	public void setIntHeader(String name, int value) {
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(value);
+		} else {
+			super.setIntHeader(name, value);
+		}
+	}
+
+	@Override
+	public void addIntHeader(String name, int value) {
+		if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+			setContentLengthLong(value);
+		} else {
+			super.addIntHeader(name, value);
+		}
+	}
+
+	@Override
+	public void flushBuffer() throws IOException {
+		if (writer != null) writer.flush();
+		if (!request.isAsyncStarted()) {
+			if (!decided) decide(true);
+			target.flush();
+		}
+		super.flushBuffer();
+	}
+
+	@Override
+	public void reset() {
+		super.reset();
+		discard();
+	}
+
+	@Override
+	public void resetBuffer() {
+		super.resetBuffer();
+		discard();
+	}
+
+	/** Completes the response once the filter chain has returned. */
+	void finish() throws IOException {
+		if (request.isAsyncStarted()) return;
+		if (writer != null) writer.flush();
+		if (!decided) decide(false);
+		if (compressing) target.close();
+	}
+
+	/** Releases the encoder of a response the chain failed to complete. */
+	void abandon() {
+		if (!compressing) return;
+		try {
+			target.close();
+		} catch (IOException e) {
+			// the response is broken already
+		}
+	}
+
+	private void discard() {
+		if (decided) return;
+		buffer = null;
+		contentLength = -1;
+	}
+
+	private void write(byte[] b, int off, int len) throws IOException {
+		if (!decided) {
+			if (request.isAsyncStarted()) {
+				decide(false);
+			} else {
+				if (buffer == null) buffer = new ByteArrayOutputStream(Math.min(filter.getMinSize(), 8192));
+				if (buffer.size() + len < filter.getMinSize()) {
+					buffer.write(b, off, len);
+					return;
+				}
+				decide(true);
+			}
+		}
+		target.write(b, off, len);
+	}
+
+	/**
+	 * Picks the output for the rest of the response. Eligible types vary on
+	 * Accept-Encoding even when sent uncompressed, so a cache never hands a
+	 * compressed body to a client that cannot decode it.
+	 */
+	private void decide(boolean large) throws IOException {
+		decided = true;
+		OutputStream raw = super.getOutputStream();
+
+		boolean eligible = !request.isAsyncStarted() && filter.isCompressible(getContentType());
+		if (eligible) vary(HttpHeaders.ACCEPT_ENCODING);
+
+		compressing = eligible && large && coding != null && isPlainBody();
+		if (compressing) {
+			super.setHeader(HttpHeaders.CONTENT_ENCODING, coding);
+			target = filter.encoder(coding, StreamUtils.nonClosing(raw));
+		} else {
+			if (contentLength >= 0) super.setContentLengthLong(contentLength);
+			target = raw;
+		}
+
+		if (buffer != null) {
+			buffer.writeTo(target);
+			buffer = null;
+		}
+	}
+
+	/** Bodies already encoded, partial or sent as downloads are left alone. */
+	private boolean isPlainBody() {
+		int status = getStatus();
+		if (status == SC_NO_CONTENT || status == SC_PARTIAL_CONTENT || status == SC_NOT_MODIFIED) return false;
+		if (containsHeader(HttpHeaders.CONTENT_ENCODING) || containsHeader(HttpHeaders.CONTENT_RANGE)) return false;
+		String disposition = getHeader(HttpHeaders.CONTENT_DISPOSITION);
+		return disposition == null || !disposition.trim().toLowerCase(Locale.ROOT).startsWith("attachment");
+	}
+
+	private void vary(String field) {
+		Collection<String> values = getHeaders(HttpHeaders.VARY);
+		Set<String> present = new HashSet<>();
+		for (String value : values) {
+			for (String token : value.split(",")) present.add(token.trim().toLowerCase(Locale.ROOT));
+		}
+		if (present.contains("*") || present.contains(field.toLowerCase(Locale.ROOT))) return;
+		super.addHeader(HttpHeaders.VARY, field);
+	}
+
+	private class BufferingStream extends ServletOutputStream {
+
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			CompressingResponseWrapper.this.write(b, off, len);
+		}
+
+		/**
+		 * Message converters flush after every body, which would otherwise end
+		 * buffering before the threshold is known; only flushBuffer() forces
+		 * bytes out ahead of the end of the response.
+		 */
+		@Override
+		public void flush() throws IOException {
+			if (decided && !compressing) target.flush();
+		}
+
+		/** Buffered and encoded writes block; only the plain stream can be not ready. */
+		@Override
+		public boolean isReady() {
+			if (!decided || compressing) return true;
+			try {
+				return getResponse().getOutputStream().isReady();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/**
+		 * Non-blocking writes go straight to the container's stream, which
+		 * takes the listener: whatever was buffered is sent uncompressed first,
+		 * while that stream still blocks. A response already being compressed
+		 * cannot switch.
+		 */
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			try {
+				if (!decided) decide(false);
+				if (compressing) throw new IllegalStateException("A compressed response cannot switch to non-blocking writes");
+				getResponse().getOutputStream().setWriteListener(writeListener);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+}
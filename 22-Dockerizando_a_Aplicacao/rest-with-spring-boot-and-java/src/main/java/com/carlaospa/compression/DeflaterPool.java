@@ -0,0 +1,44 @@
+package com.carlaospa.compression;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Keeps idle raw deflaters for reuse. A Deflater holds about 256KB of native
+ * memory that is only freed by end() or by the cleaner, so allocating one per
+ * response puts real pressure on native memory under load. Borrowing never
+ * blocks: when the pool is empty a new deflater is made, and one returned to
+ * a full pool is ended at once.
+ */
+public class DeflaterPool implements AutoCloseable {
+
+	private final int level;
+	private final BlockingQueue<Deflater> idle;
+
+	public DeflaterPool(int level, int maxIdle) {
+		this.level = level;
+		this.idle = maxIdle > 0 ? new ArrayBlockingQueue<>(maxIdle) : null;
+	}
+
+	public Deflater borrow() {
+		Deflater deflater = idle == null ? null : idle.poll();
+		return deflater != null ? deflater : new Deflater(level, true);
+	}
+
+	public void release(Deflater deflater) {
+		deflater.reset();
+		if (idle == null || !idle.offer(deflater)) deflater.end();
+	}
+
+	public int idle() {
+		return idle == null ? 0 : idle.size();
+	}
+
+	@Override
+	public void close() {
+		if (idle == null) return;
+		Deflater deflater;
+		while ((deflater = idle.poll()) != null) deflater.end();
+	}
+}
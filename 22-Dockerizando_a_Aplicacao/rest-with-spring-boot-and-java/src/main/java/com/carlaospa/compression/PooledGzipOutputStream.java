@@ -0,0 +1,90 @@
+package com.carlaospa.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * A GZIP stream over a deflater borrowed from a {@link DeflaterPool}.
+ * GZIPOutputStream always allocates its own deflater, so the header and the
+ * CRC32/ISIZE trailer are written here instead. The deflater goes back to the
+ * pool once the stream is finished or closed, and the stream refuses writes
+ * after that since the deflater may already serve another response.
+ */
+public class PooledGzipOutputStream extends DeflaterOutputStream {
+
+	private static final byte[] HEADER = {
+			0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff };
+
+	private final DeflaterPool pool;
+	private final CRC32 crc = new CRC32();
+	private boolean released;
+
+	public PooledGzipOutputStream(OutputStream out, DeflaterPool pool) throws IOException {
+		this(out, pool, 8192);
+	}
+
+	public PooledGzipOutputStream(OutputStream out, DeflaterPool pool, int bufferSize) throws IOException {
+		super(out, pool.borrow(), bufferSize, true);
+		this.pool = pool;
+		out.write(HEADER);
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		if (released) throw new IOException("Stream already finished");
+		super.write(b, off, len);
+		crc.update(b, off, len);
+	}
+
+	@Override
+	public void flush() throws IOException {
+		if (released) {
+			out.flush();
+			return;
+		}
+		super.flush();
+	}
+
+	@Override
+	public void finish() throws IOException {
+		if (released) return;
+		try {
+			super.finish();
+			writeTrailer(crc.getValue(), def.getBytesRead());
+		} finally {
+			release();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			finish();
+		} finally {
+			release();
+			out.close();
+		}
+	}
+
+	private void writeTrailer(long crc, long size) throws IOException {
+		byte[] trailer = new byte[8];
+		writeInt(trailer, 0, (int) crc);
+		writeInt(trailer, 4, (int) size);
+		out.write(trailer);
+	}
+
+	private static void writeInt(byte[] b, int off, int value) {
+		b[off] = (byte) value;
+		b[off + 1] = (byte) (value >> 8);
+		b[off + 2] = (byte) (value >> 16);
+		b[off + 3] = (byte) (value >> 24);
+	}
+
+	private void release() {
+		if (released) return;
+		released = true;
+		pool.release(def);
+	}
+}
@@ -0,0 +1,102 @@
+package com.carlaospa.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.carlaospa.util.AcceptEncoding;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Compresses API payloads (JSON, XML, YAML) with brotli or gzip, whichever
+ * the client weighs higher in Accept-Encoding, preferring brotli on a tie.
+ * Bodies under the minimum size are sent as they are: below about a kilobyte
+ * the framing overhead and the CPU cost outweigh the bytes saved. Gzip runs
+ * on pooled deflaters, see {@link DeflaterPool}.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter implements AutoCloseable {
+
+	public static final String GZIP = "gzip";
+	public static final String BROTLI = "br";
+
+	private final List<MediaType> compressibleTypes;
+	private final int minSize;
+	private final DeflaterPool deflaters;
+	private final boolean brotli;
+	private final int brotliQuality;
+
+	public ResponseCompressionFilter(List<MediaType> compressibleTypes, int minSize, DeflaterPool deflaters,
+			boolean brotli, int brotliQuality) {
+		this.compressibleTypes = compressibleTypes;
+		this.minSize = minSize;
+		this.deflaters = deflaters;
+		this.brotli = brotli && Brotli.isAvailable();
+		this.brotliQuality = brotliQuality;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		if (HttpMethod.HEAD.matches(request.getMethod())) {
+			chain.doFilter(request, response);
+			return;
+		}
+
+		var wrapper = new CompressingResponseWrapper(request, response, this, coding(request));
+		boolean completed = false;
+		try {
+			chain.doFilter(request, wrapper);
+			completed = true;
+		} finally {
+			if (completed) wrapper.finish();
+			else wrapper.abandon();
+		}
+	}
+
+	/** The coding to use for this request, or null to send identity. */
+	String coding(HttpServletRequest request) {
+		double gzip = AcceptEncoding.quality(request, GZIP);
+		double br = brotli ? AcceptEncoding.quality(request, BROTLI) : 0;
+		if (br > 0 && br >= gzip) return BROTLI;
+		return gzip > 0 ? GZIP : null;
+	}
+
+	OutputStream encoder(String coding, OutputStream out) throws IOException {
+		return BROTLI.equals(coding) ? Brotli.encoder(out, brotliQuality) : new PooledGzipOutputStream(out, deflaters);
+	}
+
+	boolean isCompressible(String contentType) {
+		if (contentType == null) return false;
+		try {
+			MediaType type = MediaType.parseMediaType(contentType);
+			for (MediaType candidate : compressibleTypes) {
+				if (candidate.includes(type)) return true;
+			}
+		} catch (InvalidMediaTypeException e) {
+			// unparseable types are never compressed
+		}
+		return false;
+	}
+
+	int getMinSize() {
+		return minSize;
+	}
+
+	public boolean isBrotliEnabled() {
+		return brotli;
+	}
+
+	@Override
+	public void close() {
+		deflaters.close();
+	}
+}
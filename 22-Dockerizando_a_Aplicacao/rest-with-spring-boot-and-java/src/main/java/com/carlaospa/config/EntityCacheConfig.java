@@ -0,0 +1,67 @@
+package com.carlaospa.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Size bounds and time to live of the Hibernate second level cache regions.
+ * Regions not listed under regions, such as the query results, use the
+ * defaults.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheConfig {
+
+	private long defaultMaxSize = 10000;
+
+	private Duration defaultExpireAfterWrite = Duration.ofMinutes(10);
+
+	private final Map<String, Region> regions = new LinkedHashMap<>();
+
+	public long getDefaultMaxSize() {
+		return defaultMaxSize;
+	}
+
+	public void setDefaultMaxSize(long defaultMaxSize) {
+		this.defaultMaxSize = defaultMaxSize;
+	}
+
+	public Duration getDefaultExpireAfterWrite() {
+		return defaultExpireAfterWrite;
+	}
+
+	public void setDefaultExpireAfterWrite(Duration defaultExpireAfterWrite) {
+		this.defaultExpireAfterWrite = defaultExpireAfterWrite;
+	}
+
+	public Map<String, Region> getRegions() {
+		return regions;
+	}
+
+	public static class Region {
+
+		private Long maxSize;
+
+		private Duration expireAfterWrite;
+
+		public Long getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(Long maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public Duration getExpireAfterWrite() {
+			return expireAfterWrite;
+		}
+
+		public void setExpireAfterWrite(Duration expireAfterWrite) {
+			this.expireAfterWrite = expireAfterWrite;
+		}
+	}
+}
@@ -1,7 +1,12 @@
 package com.carlaospa.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConfigurationProperties(prefix = "file")
@@ -9,6 +14,28 @@ public class FileStorageConfig {
 	
 	private String uploadDir;
 	
+	private String backend = "local";
+	
+	private final S3 s3 = new S3();
+	
+	private final Compression compression = new Compression();
+	
+	private boolean contentAddressable = false;
+	
+	private int shardLevels = 0;
+	
+	private boolean migrateFlatFiles = false;
+	
+	private int batchIoPermits = 4;
+	
+	private int batchRequestConcurrency = 2;
+	
+	private DataSize resumableMaxSize = DataSize.ofGigabytes(10);
+	
+	private Duration resumableExpiry = Duration.ofHours(24);
+	
+	private int zipMaxEntries = 1000;
+	
 	public String getUploadDir() {
 		return uploadDir;
 	}
@@ -16,5 +43,203 @@ public class FileStorageConfig {
 	public void setUploadDir(String uploadDir) {
 		this.uploadDir = uploadDir;
 	}
+
+	public String getBackend() {
+		return backend;
+	}
+
+	public void setBackend(String backend) {
+		this.backend = backend;
+	}
+
+	public S3 getS3() {
+		return s3;
+	}
+
+	public Compression getCompression() {
+		return compression;
+	}
+
+	public boolean isContentAddressable() {
+		return contentAddressable;
+	}
+
+	public void setContentAddressable(boolean contentAddressable) {
+		this.contentAddressable = contentAddressable;
+	}
+
+	public int getShardLevels() {
+		return shardLevels;
+	}
+
+	public void setShardLevels(int shardLevels) {
+		this.shardLevels = shardLevels;
+	}
+
+	public boolean isMigrateFlatFiles() {
+		return migrateFlatFiles;
+	}
+
+	public void setMigrateFlatFiles(boolean migrateFlatFiles) {
+		this.migrateFlatFiles = migrateFlatFiles;
+	}
+
+	public int getBatchIoPermits() {
+		return batchIoPermits;
+	}
+
+	public void setBatchIoPermits(int batchIoPermits) {
+		this.batchIoPermits = batchIoPermits;
+	}
+
+	public int getBatchRequestConcurrency() {
+		return batchRequestConcurrency;
+	}
+
+	public void setBatchRequestConcurrency(int batchRequestConcurrency) {
+		this.batchRequestConcurrency = batchRequestConcurrency;
+	}
+
+	public DataSize getResumableMaxSize() {
+		return resumableMaxSize;
+	}
+
+	public void setResumableMaxSize(DataSize resumableMaxSize) {
+		this.resumableMaxSize = resumableMaxSize;
+	}
+
+	public Duration getResumableExpiry() {
+		return resumableExpiry;
+	}
+
+	public void setResumableExpiry(Duration resumableExpiry) {
+		this.resumableExpiry = resumableExpiry;
+	}
+	
+	public int getZipMaxEntries() {
+		return zipMaxEntries;
+	}
+
+	public void setZipMaxEntries(int zipMaxEntries) {
+		this.zipMaxEntries = zipMaxEntries;
+	}
+	
+	/** Media types compressed at rest, per encoding; zstd rules are checked first. */
+	public static class Compression {
+		
+		private boolean enabled = false;
+		
+		private List<String> zstdTypes = new ArrayList<>();
+		
+		private List<String> gzipTypes = new ArrayList<>();
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public List<String> getZstdTypes() {
+			return zstdTypes;
+		}
+
+		public void setZstdTypes(List<String> zstdTypes) {
+			this.zstdTypes = zstdTypes;
+		}
+
+		public List<String> getGzipTypes() {
+			return gzipTypes;
+		}
+
+		public void setGzipTypes(List<String> gzipTypes) {
+			this.gzipTypes = gzipTypes;
+		}
+	}
+	
+	/** Bucket and client settings for the s3 backend. */
+	public static class S3 {
+		
+		private String endpoint;
+		
+		private String region = "us-east-1";
+		
+		private String bucket;
+		
+		private String accessKey;
+		
+		private String secretKey;
+		
+		private boolean pathStyleAccess = true;
+		
+		private DataSize partSize = DataSize.ofMegabytes(16);
+		
+		private int uploadThreads = 4;
+
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		public void setEndpoint(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		public String getRegion() {
+			return region;
+		}
+
+		public void setRegion(String region) {
+			this.region = region;
+		}
+
+		public String getBucket() {
+			return bucket;
+		}
+
+		public void setBucket(String bucket) {
+			this.bucket = bucket;
+		}
+
+		public String getAccessKey() {
+			return accessKey;
+		}
+
+		public void setAccessKey(String accessKey) {
+			this.accessKey = accessKey;
+		}
+
+		public String getSecretKey() {
+			return secretKey;
+		}
+
+		public void setSecretKey(String secretKey) {
+			this.secretKey = secretKey;
+		}
+
+		public boolean isPathStyleAccess() {
+			return pathStyleAccess;
+		}
+
+		public void setPathStyleAccess(boolean pathStyleAccess) {
+			this.pathStyleAccess = pathStyleAccess;
+		}
+
+		public DataSize getPartSize() {
+			return partSize;
+		}
+
+		public void setPartSize(DataSize partSize) {
+			this.partSize = partSize;
+		}
+
+		public int getUploadThreads() {
+			return uploadThreads;
+		}
+
+		public void setUploadThreads(int uploadThreads) {
+			this.uploadThreads = uploadThreads;
+		}
+	}
 	
 }
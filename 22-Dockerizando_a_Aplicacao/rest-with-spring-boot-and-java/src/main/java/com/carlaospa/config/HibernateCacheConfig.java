@@ -0,0 +1,73 @@
+package com.carlaospa.config;
+
+import java.util.OptionalLong;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Hands Hibernate a Caffeine backed JCache manager whose regions are sized
+ * from {@link EntityCacheConfig}. Whether the second level and query caches
+ * are on is plain Hibernate configuration under spring.jpa.properties.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+	/** Hibernate's region for the last update time of each table. */
+	public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+	public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+	@Bean
+	public CacheManager entityCacheManager(EntityCacheConfig entityCacheConfig) {
+		var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+		var cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+		for (var region : entityCacheConfig.getRegions().entrySet()) {
+			createCache(cacheManager, region.getKey(), configuration(entityCacheConfig, region.getValue()));
+		}
+		createCache(cacheManager, QUERY_RESULTS_REGION, configuration(entityCacheConfig, null));
+
+		// cached query results are checked against these timestamps, so they
+		// must never be dropped before the results that depend on them
+		var timestamps = new CaffeineConfiguration<Object, Object>();
+		timestamps.setStatisticsEnabled(true);
+		createCache(cacheManager, TIMESTAMPS_REGION, timestamps);
+
+		return cacheManager;
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+		return properties -> {
+			properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+			properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+		};
+	}
+
+	/** The provider hands every context in the JVM the same manager, so a region may exist already. */
+	private static void createCache(CacheManager cacheManager, String name, CaffeineConfiguration<Object, Object> configuration) {
+		if (cacheManager.getCache(name) == null) cacheManager.createCache(name, configuration);
+	}
+
+	public static CaffeineConfiguration<Object, Object> configuration(EntityCacheConfig config, EntityCacheConfig.Region region) {
+		long maxSize = region != null && region.getMaxSize() != null
+				? region.getMaxSize() : config.getDefaultMaxSize();
+		var expireAfterWrite = region != null && region.getExpireAfterWrite() != null
+				? region.getExpireAfterWrite() : config.getDefaultExpireAfterWrite();
+
+		var configuration = new CaffeineConfiguration<Object, Object>();
+		configuration.setMaximumSize(OptionalLong.of(maxSize));
+		configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+		configuration.setStatisticsEnabled(true);
+		return configuration;
+	}
+}
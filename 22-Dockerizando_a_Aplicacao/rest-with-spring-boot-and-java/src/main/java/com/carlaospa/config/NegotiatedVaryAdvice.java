@@ -0,0 +1,44 @@
+package com.carlaospa.config;
+
+import java.util.Locale;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds Vary: Accept to every body written in one of the types picked from
+ * the Accept header, compressed or not and with or without the compression
+ * filter, so a shared cache never hands a Smile body to a JSON client.
+ */
+@ControllerAdvice
+public class NegotiatedVaryAdvice implements ResponseBodyAdvice<Object> {
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		if (WebConfig.isNegotiated(selectedContentType)) varyOnAccept(response.getHeaders());
+		return body;
+	}
+
+	static void varyOnAccept(HttpHeaders headers) {
+		for (String value : headers.getOrEmpty(HttpHeaders.VARY)) {
+			for (String token : value.split(",")) {
+				String field = token.trim().toLowerCase(Locale.ROOT);
+				if (field.equals("*") || field.equals("accept")) return;
+			}
+		}
+		headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+	}
+}
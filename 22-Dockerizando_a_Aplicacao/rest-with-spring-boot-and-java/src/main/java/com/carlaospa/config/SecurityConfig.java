@@ -57,6 +57,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter{
 						"/api-docs/**", 
 						"/swagger-ui.html**"
 					).permitAll()
+				.antMatchers("/api/users/**").hasAuthority("ADMIN")
 				.antMatchers("/api/**").authenticated()
 				.antMatchers("/users").denyAll()
 			.and()
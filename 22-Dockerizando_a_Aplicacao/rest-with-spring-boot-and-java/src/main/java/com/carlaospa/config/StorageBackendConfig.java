@@ -0,0 +1,69 @@
+package com.carlaospa.config;
+
+import java.net.URI;
+import java.nio.file.Paths;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import com.carlaospa.storage.InMemoryStorageBackend;
+import com.carlaospa.storage.LocalStorageBackend;
+import com.carlaospa.storage.S3StorageBackend;
+import com.carlaospa.storage.StorageBackend;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+/**
+ * Picks the storage backend from file.backend: local (the upload directory,
+ * the default), memory, or s3 for any S3 compatible service. Replicas behind
+ * a load balancer need the s3 backend so they all see the same files.
+ */
+@Configuration
+public class StorageBackendConfig {
+
+	@Bean
+	public StorageBackend storageBackend(FileStorageConfig fileStorageConfig) {
+		String backend = fileStorageConfig.getBackend() == null ? "local" : fileStorageConfig.getBackend();
+		switch (backend) {
+			case "local":
+				return new LocalStorageBackend(Paths.get(fileStorageConfig.getUploadDir()));
+			case "memory":
+				return new InMemoryStorageBackend();
+			case "s3":
+				var s3 = fileStorageConfig.getS3();
+				return new S3StorageBackend(s3Client(s3), s3.getBucket(),
+						Math.toIntExact(s3.getPartSize().toBytes()), s3.getUploadThreads());
+			default:
+				throw new IllegalStateException("Unknown storage backend " + backend);
+		}
+	}
+
+	private S3Client s3Client(FileStorageConfig.S3 s3) {
+		if (!StringUtils.hasText(s3.getBucket())) {
+			throw new IllegalStateException("file.s3.bucket is required for the s3 backend");
+		}
+
+		S3ClientBuilder builder = S3Client.builder()
+				.region(Region.of(s3.getRegion()))
+				.serviceConfiguration(S3Configuration.builder()
+						.pathStyleAccessEnabled(s3.isPathStyleAccess())
+						.build());
+		if (StringUtils.hasText(s3.getEndpoint())) {
+			builder.endpointOverride(URI.create(s3.getEndpoint()));
+		}
+		if (StringUtils.hasText(s3.getAccessKey())) {
+			builder.credentialsProvider(StaticCredentialsProvider.create(
+					AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey())));
+		} else {
+			builder.credentialsProvider(DefaultCredentialsProvider.create());
+		}
+		return builder.build();
+	}
+}
@@ -3,26 +3,101 @@ package com.carlaospa.config;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.carlaospa.cache.ResponseCache;
+import com.carlaospa.cache.ResponseCacheFilter;
+import com.carlaospa.compression.DeflaterPool;
+import com.carlaospa.compression.ResponseCompressionFilter;
+import com.carlaospa.serialization.converter.CborJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.MessagePackJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.SmileJackson2HttpMessageConverter;
 import com.carlaospa.serialization.converter.YamlJackson2HttpMessageConverter;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 	
 	private static final MediaType MEDIA_TYPE_APPLICATION_YML = MediaType.valueOf("application/x-yaml");
+	private static final MediaType MEDIA_TYPE_APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+	private static final MediaType MEDIA_TYPE_APPLICATION_MSGPACK = MediaType.valueOf("application/x-msgpack");
+	
+	/** The types picked from the Accept header by content negotiation. */
+	private static final List<MediaType> NEGOTIATED_TYPES = List.of(
+			MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MEDIA_TYPE_APPLICATION_YML,
+			MediaType.APPLICATION_CBOR, MEDIA_TYPE_APPLICATION_SMILE, MEDIA_TYPE_APPLICATION_MSGPACK);
+	
+	static boolean isNegotiated(MediaType type) {
+		if (type == null) return false;
+		for (MediaType candidate : NEGOTIATED_TYPES) {
+			if (candidate.includes(type)) return true;
+		}
+		return false;
+	}
 	
 	@Value("${cors.originPatterns:default}")
 	private String corsOriginPatters = "";
 	
+	@Value("${response-compression.enabled:true}")
+	private boolean compressionEnabled;
+	
+	@Value("${response-compression.min-size:1024}")
+	private int compressionMinSize;
+	
+	@Value("${response-compression.mime-types:application/json,application/xml,application/x-yaml}")
+	private List<MediaType> compressionMimeTypes;
+	
+	@Value("${response-compression.gzip-level:6}")
+	private int gzipLevel;
+	
+	@Value("${response-compression.brotli:true}")
+	private boolean brotli;
+	
+	@Value("${response-compression.brotli-quality:4}")
+	private int brotliQuality;
+	
+	@Value("${response-compression.deflater-pool-size:64}")
+	private int deflaterPoolSize;
+	
+	@Bean
+	public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter() {
+		var filter = new ResponseCompressionFilter(compressionMimeTypes, compressionMinSize,
+				new DeflaterPool(gzipLevel, deflaterPoolSize), brotli, brotliQuality);
+		var registration = new FilterRegistrationBean<>(filter);
+		registration.setEnabled(compressionEnabled);
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+		return registration;
+	}
+	
+	@Bean
+	public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(ResponseCache responseCache) {
+		var filter = new ResponseCacheFilter(responseCache, List.of("person", "book"), NEGOTIATED_TYPES);
+		var registration = new FilterRegistrationBean<>(filter);
+		// behind authentication, so cached bodies are never served anonymously
+		registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+		return registration;
+	}
+	
 	@Override
 	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		// Spring registers its own CBOR and Smile converters when the formats
+		// are on the classpath; ours share the NON_NULL setup of the others
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+				|| converter instanceof MappingJackson2SmileHttpMessageConverter);
 		converters.add(new YamlJackson2HttpMessageConverter());
+		converters.add(new CborJackson2HttpMessageConverter());
+		converters.add(new SmileJackson2HttpMessageConverter());
+		converters.add(new MessagePackJackson2HttpMessageConverter());
 	}
 	
 	
@@ -55,7 +130,10 @@ public class WebConfig implements WebMvcConfigurer {
 				.defaultContentType(MediaType.APPLICATION_JSON)
 					.mediaType("json", MediaType.APPLICATION_JSON)
 					.mediaType("xml", MediaType.APPLICATION_XML)
-					.mediaType("x-yaml", MEDIA_TYPE_APPLICATION_YML);
+					.mediaType("x-yaml", MEDIA_TYPE_APPLICATION_YML)
+					.mediaType("cbor", MediaType.APPLICATION_CBOR)
+					.mediaType("smile", MEDIA_TYPE_APPLICATION_SMILE)
+					.mediaType("msgpack", MEDIA_TYPE_APPLICATION_MSGPACK);
 	}
 
 }
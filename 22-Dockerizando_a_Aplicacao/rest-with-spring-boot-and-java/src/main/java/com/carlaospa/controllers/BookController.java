@@ -3,6 +3,7 @@ package com.carlaospa.controllers;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.carlaospa.data.vo.v1.BookVO;
 import com.carlaospa.services.BookServices;
+import com.carlaospa.util.ETags;
 import com.carlaospa.util.MediaType;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -35,7 +37,8 @@ public class BookController {
 	private BookServices service;
 	
 	@GetMapping( 
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Finds all Book", description = "Finds all Book", 
 	tags = {"Book"},
 	responses = {
@@ -57,7 +60,8 @@ public class BookController {
 	}
 
 	@GetMapping(value = "/{id}",
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,MediaType.APPLICATION_YML })
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Finds a Book", description = "Find a Book", 
 	tags = {"Book"},
 	responses = {
@@ -70,14 +74,20 @@ public class BookController {
 			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
 			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
 	})
-	public BookVO findById(@PathVariable(value = "id") Long id) throws Exception {
+	public ResponseEntity<BookVO> findById(@PathVariable(value = "id") Long id) throws Exception {
 
-		return service.findById(id);
+		String etag = ETags.of(service.findVersion(id));
+		if (ETags.notModified(etag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		
+		var book = service.findById(id);
+		return ResponseEntity.ok().eTag(ETags.of(book.getVersion())).body(book);
 	}
 	
 	@PostMapping( 
-			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML },
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK },
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Adds a new Book", description = "Adds a new Book by passing in a JSON, XML or YML representation of the book.", 
 	tags = {"Book"},
 	responses = {
@@ -94,8 +104,10 @@ public class BookController {
 	}	
 	
 	@PutMapping(
-			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML },
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK },
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Updates a Book", description = "Update a Book by passing in a JSON, XML or YML representation of the book.", 
 	tags = {"Book"},
 	responses = {
@@ -107,9 +119,12 @@ public class BookController {
 			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
 			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
 	})
-	public BookVO update(@RequestBody BookVO book) throws Exception {
+	public ResponseEntity<BookVO> update(@RequestBody BookVO book) throws Exception {
 
-		return service.update(book);
+		var updated = service.update(book, ETags.expectedVersion());
+		// without If-Match the single UPDATE cannot tell the new version
+		if (updated.getVersion() == null) return ResponseEntity.ok(updated);
+		return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
 	}	
 	
 	@DeleteMapping(value = "/{id}")
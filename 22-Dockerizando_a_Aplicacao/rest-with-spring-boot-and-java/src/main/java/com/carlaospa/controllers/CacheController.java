@@ -0,0 +1,31 @@
+package com.carlaospa.controllers;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.carlaospa.data.vo.v1.CacheRegionStatsVO;
+import com.carlaospa.services.EntityCacheService;
+import com.carlaospa.util.MediaType;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+@RestController
+@RequestMapping("/api/cache/v1")
+@Tag(name = "Cache", description = "Second level cache statistics")
+public class CacheController {
+
+	@Autowired
+	private EntityCacheService service;
+	
+	@GetMapping(produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+	@Operation(summary = "Reports cache hits and misses", description = "Hits, misses and puts of each second level cache region since startup", 
+		tags = {"Cache"})
+	public List<CacheRegionStatsVO> findRegionStats() {
+		return service.findRegionStats();
+	}
+}
@@ -1,90 +1,216 @@
 package com.carlaospa.controllers;
 
-import java.util.Arrays;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.jboss.logging.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.carlaospa.data.vo.v1.CompressionStatsVO;
+import com.carlaospa.data.vo.v1.FileMetadataVO;
 import com.carlaospa.data.vo.v1.UploadFileResponseVO;
+import com.carlaospa.data.vo.v1.UploadSessionVO;
+import com.carlaospa.services.FileBatchUploadService;
+import com.carlaospa.services.FileDownloadService;
+import com.carlaospa.services.FileMetadataService;
 import com.carlaospa.services.FileStorageService;
+import com.carlaospa.services.FileZipService;
+import com.carlaospa.services.ResumableUploadService;
+import com.carlaospa.storage.UploadSession;
 
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Tag(name = "File Endpoint")
 @RestController
 @RequestMapping("/api/file/v1")
 public class FileController {
 	
+	private static final String UPLOAD_OFFSET = "Upload-Offset";
+	
 	private Logger logger = Logger.getLogger(FileController.class.getName());
 	
 	@Autowired
 	private FileStorageService service;
 	
+	@Autowired
+	private FileDownloadService downloadService;
+	
+	@Autowired
+	private ResumableUploadService uploadService;
+	
+	@Autowired
+	private FileBatchUploadService batchUploadService;
+	
+	@Autowired
+	private FileMetadataService metadataService;
+	
+	@Autowired
+	private FileZipService zipService;
+	
 	@PostMapping("/uploadFile")
 	public UploadFileResponseVO uploadFile(@RequestParam("file") MultipartFile file ) {
 		
 		logger.info("Storing file to disk");
 		
 		var filename = service.storeFile(file);
-		String fileDownloadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
-				.path("/api/file/v1/downloadFile/")
-				.path(filename)
-				.toUriString();		
+		String fileDownloadUri = downloadUri(filename);
 		
 		return new UploadFileResponseVO(filename, fileDownloadUri, file.getContentType(), file.getSize());	
 	}
 	
+	@PutMapping("/uploadFile/{filename:.+}")
+	public UploadFileResponseVO uploadFileStream(
+			@PathVariable String filename, HttpServletRequest request) throws IOException {
+		
+		logger.info("Streaming file to disk");
+		
+		var stored = service.storeStream(filename, request.getContentType(), request.getInputStream());
+		String fileDownloadUri = downloadUri(stored.filename());
+		
+		return new UploadFileResponseVO(stored.filename(), fileDownloadUri,
+				request.getContentType(), stored.size(), stored.checksum());
+	}
+	
 	@PostMapping("/uploadMultipleFiles")
 	public List<UploadFileResponseVO> uploadMutipleFile(@RequestParam("files") MultipartFile[] files) {
 		
 		logger.info("Storing files to disk");
 		
-        return Arrays.asList(files)
-        		.stream()
-        		.map(file -> uploadFile(file))
-        		.collect(Collectors.toList());
+		return batchUploadService.storeFiles(files, downloadUri(""));
 	}
 	
-	@GetMapping("/downloadFile/{filename:.+}")
-	public ResponseEntity<Resource> downloadFile(
-			@PathVariable String filename, HttpServletRequest request) {
+	@GetMapping
+	public ResponseEntity<PagedModel<EntityModel<FileMetadataVO>>> findAll(
+			@RequestParam(value = "after", defaultValue = "") String after,
+			@RequestParam(value = "prefix", defaultValue = "") String prefix,
+			@RequestParam(value = "contentType", required = false) String contentType,
+			@RequestParam(value = "size", defaultValue = "50") Integer size) {
 		
-		logger.info("Reading a file on disk");
+		logger.info("Listing stored files");
 		
-		Resource resource = service.loadFileAsResource(filename);
+		return ResponseEntity.ok(metadataService.findAll(after, prefix, contentType, Math.min(Math.max(size, 1), 1000)));
+	}
+	
+	@GetMapping("/metadata/{filename:.+}")
+	public FileMetadataVO findMetadata(@PathVariable String filename) {
 		
-		String contentType = "";
+		logger.info("Finding metadata of a stored file");
 		
-		try {			
-			contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());	
-		} catch (Exception e) {
-			logger.info("Could not determine file type!");
-		}
+		return metadataService.findByName(filename);
+	}
+	
+	@GetMapping("/compression")
+	public List<CompressionStatsVO> findCompressionStats() {
+		
+		logger.info("Reporting disk savings of compressed files");
 		
+		return metadataService.findCompressionStats();
+	}
+	
+	@PostMapping("/uploads")
+	public ResponseEntity<UploadSessionVO> createUpload(
+			@RequestParam("filename") String filename, @RequestParam("length") long length) {
 		
-		if (contentType == null || contentType.isBlank()) contentType = "application/octet-stream";
+		logger.info("Creating a resumable upload");
+		
+		var vo = toUploadSessionVO(uploadService.create(filename, length));
+		return ResponseEntity.created(URI.create(vo.getUploadUri()))
+				.header(UPLOAD_OFFSET, String.valueOf(vo.getOffset()))
+				.body(vo);
+	}
+	
+	@PatchMapping("/uploads/{id}")
+	public ResponseEntity<UploadSessionVO> uploadChunk(@PathVariable String id,
+			@RequestHeader(UPLOAD_OFFSET) long offset, HttpServletRequest request) throws IOException {
 		
+		logger.info("Writing a chunk of a resumable upload");
 		
+		var vo = toUploadSessionVO(uploadService.write(id, offset, request.getInputStream()));
 		return ResponseEntity.ok()
-				.contentType(MediaType.parseMediaType(contentType))
-				.header(HttpHeaders.CONTENT_DISPOSITION, 
-						"attachment; filename=\"" + resource.getFilename() + "\"")
-				.body(resource);
+				.header(UPLOAD_OFFSET, String.valueOf(vo.getOffset()))
+				.body(vo);
+	}
+	
+	@GetMapping("/uploads/{id}")
+	public ResponseEntity<UploadSessionVO> findUpload(@PathVariable String id) {
+		
+		logger.info("Finding the offset of a resumable upload");
+		
+		var vo = toUploadSessionVO(uploadService.find(id));
+		return ResponseEntity.ok()
+				.header(UPLOAD_OFFSET, String.valueOf(vo.getOffset()))
+				.body(vo);
+	}
+	
+	@PostMapping("/uploads/{id}/complete")
+	public UploadFileResponseVO completeUpload(@PathVariable String id) {
+		
+		logger.info("Completing a resumable upload");
+		
+		var stored = uploadService.complete(id);
+		return new UploadFileResponseVO(stored.filename(), downloadUri(stored.filename()),
+				null, stored.size(), stored.checksum());
+	}
+	
+	@DeleteMapping("/uploads/{id}")
+	public ResponseEntity<?> abortUpload(@PathVariable String id) {
+		
+		logger.info("Aborting a resumable upload");
+		
+		uploadService.abort(id);
+		return ResponseEntity.noContent().build();
+	}
+	
+	@GetMapping("/downloadFile/{filename:.+}")
+	public void downloadFile(@PathVariable String filename,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		
+		logger.info("Reading a file on disk");
+		
+		downloadService.download(filename, request, response);
+	}
+	
+	@PostMapping("/downloadZip")
+	public void downloadZip(@RequestBody List<String> filenames, HttpServletResponse response) throws IOException {
+		
+		logger.info("Streaming files on disk as a zip archive");
+		
+		zipService.zip(filenames, response);
+	}
+	
+	private UploadSessionVO toUploadSessionVO(UploadSession session) {
+		String uploadUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+				.path("/api/file/v1/uploads/")
+				.path(session.getId())
+				.toUriString();
+		return new UploadSessionVO(session.getId(), session.getFilename(), uploadUri,
+				session.getLength(), session.getOffset());
+	}
+	
+	private String downloadUri(String filename) {
+		return ServletUriComponentsBuilder.fromCurrentContextPath()
+				.path("/api/file/v1/downloadFile/")
+				.path(filename)
+				.toUriString();
 	}
 
 }
@@ -1,5 +1,8 @@
 package com.carlaospa.controllers;
 
+import java.io.IOException;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -7,6 +10,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -19,9 +24,16 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.carlaospa.data.vo.v1.BulkItemResultVO;
 import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.model.Person;
+import com.carlaospa.services.PersonBulkServices;
+import com.carlaospa.services.PersonExportServices;
 import com.carlaospa.services.PersonServices;
+import com.carlaospa.services.PersonServices.EstimatedSlice;
+import com.carlaospa.util.ETags;
 import com.carlaospa.util.MediaType;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,6 +42,7 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 
 //@CrossOrigin
 @RestController
@@ -37,12 +50,21 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "People", description = "Endpoints for Managing People")
 public class PersonController {
 
+	public static final String APPROXIMATE_TOTAL_COUNT = "X-Approximate-Total-Count";
+
 	@Autowired
 	private PersonServices service;
 	
+	@Autowired
+	private PersonExportServices exportService;
+	
+	@Autowired
+	private PersonBulkServices bulkService;
+	
 	@GetMapping( 
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
-	@Operation(summary = "Finds all People", description = "Finds all People", 
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
+	@Operation(summary = "Finds all People", description = "Finds all People; with count=false the total is not counted, only a next link and an approximate total header are given", 
 	tags = {"People"},
 	responses = {
 			@ApiResponse(description = "Success", responseCode = "200",
@@ -61,21 +83,34 @@ public class PersonController {
 	public ResponseEntity<PagedModel<EntityModel<PersonVO>>> findAll(
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "size", defaultValue = "12") Integer size,
-			@RequestParam(value = "direction", defaultValue = "asc") String direction
+			@RequestParam(value = "direction", defaultValue = "asc") String direction,
+			@RequestParam(value = "cursor", required = false) String cursor,
+			@RequestParam(value = "count", required = false) Boolean count
 			){
 		
 		var sortDirection = "desc".equalsIgnoreCase(direction) 
 				? Direction.DESC : Direction.ASC;
+		// the keyset query reads size + 1 rows, so an unbounded size would overflow
+		size = Math.min(Math.max(size, 1), 1000);
 		
-		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));			
-		return ResponseEntity.ok(service.findAll(pageable));
+		// Keyset mode: an empty cursor starts at the first row, next/prev links carry the following ones
+		if (cursor != null) return ResponseEntity.ok(service.findAllByCursor(cursor, size, sortDirection));
+		
+		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+		if (Boolean.FALSE.equals(count)) return withEstimate(service.findSlice(pageable));
+		
+		var people = service.findPage(pageable);
+		String etag = ETags.page(people, Person::getId, Person::getVersion);
+		if (ETags.notModified(etag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		return ResponseEntity.ok().eTag(etag).body(service.toPagedModel(people, pageable));
 	}
 	
 	
 	@GetMapping(
 			value = "/findPersonByName/{firstName}",
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
-	@Operation(summary = "Finds People by Name", description = "Finds People by Name", 
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
+	@Operation(summary = "Finds People by Name", description = "Finds People by Name; with count=false the total is not counted, only a next link and an approximate total header are given", 
 	tags = {"People"},
 	responses = {
 			@ApiResponse(description = "Success", responseCode = "200",
@@ -95,19 +130,66 @@ public class PersonController {
 			@PathVariable(value = "firstName") String firstName,
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "size", defaultValue = "12") Integer size,
-			@RequestParam(value = "direction", defaultValue = "asc") String direction
+			@RequestParam(value = "direction", defaultValue = "asc") String direction,
+			@RequestParam(value = "count", required = false) Boolean count
 			){
 		
 		var sortDirection = "desc".equalsIgnoreCase(direction) 
 				? Direction.DESC : Direction.ASC;
+		size = Math.min(Math.max(size, 1), 1000);
 		
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));			
+		if (Boolean.FALSE.equals(count)) {
+			return withEstimate(service.findSliceByName(firstName, pageable));
+		}
 		return ResponseEntity.ok(service.findPersonByName(firstName, pageable));
 	}
 	
+	// count=false answers carry no page metadata, only this approximate total when one is known
+	private static ResponseEntity<PagedModel<EntityModel<PersonVO>>> withEstimate(EstimatedSlice result) {
+		
+		if (result.estimate() == null) return ResponseEntity.ok(result.slice());
+		return ResponseEntity.ok().header(APPROXIMATE_TOTAL_COUNT, result.estimate().toString()).body(result.slice());
+	}
+	
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON)
+	@Operation(summary = "Exports all People as NDJSON", description = "Streams every Person as one JSON document per line", 
+	tags = {"People"},
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_NDJSON)),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public ResponseEntity<StreamingResponseBody> exportNdjson() {
+		
+		StreamingResponseBody body = out -> exportService.exportNdjson(out);
+		return ResponseEntity.ok()
+				.contentType(org.springframework.http.MediaType.parseMediaType(MediaType.APPLICATION_NDJSON))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"people.ndjson\"")
+				.body(body);
+	}
+	
+	@GetMapping(value = "/export", produces = MediaType.TEXT_CSV)
+	@Operation(summary = "Exports all People as CSV", description = "Streams every Person as a CSV row", 
+	tags = {"People"},
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", content = @Content(mediaType = MediaType.TEXT_CSV)),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public ResponseEntity<StreamingResponseBody> exportCsv() {
+		
+		StreamingResponseBody body = out -> exportService.exportCsv(out);
+		return ResponseEntity.ok()
+				.contentType(org.springframework.http.MediaType.parseMediaType(MediaType.TEXT_CSV))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"people.csv\"")
+				.body(body);
+	}
+	
 	@CrossOrigin(origins= "http://localhost:8080")
 	@GetMapping(value = "/{id}",
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,MediaType.APPLICATION_YML })
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Finds a Person", description = "Find a Person", 
 	tags = {"People"},
 	responses = {
@@ -120,15 +202,21 @@ public class PersonController {
 			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
 			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
 	})
-	public PersonVO findById(@PathVariable(value = "id") Long id) throws Exception {
-		return service.findById(id);
+	public ResponseEntity<PersonVO> findById(@PathVariable(value = "id") Long id) throws Exception {
+		String etag = ETags.of(service.findVersion(id));
+		if (ETags.notModified(etag)) return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+		
+		var person = service.findById(id);
+		return ResponseEntity.ok().eTag(ETags.of(person.getVersion())).body(person);
 	}
 	
 	
 	@CrossOrigin(origins= {"http://localhost:8080", "https://carlao.com"})
 	@PostMapping( 
-			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML },
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK },
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Adds a new Person", description = "Adds a new Person by passing in a JSON, XML or YML representation of the person.", 
 	tags = {"People"},
 	responses = {
@@ -145,9 +233,50 @@ public class PersonController {
 	}	
 	
 	
+	@PostMapping(value = "/bulk",
+			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK },
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
+	@Operation(summary = "Adds or updates People in bulk", description = "Adds People without an id and updates the ones with an id, in batched chunks, by passing in a JSON, XML or YML list of people.", 
+	tags = {"People"},
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200",
+					content = @Content(array = @ArraySchema(schema = @Schema(implementation = BulkItemResultVO.class)))
+			),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
+	})
+	public List<BulkItemResultVO> bulk(@RequestBody List<PersonVO> people) throws Exception {
+		
+		return bulkService.saveAll(people);
+	}
+	
+	@PostMapping(value = "/bulk",
+			consumes = MediaType.APPLICATION_NDJSON,
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
+	@Operation(summary = "Adds or updates People in bulk from NDJSON", description = "Same as the list variant, reading one JSON person per line while the body streams in.", 
+	tags = {"People"},
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200",
+					content = @Content(array = @ArraySchema(schema = @Schema(implementation = BulkItemResultVO.class)))
+			),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
+	})
+	public List<BulkItemResultVO> bulkNdjson(HttpServletRequest request) throws IOException {
+		
+		return bulkService.saveAllNdjson(request.getInputStream());
+	}
+	
 	@PutMapping(
-			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML },
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML })
+			consumes = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK },
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Updates a Person", description = "Update a Person by passing in a JSON, XML or YML representation of the person.", 
 	tags = {"People"},
 	responses = {
@@ -159,14 +288,18 @@ public class PersonController {
 			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
 			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
 	})
-	public PersonVO update(@RequestBody PersonVO person) throws Exception {
+	public ResponseEntity<PersonVO> update(@RequestBody PersonVO person) throws Exception {
 
-		return service.update(person);
+		var updated = service.update(person, ETags.expectedVersion());
+		// without If-Match the single UPDATE cannot tell the new version
+		if (updated.getVersion() == null) return ResponseEntity.ok(updated);
+		return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
 	}	
 	
 	
 	@PatchMapping(value = "/{id}",
-			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,MediaType.APPLICATION_YML })
+			produces = { MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML,
+					MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE, MediaType.APPLICATION_MSGPACK })
 	@Operation(summary = "Disable a specific Person by your ID", description = "Disable a specific Person by your ID", 
 	tags = {"People"},
 	responses = {
@@ -179,9 +312,11 @@ public class PersonController {
 			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
 			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)			
 	})
-	public PersonVO disablePerson(@PathVariable(value = "id") Long id) throws Exception {
+	public ResponseEntity<PersonVO> disablePerson(@PathVariable(value = "id") Long id) throws Exception {
 
-		return service.disablePerson(id);
+		var disabled = service.disablePerson(id, ETags.expectedVersion());
+		if (disabled.getVersion() == null) return ResponseEntity.ok(disabled);
+		return ResponseEntity.ok().eTag(ETags.of(disabled.getVersion())).body(disabled);
 	}	
 	
 	
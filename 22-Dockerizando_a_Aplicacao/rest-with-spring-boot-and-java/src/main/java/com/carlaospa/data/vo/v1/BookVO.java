@@ -6,6 +6,7 @@ import java.util.Objects;
 
 import org.springframework.hateoas.RepresentationModel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.github.dozermapper.core.Mapping;
@@ -23,6 +24,9 @@ public class BookVO extends RepresentationModel<BookVO> implements Serializable
 	private Double price;
 	private String title;
 	
+	@JsonIgnore
+	private Long version;
+	
 	public BookVO() {}
 
 	public Long getKey() {
@@ -65,6 +69,15 @@ public class BookVO extends RepresentationModel<BookVO> implements Serializable
 		this.title = title;
 	}
 
+	/** Sent as the ETag, never in the body. */
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
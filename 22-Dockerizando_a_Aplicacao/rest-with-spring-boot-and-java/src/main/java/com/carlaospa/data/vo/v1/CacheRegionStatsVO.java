@@ -0,0 +1,82 @@
+package com.carlaospa.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"region", "hits", "misses", "puts", "hitRatio"})
+public class CacheRegionStatsVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private String region;
+	private long hits;
+	private long misses;
+	private long puts;
+	
+	public CacheRegionStatsVO() {}
+	
+	public CacheRegionStatsVO(String region, long hits, long misses, long puts) {
+		this.region = region;
+		this.hits = hits;
+		this.misses = misses;
+		this.puts = puts;
+	}
+
+	public String getRegion() {
+		return region;
+	}
+
+	public void setRegion(String region) {
+		this.region = region;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public void setHits(long hits) {
+		this.hits = hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void setMisses(long misses) {
+		this.misses = misses;
+	}
+
+	public long getPuts() {
+		return puts;
+	}
+
+	public void setPuts(long puts) {
+		this.puts = puts;
+	}
+
+	/** Share of lookups served from the cache; 0 before the first lookup. */
+	public double getHitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0.0 : (double) hits / lookups;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(region, hits, misses, puts);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CacheRegionStatsVO other = (CacheRegionStatsVO) obj;
+		return Objects.equals(region, other.region) && hits == other.hits
+				&& misses == other.misses && puts == other.puts;
+	}
+}
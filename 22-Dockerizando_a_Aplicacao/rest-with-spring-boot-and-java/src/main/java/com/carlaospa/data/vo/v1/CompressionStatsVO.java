@@ -0,0 +1,85 @@
+package com.carlaospa.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"contentEncoding", "files", "size", "storedSize", "savedBytes", "ratio"})
+public class CompressionStatsVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private String contentEncoding;
+	private long files;
+	private long size;
+	private long storedSize;
+	
+	public CompressionStatsVO() {}
+	
+	public CompressionStatsVO(String contentEncoding, Long files, Long size, Long storedSize) {
+		this.contentEncoding = contentEncoding;
+		this.files = files == null ? 0 : files;
+		this.size = size == null ? 0 : size;
+		this.storedSize = storedSize == null ? 0 : storedSize;
+	}
+
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	public void setContentEncoding(String contentEncoding) {
+		this.contentEncoding = contentEncoding;
+	}
+
+	public long getFiles() {
+		return files;
+	}
+
+	public void setFiles(long files) {
+		this.files = files;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public long getStoredSize() {
+		return storedSize;
+	}
+
+	public void setStoredSize(long storedSize) {
+		this.storedSize = storedSize;
+	}
+
+	public long getSavedBytes() {
+		return size - storedSize;
+	}
+
+	/** Stored bytes per original byte; lower is better. */
+	public double getRatio() {
+		return size == 0 ? 1.0 : (double) storedSize / size;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(contentEncoding, files, size, storedSize);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		CompressionStatsVO other = (CompressionStatsVO) obj;
+		return Objects.equals(contentEncoding, other.contentEncoding) && files == other.files
+				&& size == other.size && storedSize == other.storedSize;
+	}
+}
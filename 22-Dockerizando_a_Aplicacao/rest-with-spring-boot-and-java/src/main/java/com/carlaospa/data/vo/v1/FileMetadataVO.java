@@ -0,0 +1,104 @@
+package com.carlaospa.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import org.springframework.hateoas.RepresentationModel;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"name", "size", "contentType", "checksum", "storedSize", "contentEncoding", "createdAt"})
+public class FileMetadataVO extends RepresentationModel<FileMetadataVO> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private String name;
+	private Long size;
+	private String contentType;
+	private String checksum;
+	private Long storedSize;
+	private String contentEncoding;
+	private Date createdAt;
+	
+	public FileMetadataVO() {}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public void setSize(Long size) {
+		this.size = size;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(String checksum) {
+		this.checksum = checksum;
+	}
+
+	public Long getStoredSize() {
+		return storedSize;
+	}
+
+	public void setStoredSize(Long storedSize) {
+		this.storedSize = storedSize;
+	}
+
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	public void setContentEncoding(String contentEncoding) {
+		this.contentEncoding = contentEncoding;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + Objects.hash(checksum, contentEncoding, contentType, createdAt, name, size, storedSize);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FileMetadataVO other = (FileMetadataVO) obj;
+		return Objects.equals(checksum, other.checksum) && Objects.equals(contentEncoding, other.contentEncoding)
+				&& Objects.equals(contentType, other.contentType)
+				&& Objects.equals(createdAt, other.createdAt) && Objects.equals(name, other.name)
+				&& Objects.equals(size, other.size) && Objects.equals(storedSize, other.storedSize);
+	}
+}
@@ -5,6 +5,8 @@ import java.util.Objects;
 
 import org.springframework.hateoas.RepresentationModel;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import com.github.dozermapper.core.Mapping;
@@ -21,8 +23,14 @@ public class PersonVO extends RepresentationModel<PersonVO> implements Serializa
 	private String lastName;
 	private String address;
 	private String gender;
+	
+	// left out of PUT responses, which do not write it
+	@JsonInclude(JsonInclude.Include.NON_NULL)
 	private Boolean enabled;	
 	
+	@JsonIgnore
+	private Long version;
+	
 	public PersonVO() {}
 
 	public Long getKey() {
@@ -73,6 +81,15 @@ public class PersonVO extends RepresentationModel<PersonVO> implements Serializa
 		this.enabled = enabled;
 	}
 
+	/** Sent as the ETag, never in the body. */
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -10,6 +10,8 @@ public class UploadFileResponseVO implements Serializable {
 	private String fileDownloadUri;
 	private String fileType;
 	private long size;
+	private String checksum;
+	private String error;
 	
 	public UploadFileResponseVO() {}
 	
@@ -20,6 +22,11 @@ public class UploadFileResponseVO implements Serializable {
 		this.fileType = fileType;
 		this.size = size;
 	}
+	
+	public UploadFileResponseVO(String fileName, String fileDownloadUri, String fileType, long size, String checksum) {
+		this(fileName, fileDownloadUri, fileType, size);
+		this.checksum = checksum;
+	}
 
 	public String getFileName() {
 		return fileName;
@@ -52,4 +59,20 @@ public class UploadFileResponseVO implements Serializable {
 	public void setSize(long size) {
 		this.size = size;
 	}
+
+	public String getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(String checksum) {
+		this.checksum = checksum;
+	}
+
+	public String getError() {
+		return error;
+	}
+
+	public void setError(String error) {
+		this.error = error;
+	}
 }
@@ -0,0 +1,65 @@
+package com.carlaospa.data.vo.v1;
+
+import java.io.Serializable;
+
+public class UploadSessionVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	private String id;
+	private String fileName;
+	private String uploadUri;
+	private long length;
+	private long offset;
+	
+	public UploadSessionVO() {}
+	
+	public UploadSessionVO(String id, String fileName, String uploadUri, long length, long offset) {
+		super();
+		this.id = id;
+		this.fileName = fileName;
+		this.uploadUri = uploadUri;
+		this.length = length;
+		this.offset = offset;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public String getUploadUri() {
+		return uploadUri;
+	}
+
+	public void setUploadUri(String uploadUri) {
+		this.uploadUri = uploadUri;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public void setLength(long length) {
+		this.length = length;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public void setOffset(long offset) {
+		this.offset = offset;
+	}
+}
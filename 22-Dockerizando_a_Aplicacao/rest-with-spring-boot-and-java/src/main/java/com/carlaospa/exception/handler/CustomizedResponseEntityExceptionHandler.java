@@ -4,6 +4,7 @@ import java.util.Date;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,7 +12,11 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
 import com.carlaospa.exception.ExceptionResponse;
+import com.carlaospa.exception.InvalidCursorException;
+import com.carlaospa.exception.InvalidDownloadException;
 import com.carlaospa.exception.InvalidJwtAuthenticationException;
+import com.carlaospa.exception.InvalidUploadException;
+import com.carlaospa.exception.PreconditionFailedException;
 import com.carlaospa.exception.RequiredObjectIsNullException;
 import com.carlaospa.exception.ResourceNotFoundException;
 
@@ -44,7 +49,8 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 	}
 	
 	
-	@ExceptionHandler(RequiredObjectIsNullException.class)
+	@ExceptionHandler({RequiredObjectIsNullException.class, InvalidCursorException.class, InvalidUploadException.class,
+		InvalidDownloadException.class})
 	public  final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(
 			Exception ex, WebRequest request){
 		
@@ -57,6 +63,18 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 		
 	}	
 	
+	@ExceptionHandler({PreconditionFailedException.class, ObjectOptimisticLockingFailureException.class})
+	public  final ResponseEntity<ExceptionResponse> handlePreconditionFailedExceptions(
+			Exception ex, WebRequest request){
+		
+		ExceptionResponse exceptionResponse = new ExceptionResponse(
+				new Date(),
+				ex.getMessage(),
+				request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.PRECONDITION_FAILED);				
+	}	
+	
 	@ExceptionHandler(InvalidJwtAuthenticationException.class)
 	public  final ResponseEntity<ExceptionResponse> handleInvalidJwtAuthenticationException(
 			Exception ex, WebRequest request){
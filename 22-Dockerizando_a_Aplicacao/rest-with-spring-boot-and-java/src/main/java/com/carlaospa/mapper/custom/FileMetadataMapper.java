@@ -0,0 +1,22 @@
+package com.carlaospa.mapper.custom;
+
+import java.util.Date;
+
+import com.carlaospa.data.vo.v1.FileMetadataVO;
+import com.carlaospa.model.FileMetadata;
+
+public class FileMetadataMapper {
+
+	public static FileMetadataVO convertEntityToVo(FileMetadata file) {
+
+		FileMetadataVO vo = new FileMetadataVO();
+		vo.setName(file.getName());
+		vo.setSize(file.getSize());
+		vo.setContentType(file.getContentType());
+		vo.setChecksum(file.getChecksum());
+		vo.setStoredSize(file.getStoredSize());
+		vo.setContentEncoding(file.getContentEncoding());
+		vo.setCreatedAt(file.getCreatedAt() == null ? null : new Date(file.getCreatedAt().getTime()));
+		return vo;
+	}
+}
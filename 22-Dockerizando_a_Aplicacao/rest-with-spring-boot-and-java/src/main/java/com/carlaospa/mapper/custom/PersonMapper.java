@@ -0,0 +1,49 @@
+package com.carlaospa.mapper.custom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.model.Person;
+
+/**
+ * Hand written Person/PersonVO mapping, replacing the reflective Dozer one on
+ * the hot paths. Keeps the @Mapping("id") contract: PersonVO.key is Person.id.
+ */
+public class PersonMapper {
+
+	public static PersonVO convertEntityToVo(Person person) {
+
+		PersonVO vo = new PersonVO();
+		vo.setKey(person.getId());
+		vo.setFirstName(person.getFirstName());
+		vo.setLastName(person.getLastName());
+		vo.setAddress(person.getAddress());
+		vo.setGender(person.getGender());
+		vo.setEnabled(person.getEnabled());
+		vo.setVersion(person.getVersion());
+		return vo;
+	}
+
+	public static Person convertVoToEntity(PersonVO person) {
+
+		Person entity = new Person();
+		entity.setId(person.getKey());
+		entity.setFirstName(person.getFirstName());
+		entity.setLastName(person.getLastName());
+		entity.setAddress(person.getAddress());
+		entity.setGender(person.getGender());
+		entity.setEnabled(person.getEnabled());
+		entity.setVersion(person.getVersion());
+		return entity;
+	}
+
+	public static List<PersonVO> convertEntitiesToVos(List<Person> people) {
+
+		List<PersonVO> vos = new ArrayList<>(people.size());
+		for (Person person : people) {
+			vos.add(convertEntityToVo(person));
+		}
+		return vos;
+	}
+}
@@ -0,0 +1,135 @@
+package com.carlaospa.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+@Entity
+@Table(name = "file_metadata")
+public class FileMetadata implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+	
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	// utf8mb4_bin (V17): names compare byte for byte, like the storage keys
+	@Column(nullable = false, length = 255, unique = true)
+	private String name;
+	
+	@Column(nullable = false)
+	private Long size;
+	
+	@Column(name = "content_type", length = 150)
+	private String contentType;
+	
+	@Column(length = 64)
+	private String checksum;
+	
+	@Column(name = "stored_size")
+	private Long storedSize;
+	
+	@Column(name = "content_encoding", length = 16)
+	private String contentEncoding;
+	
+	@Column(name = "created_at", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date createdAt;
+	
+	public FileMetadata() {}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Long getSize() {
+		return size;
+	}
+
+	public void setSize(Long size) {
+		this.size = size;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public String getChecksum() {
+		return checksum;
+	}
+
+	public void setChecksum(String checksum) {
+		this.checksum = checksum;
+	}
+
+	public Long getStoredSize() {
+		return storedSize;
+	}
+
+	public void setStoredSize(Long storedSize) {
+		this.storedSize = storedSize;
+	}
+
+	public String getContentEncoding() {
+		return contentEncoding;
+	}
+
+	public void setContentEncoding(String contentEncoding) {
+		this.contentEncoding = contentEncoding;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(checksum, contentEncoding, contentType, createdAt, id, name, size, storedSize);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FileMetadata other = (FileMetadata) obj;
+		return Objects.equals(checksum, other.checksum) && Objects.equals(contentEncoding, other.contentEncoding)
+				&& Objects.equals(contentType, other.contentType)
+				&& Objects.equals(createdAt, other.createdAt) && Objects.equals(id, other.id)
+				&& Objects.equals(name, other.name) && Objects.equals(size, other.size)
+				&& Objects.equals(storedSize, other.storedSize);
+	}
+}
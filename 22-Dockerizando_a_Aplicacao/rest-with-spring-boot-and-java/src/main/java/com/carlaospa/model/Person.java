@@ -3,14 +3,21 @@ package com.carlaospa.model;
 import java.io.Serializable;
 import java.util.Objects;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "person")
 @Table(name = "person")
 public class Person implements Serializable {
 
@@ -38,6 +45,9 @@ public class Person implements Serializable {
 	@Column(nullable = false)
 	private Boolean enabled;
 	
+	@Version
+	private Long version;
+	
 	public Person() {}
 
 	public Long getId() {
@@ -88,6 +98,14 @@ public class Person implements Serializable {
 		this.enabled = enabled;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	@Override
 	public int hashCode() {
 		return Objects.hash(address, enabled, firstName, gender, id, lastName);
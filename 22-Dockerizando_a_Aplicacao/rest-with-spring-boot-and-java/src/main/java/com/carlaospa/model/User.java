@@ -5,9 +5,12 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -20,6 +23,8 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.Table;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @Table(name="users")
 public class User implements UserDetails, Serializable {
 
@@ -51,6 +56,7 @@ public class User implements UserDetails, Serializable {
 	private Boolean enabled;
 	
 	@ManyToMany(fetch = FetchType.EAGER)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-permissions")
 	@JoinTable(name = "user_permission", joinColumns = {@JoinColumn(name = "id_user")},
 		inverseJoinColumns = {@JoinColumn(name = "id_permission")}
 	)
@@ -89,7 +95,7 @@ public class User implements UserDetails, Serializable {
 
 	@Override
 	public boolean isAccountNonLocked() {		
-		return this.isAccountNonLocked();
+		return this.accountNonLocked;
 	}
 
 	@Override
@@ -6,6 +6,6 @@ import org.springframework.stereotype.Repository;
 import com.carlaospa.model.Book;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, BookWriteRepository {
 
 }
@@ -0,0 +1,13 @@
+package com.carlaospa.repository;
+
+import com.carlaospa.model.Book;
+
+/**
+ * Writes by id that take a single statement each, see PersonWriteRepository.
+ */
+public interface BookWriteRepository {
+
+	int updateBook(Book book, Long expectedVersion);
+
+	int deleteBook(Long id);
+}
@@ -0,0 +1,54 @@
+package com.carlaospa.repository;
+
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.carlaospa.model.Book;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Plain JDBC with a per row eviction from the second level cache (see
+ * EvictingWrite), like PersonWriteRepositoryImpl.
+ */
+public class BookWriteRepositoryImpl implements BookWriteRepository {
+
+	private static final String UPDATE_SQL =
+			"UPDATE books SET author = ?, launch_date = ?, price = ?, title = ?, version = version + 1 WHERE id = ?";
+	private static final String DELETE_SQL = "DELETE FROM books WHERE id = ?";
+	private static final String VERSION_CLAUSE = " AND version = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	public BookWriteRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Override
+	public int updateBook(Book book, Long expectedVersion) {
+		return write(book.getId(), () -> expectedVersion == null
+				? jdbcTemplate.update(UPDATE_SQL, book.getAuthor(), launchDate(book), book.getPrice(),
+						book.getTitle(), book.getId())
+				: jdbcTemplate.update(UPDATE_SQL + VERSION_CLAUSE, book.getAuthor(), launchDate(book),
+						book.getPrice(), book.getTitle(), book.getId(), expectedVersion));
+	}
+
+	@Override
+	public int deleteBook(Long id) {
+		return write(id, () -> jdbcTemplate.update(DELETE_SQL, id));
+	}
+
+	/** A DATE, as the @Temporal mapping binds it; a plain Date would bind as a timestamp. */
+	private static java.sql.Date launchDate(Book book) {
+		return book.getLaunchDate() == null ? null : new java.sql.Date(book.getLaunchDate().getTime());
+	}
+
+	private int write(Long id, IntSupplier statement) {
+		return EvictingWrite.run(entityManagerFactory, Book.class, id, statement);
+	}
+}
@@ -0,0 +1,40 @@
+package com.carlaospa.repository;
+
+import java.util.function.IntSupplier;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Runs a JDBC write of one row and keeps the second level cache from holding
+ * the old row. Hibernate soft-locks an entry while it writes it itself; a
+ * plain statement gets no such lock, so a concurrent load that read the row
+ * before the write could put it back after a single eviction. The row is
+ * evicted before the statement and again once the write is visible: after
+ * the transaction completes, or right away when the statement auto-commits.
+ */
+final class EvictingWrite {
+
+	private EvictingWrite() {
+	}
+
+	static int run(EntityManagerFactory entityManagerFactory, Class<?> entity, Object id, IntSupplier statement) {
+		Cache cache = entityManagerFactory.getCache();
+		cache.evict(entity, id);
+		int rows = statement.getAsInt();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					cache.evict(entity, id);
+				}
+			});
+		} else {
+			cache.evict(entity, id);
+		}
+		return rows;
+	}
+}
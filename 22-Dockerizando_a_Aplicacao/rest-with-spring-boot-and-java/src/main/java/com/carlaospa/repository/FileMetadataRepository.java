@@ -0,0 +1,33 @@
+package com.carlaospa.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.carlaospa.data.vo.v1.CompressionStatsVO;
+import com.carlaospa.model.FileMetadata;
+
+@Repository
+public interface FileMetadataRepository extends JpaRepository<FileMetadata, Long> {
+
+	@Query("SELECT f FROM FileMetadata f WHERE f.name =:name")
+	FileMetadata findByName(@Param("name") String name);
+	
+	boolean existsByName(String name);
+	
+	// Keyset pages over uk_file_metadata_name, or idx_file_metadata_content_type_name when filtering by type
+	@Query("SELECT f FROM FileMetadata f WHERE f.name > :after AND f.name LIKE :prefix ESCAPE '!' ORDER BY f.name")
+	List<FileMetadata> findFilesAfter(@Param("after") String after, @Param("prefix") String prefix, Pageable pageable);
+	
+	@Query("SELECT f FROM FileMetadata f WHERE f.contentType =:contentType AND f.name > :after AND f.name LIKE :prefix ESCAPE '!' ORDER BY f.name")
+	List<FileMetadata> findFilesByContentTypeAfter(@Param("contentType") String contentType,
+			@Param("after") String after, @Param("prefix") String prefix, Pageable pageable);
+	
+	@Query("SELECT new com.carlaospa.data.vo.v1.CompressionStatsVO(f.contentEncoding, COUNT(f), SUM(f.size), SUM(f.storedSize)) "
+			+ "FROM FileMetadata f WHERE f.contentEncoding IS NOT NULL GROUP BY f.contentEncoding ORDER BY f.contentEncoding")
+	List<CompressionStatsVO> findCompressionStats();
+}
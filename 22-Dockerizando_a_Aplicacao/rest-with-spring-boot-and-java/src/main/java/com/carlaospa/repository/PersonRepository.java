@@ -1,22 +1,57 @@
 package com.carlaospa.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.carlaospa.model.Person;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, PersonWriteRepository {
 	
-	@Modifying
-	@Query("UPDATE Person p SET p.enabled = false WHERE p.id =:id")
-	void disabledPerson(@Param("id") Long id);
-	                                                                       
 	@Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
 	Page<Person> findPersonsByName(@Param("firstName") String firstName, Pageable pageable);
+
+	// Slices read one row more than asked instead of running a COUNT query
+	@Query("SELECT p FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
+	Slice<Person> findPersonSliceByName(@Param("firstName") String firstName, Pageable pageable);
+
+	@Query("SELECT p FROM Person p")
+	Slice<Person> findPersonSlice(Pageable pageable);
+
+	@Query("SELECT COUNT(p) FROM Person p WHERE p.firstName LIKE LOWER(CONCAT('%', :firstName, '%'))")
+	long countPersonsByName(@Param("firstName") String firstName);
+
+	@Query("SELECT p.id, p.firstName FROM Person p WHERE p.id > :id")
+	List<Object[]> findPersonFirstNamesAfter(@Param("id") Long id, Pageable pageable);
+
+	// Keyset (seek) queries: the sort comes from the Pageable and must be (firstName, id)
+	@Query("SELECT p FROM Person p")
+	List<Person> findPersonsFirstSlice(Pageable pageable);
+
+	@Query("SELECT p FROM Person p WHERE p.firstName > :firstName OR (p.firstName = :firstName AND p.id > :id)")
+	List<Person> findPersonsAfter(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
+
+	@Query("SELECT p FROM Person p WHERE p.firstName < :firstName OR (p.firstName = :firstName AND p.id < :id)")
+	List<Person> findPersonsBefore(@Param("firstName") String firstName, @Param("id") Long id, Pageable pageable);
+
+	// Integer.MIN_VALUE makes Connector/J stream rows one by one instead of buffering the whole result;
+	// IGNORE keeps a full export from flushing the hot set out of the person cache region
+	@QueryHints({
+		@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"),
+		@QueryHint(name = "org.hibernate.readOnly", value = "true"),
+		@QueryHint(name = "org.hibernate.cacheMode", value = "IGNORE")
+	})
+	@Query("SELECT p FROM Person p")
+	Stream<Person> streamAll();
 }
@@ -0,0 +1,17 @@
+package com.carlaospa.repository;
+
+import com.carlaospa.model.Person;
+
+/**
+ * Writes by id that take a single statement each. They return the affected
+ * row count: 0 means the id does not exist or, when a version is given, that
+ * the row has moved past it. Every successful write bumps the version.
+ */
+public interface PersonWriteRepository {
+
+	int updatePerson(Person person, Long expectedVersion);
+
+	int disablePerson(Long id, Long expectedVersion);
+
+	int deletePerson(Long id);
+}
@@ -0,0 +1,60 @@
+package com.carlaospa.repository;
+
+import java.util.function.IntSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.carlaospa.model.Person;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Plain JDBC, so each write evicts only its own row from the second level
+ * cache (see EvictingWrite); a JPQL bulk update would drop the whole Person
+ * region. The version check is part of the WHERE clause, nothing is read
+ * first.
+ */
+public class PersonWriteRepositoryImpl implements PersonWriteRepository {
+
+	private static final String UPDATE_SQL =
+			"UPDATE person SET first_name = ?, last_name = ?, address = ?, gender = ?, version = version + 1 WHERE id = ?";
+	private static final String DISABLE_SQL =
+			"UPDATE person SET enabled = false, version = version + 1 WHERE id = ?";
+	private static final String DELETE_SQL = "DELETE FROM person WHERE id = ?";
+	private static final String VERSION_CLAUSE = " AND version = ?";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	public PersonWriteRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Override
+	public int updatePerson(Person person, Long expectedVersion) {
+		return write(person.getId(), () -> expectedVersion == null
+				? jdbcTemplate.update(UPDATE_SQL, person.getFirstName(), person.getLastName(), person.getAddress(),
+						person.getGender(), person.getId())
+				: jdbcTemplate.update(UPDATE_SQL + VERSION_CLAUSE, person.getFirstName(), person.getLastName(),
+						person.getAddress(), person.getGender(), person.getId(), expectedVersion));
+	}
+
+	@Override
+	public int disablePerson(Long id, Long expectedVersion) {
+		return write(id, () -> expectedVersion == null
+				? jdbcTemplate.update(DISABLE_SQL, id)
+				: jdbcTemplate.update(DISABLE_SQL + VERSION_CLAUSE, id, expectedVersion));
+	}
+
+	@Override
+	public int deletePerson(Long id) {
+		return write(id, () -> jdbcTemplate.update(DELETE_SQL, id));
+	}
+
+	private int write(Long id, IntSupplier statement) {
+		return EvictingWrite.run(entityManagerFactory, Person.class, id, statement);
+	}
+}
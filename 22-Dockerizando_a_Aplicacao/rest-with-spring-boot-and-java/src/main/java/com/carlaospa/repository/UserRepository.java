@@ -1,15 +1,28 @@
 package com.carlaospa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.carlaospa.model.User;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+	@QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
 	@Query("SELECT u FROM User u WHERE u.userName =:userName")
 	User findByUsername(@Param("userName") String userName);
+	
+	@Modifying
+	@Query("UPDATE User u SET u.enabled = false WHERE u.userName =:userName")
+	int disableUser(@Param("userName") String userName);
+	
+	@Modifying
+	@Query("UPDATE User u SET u.accountNonLocked = false WHERE u.userName =:userName")
+	int lockUser(@Param("userName") String userName);
 }
@@ -0,0 +1,94 @@
+package com.carlaospa.search;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing long to int map with linear probing, so keys and values
+ * stay in two primitive arrays instead of one boxed key and one entry object
+ * per mapping. Removal shifts the following run back, no tombstones pile up.
+ * Long.MIN_VALUE marks a free slot and cannot be used as a key; absent keys
+ * read as -1. Not thread safe.
+ */
+final class LongIntMap {
+
+	static final int MISSING = -1;
+
+	private static final long FREE = Long.MIN_VALUE;
+
+	private long[] keys;
+	private int[] values;
+	private int mask;
+	private int size;
+
+	LongIntMap() {
+		allocate(16);
+	}
+
+	int get(long key) {
+		for (int i = index(key);; i = (i + 1) & mask) {
+			if (keys[i] == key) return values[i];
+			if (keys[i] == FREE) return MISSING;
+		}
+	}
+
+	void put(long key, int value) {
+		if ((size + 1) * 4L > keys.length * 3L) rehash(keys.length * 2);
+		int i = index(key);
+		while (keys[i] != FREE && keys[i] != key) i = (i + 1) & mask;
+		if (keys[i] == FREE) size++;
+		keys[i] = key;
+		values[i] = value;
+	}
+
+	int remove(long key) {
+		int i = index(key);
+		while (keys[i] != key) {
+			if (keys[i] == FREE) return MISSING;
+			i = (i + 1) & mask;
+		}
+		int removed = values[i];
+
+		// move back every later entry of the run that may live in the gap
+		int gap = i;
+		for (int j = (i + 1) & mask; keys[j] != FREE; j = (j + 1) & mask) {
+			int home = index(keys[j]);
+			if (((j - home) & mask) >= ((j - gap) & mask)) {
+				keys[gap] = keys[j];
+				values[gap] = values[j];
+				gap = j;
+			}
+		}
+		keys[gap] = FREE;
+		size--;
+		return removed;
+	}
+
+	int size() {
+		return size;
+	}
+
+	private int index(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32)) & mask;
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == FREE) continue;
+			int j = index(oldKeys[i]);
+			while (keys[j] != FREE) j = (j + 1) & mask;
+			keys[j] = oldKeys[i];
+			values[j] = oldValues[i];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		Arrays.fill(keys, FREE);
+		values = new int[capacity];
+		mask = capacity - 1;
+	}
+}
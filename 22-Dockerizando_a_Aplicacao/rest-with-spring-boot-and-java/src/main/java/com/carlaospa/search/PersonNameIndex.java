@@ -0,0 +1,108 @@
+package com.carlaospa.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.stereotype.Component;
+
+import com.carlaospa.model.Person;
+import com.carlaospa.repository.PersonRepository;
+
+/**
+ * Trigram index over the person first names, so substring searches resolve
+ * to ids in memory instead of a leading-wildcard LIKE full table scan. Built
+ * once the application is ready and kept current by PersonServices and
+ * PersonBulkServices of this instance only: writes made through another
+ * replica or straight to the database are not seen until the next start.
+ */
+@Component
+public class PersonNameIndex {
+
+	private static final int LOAD_BATCH_SIZE = 10000;
+
+	private Logger logger = Logger.getLogger(PersonNameIndex.class.getName());
+
+	@Autowired
+	PersonRepository repository;
+
+	private final TrigramIndex firstNames = new TrigramIndex();
+
+	private volatile boolean ready = false;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void build() {
+
+		logger.info("Building the person name index!");
+
+		long lastId = 0;
+		List<Object[]> rows;
+		do {
+			rows = repository.findPersonFirstNamesAfter(lastId,
+					PageRequest.of(0, LOAD_BATCH_SIZE, Sort.by(Direction.ASC, "id")));
+			for (Object[] row : rows) {
+				lastId = (Long) row[0];
+				firstNames.put(lastId, (String) row[1]);
+			}
+		} while (rows.size() == LOAD_BATCH_SIZE);
+
+		ready = true;
+		logger.info("Person name index ready with " + firstNames.size() + " people!");
+	}
+
+	public boolean isReady() {
+		return ready;
+	}
+
+	public void put(Person person) {
+		firstNames.put(person.getId(), person.getFirstName());
+	}
+
+	public void remove(Long id) {
+		firstNames.remove(id);
+	}
+
+	public long[] searchFirstName(String firstName) {
+		return firstNames.search(firstName);
+	}
+
+	/**
+	 * Index backed equivalent of PersonRepository.findPersonsByName: the page is
+	 * selected from the candidate ids and loaded with a single findAllById,
+	 * and the total comes from the candidate count instead of a COUNT query.
+	 */
+	public Page<Person> findPersonsByFirstName(String firstName, Pageable pageable) {
+
+		long[] ids = firstNames.search(firstName);
+
+		var order = pageable.getSort().getOrderFor("firstName");
+		boolean descending = order != null && order.isDescending();
+		int offset = (int) Math.min(pageable.getOffset(), ids.length);
+		long[] page = firstNames.page(ids, descending, offset, pageable.getPageSize());
+		List<Long> pageIds = new ArrayList<>(page.length);
+		for (long id : page) pageIds.add(id);
+
+		Map<Long, Person> found = new HashMap<>();
+		for (Person person : repository.findAllById(pageIds)) {
+			found.put(person.getId(), person);
+		}
+
+		List<Person> content = new ArrayList<>(pageIds.size());
+		for (Long id : pageIds) {
+			var person = found.get(id);
+			if (person != null) content.add(person);
+		}
+		return new PageImpl<>(content, pageable, ids.length);
+	}
+}
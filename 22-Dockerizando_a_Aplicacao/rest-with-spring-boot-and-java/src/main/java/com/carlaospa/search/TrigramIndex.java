@@ -0,0 +1,305 @@
+package com.carlaospa.search;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index answering "contains" queries over a single
+ * text value per id. Each trigram maps to a sorted primitive posting list; a
+ * search intersects the lists of the query trigrams and then verifies the
+ * surviving candidates against the stored value.
+ *
+ * Sized for millions of rows, so nothing is kept per row as objects: every
+ * id gets a slot in parallel id/value arrays, ids and trigrams are looked up
+ * through primitive open addressing maps, and posting lists hold int slots.
+ * Slots of removed ids are reused.
+ */
+public class TrigramIndex {
+
+	private final LongIntMap slotsById = new LongIntMap();
+	private long[] ids = new long[16];
+	private String[] values = new String[16];
+	private int slotCount;
+	private int[] freeSlots = new int[16];
+	private int freeCount;
+
+	private final LongIntMap listsByGram = new LongIntMap();
+	private PostingList[] lists = new PostingList[16];
+	private int listCount;
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	public void put(long id, String value) {
+		String normalized = normalize(value);
+		lock.writeLock().lock();
+		try {
+			int slot = slotsById.get(id);
+			if (slot != LongIntMap.MISSING) {
+				if (values[slot].equals(normalized)) return;
+				unindex(slot, values[slot]);
+			} else {
+				slot = allocate(id);
+			}
+			values[slot] = normalized;
+			for (long gram : trigrams(normalized)) {
+				list(gram).add(slot);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(long id) {
+		lock.writeLock().lock();
+		try {
+			int slot = slotsById.remove(id);
+			if (slot == LongIntMap.MISSING) return;
+			unindex(slot, values[slot]);
+			values[slot] = null;
+			if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+			freeSlots[freeCount++] = slot;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slotsById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the ids whose value contains the query (case and accent
+	 * insensitive, like the utf8mb4_0900_ai_ci LIKE it replaces), in ascending
+	 * id order.
+	 */
+	public long[] search(String query) {
+		String needle = normalize(query);
+		long[] found;
+		int matches = 0;
+		lock.readLock().lock();
+		try {
+			// Too short to produce a trigram: scan the values, still without touching the database
+			if (needle.length() < 3) {
+				found = new long[slotsById.size()];
+				for (int slot = 0; slot < slotCount; slot++) {
+					if (values[slot] != null && values[slot].contains(needle)) found[matches++] = ids[slot];
+				}
+			} else {
+				long[] grams = trigrams(needle);
+				PostingList[] candidatesLists = new PostingList[grams.length];
+				for (int i = 0; i < grams.length; i++) {
+					int list = listsByGram.get(grams[i]);
+					if (list == LongIntMap.MISSING) return new long[0];
+					candidatesLists[i] = lists[list];
+				}
+				Arrays.sort(candidatesLists, Comparator.comparingInt(PostingList::size));
+
+				int[] candidates = candidatesLists[0].toArray();
+				int count = candidates.length;
+				for (int i = 1; i < candidatesLists.length && count > 0; i++) {
+					count = candidatesLists[i].retain(candidates, count);
+				}
+
+				// Sharing every trigram does not imply containing the query, e.g. "abcab" in "abcxbcab"
+				found = new long[count];
+				for (int i = 0; i < count; i++) {
+					if (values[candidates[i]].contains(needle)) found[matches++] = ids[candidates[i]];
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		// posting lists are in slot order, which reuse decouples from id order
+		found = Arrays.copyOf(found, matches);
+		Arrays.sort(found);
+		return found;
+	}
+
+	/**
+	 * Cuts one page out of the matches ordered by their indexed value, then
+	 * by id, the same (firstName, id) order the database would use. Only the
+	 * first offset + size are selected, with a bounded heap over the slots, so
+	 * page one of a query matching most rows costs a pass, not a full sort.
+	 * Ids no longer indexed are left out.
+	 */
+	public long[] page(long[] matches, boolean descending, int offset, int size) {
+		int limit = (int) Math.min((long) offset + size, matches.length);
+		if (offset >= limit) return new long[0];
+
+		lock.readLock().lock();
+		try {
+			// max-heap of the best `limit` slots seen so far, the worst one on top
+			int[] heap = new int[limit];
+			int count = 0;
+			for (long id : matches) {
+				int slot = slotsById.get(id);
+				if (slot == LongIntMap.MISSING) continue;
+				if (count < limit) {
+					heap[count] = slot;
+					siftUp(heap, count++, descending);
+				} else if (before(slot, heap[0], descending)) {
+					heap[0] = slot;
+					siftDown(heap, count, descending);
+				}
+			}
+
+			// popping the worst first fills the page from its end
+			long[] page = new long[Math.max(0, count - offset)];
+			while (count > 0) {
+				int worst = heap[0];
+				heap[0] = heap[--count];
+				siftDown(heap, count, descending);
+				if (count < offset) break;
+				page[count - offset] = ids[worst];
+			}
+			return page;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	private boolean before(int a, int b, boolean descending) {
+		int order = values[a].compareTo(values[b]);
+		if (order == 0) order = Long.compare(ids[a], ids[b]);
+		return descending ? order > 0 : order < 0;
+	}
+
+	private void siftUp(int[] heap, int pos, boolean descending) {
+		int slot = heap[pos];
+		while (pos > 0) {
+			int parent = (pos - 1) >>> 1;
+			if (!before(heap[parent], slot, descending)) break;
+			heap[pos] = heap[parent];
+			pos = parent;
+		}
+		heap[pos] = slot;
+	}
+
+	private void siftDown(int[] heap, int count, boolean descending) {
+		if (count == 0) return;
+		int slot = heap[0];
+		int pos = 0;
+		int child;
+		while ((child = 2 * pos + 1) < count) {
+			if (child + 1 < count && before(heap[child], heap[child + 1], descending)) child++;
+			if (!before(slot, heap[child], descending)) break;
+			heap[pos] = heap[child];
+			pos = child;
+		}
+		heap[pos] = slot;
+	}
+
+	private int allocate(long id) {
+		int slot;
+		if (freeCount > 0) {
+			slot = freeSlots[--freeCount];
+		} else {
+			if (slotCount == ids.length) {
+				ids = Arrays.copyOf(ids, slotCount * 2);
+				values = Arrays.copyOf(values, slotCount * 2);
+			}
+			slot = slotCount++;
+		}
+		ids[slot] = id;
+		slotsById.put(id, slot);
+		return slot;
+	}
+
+	/** Emptied lists stay mapped: the set of trigrams is small and they come back. */
+	private PostingList list(long gram) {
+		int list = listsByGram.get(gram);
+		if (list != LongIntMap.MISSING) return lists[list];
+		if (listCount == lists.length) lists = Arrays.copyOf(lists, listCount * 2);
+		lists[listCount] = new PostingList();
+		listsByGram.put(gram, listCount);
+		return lists[listCount++];
+	}
+
+	private void unindex(int slot, String value) {
+		for (long gram : trigrams(value)) {
+			int list = listsByGram.get(gram);
+			if (list != LongIntMap.MISSING) lists[list].remove(slot);
+		}
+	}
+
+	static String normalize(String value) {
+		if (value == null) return "";
+		return Normalizer.normalize(value, Normalizer.Form.NFD)
+				.replaceAll("\\p{M}", "")
+				.toLowerCase(Locale.ROOT);
+	}
+
+	static long[] trigrams(String value) {
+		if (value.length() < 3) return new long[0];
+		long[] grams = new long[value.length() - 2];
+		for (int i = 0; i < grams.length; i++) {
+			grams[i] = ((long) value.charAt(i) << 32)
+					| ((long) value.charAt(i + 1) << 16)
+					| value.charAt(i + 2);
+		}
+		Arrays.sort(grams);
+		int distinct = 0;
+		for (int i = 0; i < grams.length; i++) {
+			if (i == 0 || grams[i] != grams[i - 1]) grams[distinct++] = grams[i];
+		}
+		return Arrays.copyOf(grams, distinct);
+	}
+
+	/** Sorted, growable array of slots. */
+	static final class PostingList {
+
+		private int[] slots = new int[4];
+		private int size;
+
+		void add(int slot) {
+			int pos = Arrays.binarySearch(slots, 0, size, slot);
+			if (pos >= 0) return;
+			pos = -pos - 1;
+			if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+			System.arraycopy(slots, pos, slots, pos + 1, size - pos);
+			slots[pos] = slot;
+			size++;
+		}
+
+		boolean remove(int slot) {
+			int pos = Arrays.binarySearch(slots, 0, size, slot);
+			if (pos < 0) return false;
+			System.arraycopy(slots, pos + 1, slots, pos, size - pos - 1);
+			size--;
+			return true;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(slots, size);
+		}
+
+		/** Keeps in candidates[0..count) only the slots also present here and returns the new count. */
+		int retain(int[] candidates, int count) {
+			int kept = 0;
+			int i = 0;
+			int j = 0;
+			while (i < count && j < size) {
+				if (candidates[i] < slots[j]) i++;
+				else if (candidates[i] > slots[j]) j++;
+				else {
+					candidates[kept++] = candidates[i];
+					i++;
+					j++;
+				}
+			}
+			return kept;
+		}
+	}
+}
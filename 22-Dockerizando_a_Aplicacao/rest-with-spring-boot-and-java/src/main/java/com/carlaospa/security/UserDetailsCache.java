@@ -0,0 +1,62 @@
+package com.carlaospa.security;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded, time limited cache of loaded users. Entries expire after
+ * expire-length milliseconds and the least recently used one is dropped once
+ * max-size is reached. Anything that changes a user's status must call
+ * evict so the next request sees it.
+ */
+@Component
+public class UserDetailsCache {
+
+	@Value("${security.user-cache.max-size:1000}")
+	private int maxSize = 1000;
+
+	@Value("${security.user-cache.expire-length:300000}")
+	private long expireLength = 300000; // 5min
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > maxSize;
+		}
+	};
+
+	public synchronized UserDetails get(String username) {
+		Entry entry = entries.get(username);
+		if (entry == null) return null;
+		if (entry.expiresAt() <= System.currentTimeMillis()) {
+			entries.remove(username);
+			return null;
+		}
+		return entry.user();
+	}
+
+	public synchronized void put(String username, UserDetails user) {
+		if (maxSize <= 0 || expireLength <= 0) return;
+		entries.put(username, new Entry(user, System.currentTimeMillis() + expireLength));
+	}
+
+	public synchronized void evict(String username) {
+		entries.remove(username);
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	private record Entry(UserDetails user, long expiresAt) {}
+}
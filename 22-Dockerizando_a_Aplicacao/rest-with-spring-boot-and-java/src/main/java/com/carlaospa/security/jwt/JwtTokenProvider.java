@@ -3,11 +3,15 @@ package com.carlaospa.security.jwt;
 import java.util.Base64;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Service;
@@ -17,6 +21,9 @@ import com.auth0.jwt.JWT;
 import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 
 import  com.carlaospa.data.vo.v1.security.TokenVO;
 import  com.carlaospa.exception.InvalidJwtAuthenticationException;
@@ -32,15 +39,54 @@ public class JwtTokenProvider {
 	@Value("${security.jwt.token.expire-length:3600000}")
 	private long validityInMilliseconds = 3600000; // 1h
 	
+	@Value("${security.jwt.token.stateless:false}")
+	private boolean stateless = false;
+	
+	@Value("${security.jwt.token.verified-cache-size:0}")
+	private int verifiedCacheSize = 0;
+	
 	@Autowired
 	private UserDetailsService userDetailsService;
 	
 	Algorithm algorithm = null;
 	
+	JWTVerifier verifier = null;
+	
+	// recently verified tokens by signature, each kept until its exp; null when verified-cache-size is 0
+	private Cache<String, DecodedJWT> verifiedTokens;
+	
 	@PostConstruct
 	protected void init() {
 		secretKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
 		algorithm = Algorithm.HMAC256(secretKey.getBytes());
+		verifier = JWT.require(algorithm).build();
+		if (verifiedCacheSize > 0) {
+			verifiedTokens = Caffeine.newBuilder()
+					.maximumSize(verifiedCacheSize)
+					.expireAfter(new UntilExpiresAt())
+					.build();
+		}
+	}
+	
+	private static final class UntilExpiresAt implements Expiry<String, DecodedJWT> {
+		
+		@Override
+		public long expireAfterCreate(String signature, DecodedJWT decodedJWT, long currentTime) {
+			long left = decodedJWT.getExpiresAt().getTime() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, left));
+		}
+		
+		@Override
+		public long expireAfterUpdate(String signature, DecodedJWT decodedJWT, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(signature, decodedJWT, currentTime);
+		}
+		
+		@Override
+		public long expireAfterRead(String signature, DecodedJWT decodedJWT, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
 	}
 
 	public TokenVO createAccessToken(String username, List<String> roles) {
@@ -56,7 +102,6 @@ public class JwtTokenProvider {
 		if (refreshToken.contains("Bearer ")) 
 			refreshToken = refreshToken.substring("Bearer ".length());
 		
-		JWTVerifier verifier = JWT.require(algorithm).build();
 		DecodedJWT decodedJWT = verifier.verify(refreshToken);
 		String username = decodedJWT.getSubject();
 		List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
@@ -88,16 +133,57 @@ public class JwtTokenProvider {
 	}
 	
 	public Authentication getAuthentication(String token) {
-		DecodedJWT decodedJWT = decodedToken(token);
+		return getAuthentication(decodedToken(token));
+	}
+
+	public Authentication getAuthentication(DecodedJWT decodedJWT) {
+		if (stateless) {
+			return getAuthenticationFromClaims(decodedJWT);
+		}
 		UserDetails userDetails = this.userDetailsService
 				.loadUserByUsername(decodedJWT.getSubject());
+		if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+			return null;
+		}
 		return new UsernamePasswordAuthenticationToken(userDetails, "", userDetails.getAuthorities());
 	}
 
+	/**
+	 * Builds the principal from the signed roles claim alone, without touching
+	 * the users table. A disabled or locked user keeps access until the token
+	 * expires, so expire-length bounds how stale the roles can be.
+	 */
+	private Authentication getAuthenticationFromClaims(DecodedJWT decodedJWT) {
+		List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+		List<GrantedAuthority> authorities = roles == null ? List.of()
+				: roles.stream().<GrantedAuthority>map(SimpleGrantedAuthority::new).toList();
+		UserDetails userDetails = User.withUsername(decodedJWT.getSubject())
+				.password("")
+				.authorities(authorities)
+				.build();
+		return new UsernamePasswordAuthenticationToken(userDetails, "", authorities);
+	}
+
+	/**
+	 * Verifies the token with the shared verifier, going through the cache of
+	 * recently verified tokens when enabled. A hit must match the whole token,
+	 * not only the signature. Entries leave the cache when their token expires
+	 * and, once the cache is full, those least likely to be reused go first.
+	 * Tokens without an exp are never cached.
+	 */
 	private DecodedJWT decodedToken(String token) {
-		Algorithm alg = Algorithm.HMAC256(secretKey.getBytes());
-		JWTVerifier verifier = JWT.require(alg).build();
+		if (verifiedTokens == null) {
+			return verifier.verify(token);
+		}
+		String signature = token.substring(token.lastIndexOf('.') + 1);
+		DecodedJWT cached = verifiedTokens.getIfPresent(signature);
+		if (cached != null && cached.getToken().equals(token)) {
+			return cached;
+		}
 		DecodedJWT decodedJWT = verifier.verify(token);
+		if (decodedJWT.getExpiresAt() != null) {
+			verifiedTokens.put(signature, decodedJWT);
+		}
 		return decodedJWT;
 	}
 	
@@ -112,12 +198,20 @@ public class JwtTokenProvider {
 	}
 	
 	public boolean validateToken(String token) {
+		return verifyToken(token) != null;
+	}
+
+	/**
+	 * Verifies the token once and returns the decoded result, or null when it
+	 * has expired, so callers can hand it straight to getAuthentication.
+	 */
+	public DecodedJWT verifyToken(String token) {
 		DecodedJWT decodedJWT = decodedToken(token);
 		try {
 			if (decodedJWT.getExpiresAt().before(new Date())) {
-				return false;
+				return null;
 			}
-			return true;
+			return decodedJWT;
 		} catch (Exception e) {
 			throw new InvalidJwtAuthenticationException("Expired or invalid JWT token!");
 		}
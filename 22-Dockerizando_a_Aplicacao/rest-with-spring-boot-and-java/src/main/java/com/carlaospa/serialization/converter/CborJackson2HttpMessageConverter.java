@@ -0,0 +1,19 @@
+package com.carlaospa.serialization.converter;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+
+public class CborJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+	public CborJackson2HttpMessageConverter() {
+		super(new CBORMapper()
+				  .setSerializationInclusion(
+						  JsonInclude.Include.NON_NULL),
+				  		  MediaType.parseMediaType("application/cbor")
+				);
+	}
+
+}
@@ -0,0 +1,20 @@
+package com.carlaospa.serialization.converter;
+
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class MessagePackJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+	public MessagePackJackson2HttpMessageConverter() {
+		super(new ObjectMapper(new MessagePackFactory())
+				  .setSerializationInclusion(
+						  JsonInclude.Include.NON_NULL),
+				  		  MediaType.parseMediaType("application/x-msgpack")
+				);
+	}
+
+}
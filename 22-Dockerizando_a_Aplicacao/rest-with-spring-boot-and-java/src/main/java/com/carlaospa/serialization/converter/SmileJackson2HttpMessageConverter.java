@@ -0,0 +1,19 @@
+package com.carlaospa.serialization.converter;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+public class SmileJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+	public SmileJackson2HttpMessageConverter() {
+		super(new SmileMapper()
+				  .setSerializationInclusion(
+						  JsonInclude.Include.NON_NULL),
+				  		  MediaType.parseMediaType("application/x-jackson-smile")
+				);
+	}
+
+}
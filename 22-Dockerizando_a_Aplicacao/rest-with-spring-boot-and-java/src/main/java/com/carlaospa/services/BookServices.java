@@ -6,55 +6,59 @@ import java.util.logging.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.carlaospa.cache.ResponseCache;
 import com.carlaospa.controllers.BookController;
 import com.carlaospa.data.vo.v1.BookVO;
+import com.carlaospa.exception.PreconditionFailedException;
 import com.carlaospa.exception.RequiredObjectIsNullException;
 import com.carlaospa.exception.ResourceNotFoundException;
-import com.carlaospa.mapper.DozerMapper;
+import com.carlaospa.mapper.custom.BookMapper;
 import com.carlaospa.model.Book;
 import com.carlaospa.repository.BookRepository;
-
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import com.carlaospa.util.SelfLinkFactory;
 
 @Service
 public class BookServices {
 
+	/** The path segment of books in the response cache keys. */
+	public static final String RESOURCE = "book";
+
+	private static final SelfLinkFactory BOOK_LINKS = SelfLinkFactory.of(BookController.class, "findById", Long.class);
+
 	private Logger logger = Logger.getLogger(BookServices.class.getName());
 
 	@Autowired
 	BookRepository repository;
 
+	@Autowired
+	ResponseCache responseCache;
+
 	public List<BookVO> findAll() {
 
 		logger.info("Finding all book!");
-		var books = DozerMapper.parseListObjects(repository.findAll(), BookVO.class);
+		var books = BookMapper.convertEntitiesToVos(repository.findAll());
 		
-		books
-		.stream()
-		.forEach(p -> {
-			try {
-				p.add(linkTo(methodOn(BookController.class).findById(p.getKey())).withSelfRel());
-			} catch (Exception e) {
-				e.printStackTrace();
-			}
-		});
+		books.forEach(p -> p.add(BOOK_LINKS.selfLink(p.getKey())));
 		
 		return books;
 	}
 
+	/** The current version of a book, read without mapping it. */
+	public Long findVersion(Long id) {
+
+		return repository.findById(id)
+				.map(Book::getVersion)
+				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+	}
+
 	public BookVO findById(Long id) {
 
 		logger.info("Finding one book!");
 
 		var entity = repository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-		var vo = DozerMapper.parseObject(entity, BookVO.class);
-		try {
-			vo.add(linkTo(methodOn(BookController.class).findById(id)).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		var vo = BookMapper.convertEntityToVo(entity);
+		vo.add(BOOK_LINKS.selfLink(id));
 		return vo;
 	}
 
@@ -64,36 +68,41 @@ public class BookServices {
 		
 		logger.info("Creating one book!");
 		
-		var entity = DozerMapper.parseObject(book, Book.class);		
-		var vo = DozerMapper.parseObject(repository.save(entity), BookVO.class);
-		try {
-			vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		var entity = BookMapper.convertVoToEntity(book);		
+		var vo = BookMapper.convertEntityToVo(repository.save(entity));
+		responseCache.invalidate(RESOURCE, vo.getKey());
+		vo.add(BOOK_LINKS.selfLink(vo.getKey()));
 		return vo;
 	}
 
 	public BookVO update(BookVO book) {
 		
+		return update(book, null);
+	}
+
+	/**
+	 * Updates only while the book is still at the expected version, when one
+	 * is given, in a single UPDATE. The response is the request plus the new
+	 * version, which is only known when a version was expected.
+	 */
+	public BookVO update(BookVO book, Long expectedVersion) {
+		
 		if (book == null) throw new RequiredObjectIsNullException(); 
 
 		logger.info("Updating one book!");
 
-		var entity = repository.findById(book.getKey())
-				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-
-		entity.setAuthor(book.getAuthor());
-		entity.setLaunchDate(book.getLaunchDate());
-		entity.setPrice(book.getPrice());
-		entity.setTitle(book.getTitle());
-
-		var vo = DozerMapper.parseObject(repository.save(entity), BookVO.class);
-		try {
-			vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
+		var entity = BookMapper.convertVoToEntity(book);
+		if (repository.updateBook(entity, expectedVersion) == 0) {
+			if (expectedVersion != null && book.getKey() != null && repository.existsById(book.getKey())) {
+				throw new PreconditionFailedException("The book was changed since version " + expectedVersion + "!");
+			}
+			throw new ResourceNotFoundException("No records found for this ID!");
 		}
+		entity.setVersion(expectedVersion == null ? null : expectedVersion + 1);
+
+		var vo = BookMapper.convertEntityToVo(entity);
+		responseCache.invalidate(RESOURCE, vo.getKey());
+		vo.add(BOOK_LINKS.selfLink(vo.getKey()));
 		return vo;
 	}
 
@@ -101,10 +110,8 @@ public class BookServices {
 
 		logger.info("Deleting one book!");
 
-		var entity = repository.findById(id)
-				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-
-		repository.delete(entity);
+		if (repository.deleteBook(id) == 0) throw new ResourceNotFoundException("No records found for this ID!");
+		responseCache.invalidate(RESOURCE, id);
 	}
 
 }
@@ -0,0 +1,56 @@
+package com.carlaospa.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.carlaospa.data.vo.v1.CacheRegionStatsVO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Hit and miss counts of the second level cache regions, and eviction for
+ * writes that go around Hibernate. JPQL bulk updates need no help: Hibernate
+ * drops the whole regions of the entities they touch. Plain JDBC writes are
+ * invisible to it.
+ */
+@Service
+public class EntityCacheService {
+
+	private Logger logger = Logger.getLogger(EntityCacheService.class.getName());
+
+	private final EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	public EntityCacheService(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	public void evict(Class<?> entity, Object id) {
+		entityManagerFactory.getCache().evict(entity, id);
+	}
+
+	public List<CacheRegionStatsVO> findRegionStats() {
+
+		logger.info("Reporting second level cache statistics!");
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		List<CacheRegionStatsVO> stats = new ArrayList<>();
+		String[] regions = statistics.getSecondLevelCacheRegionNames();
+		Arrays.sort(regions);
+		for (String region : regions) {
+			CacheRegionStatistics regionStats = statistics.getCacheRegionStatistics(region);
+			if (regionStats == null) continue;
+			stats.add(new CacheRegionStatsVO(region, regionStats.getHitCount(), regionStats.getMissCount(),
+					regionStats.getPutCount()));
+		}
+		return stats;
+	}
+}
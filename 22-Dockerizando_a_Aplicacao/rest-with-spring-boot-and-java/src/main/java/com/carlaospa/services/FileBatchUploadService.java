@@ -0,0 +1,114 @@
+package com.carlaospa.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.data.vo.v1.UploadFileResponseVO;
+import com.carlaospa.exception.FileStorageException;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stores the files of a multiple upload concurrently. All batches share one
+ * fixed pool whose size is the global I/O budget (batch-io-permits), so
+ * batches never hold more than that many writes at once and single uploads,
+ * which run on their own request threads, keep their share of the disk.
+ * Each request may only have batch-request-concurrency files in flight, so
+ * one large batch cannot fill the queue ahead of the others.
+ */
+@Service
+public class FileBatchUploadService {
+
+	private Logger logger = Logger.getLogger(FileBatchUploadService.class.getName());
+
+	private final FileStorageService storage;
+	private final ExecutorService executor;
+	private final int requestConcurrency;
+
+	@Autowired
+	public FileBatchUploadService(FileStorageService storage, FileStorageConfig fileStorageConfig) {
+		this.storage = storage;
+		this.executor = Executors.newFixedThreadPool(Math.max(1, fileStorageConfig.getBatchIoPermits()),
+				new CustomizableThreadFactory("file-upload-"));
+		this.requestConcurrency = Math.max(1, fileStorageConfig.getBatchRequestConcurrency());
+	}
+
+	/**
+	 * Results come back in the order of the files. A file that could not be
+	 * stored gets an entry with its error instead of failing the whole batch.
+	 */
+	public List<UploadFileResponseVO> storeFiles(MultipartFile[] files, String downloadBaseUri) {
+		Semaphore inFlight = new Semaphore(requestConcurrency);
+		List<Future<UploadFileResponseVO>> futures = new ArrayList<>(files.length);
+		try {
+			for (MultipartFile file : files) {
+				inFlight.acquire();
+				try {
+					futures.add(executor.submit(() -> {
+						try {
+							return store(file, downloadBaseUri);
+						} finally {
+							inFlight.release();
+						}
+					}));
+				} catch (RuntimeException e) {
+					inFlight.release();
+					throw e;
+				}
+			}
+
+			List<UploadFileResponseVO> results = new ArrayList<>(files.length);
+			for (int i = 0; i < futures.size(); i++) {
+				results.add(result(files[i], futures.get(i)));
+			}
+			return results;
+		} catch (InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new FileStorageException("Interrupted while storing files", e);
+		}
+	}
+
+	private UploadFileResponseVO store(MultipartFile file, String downloadBaseUri) {
+		try {
+			var filename = storage.storeFile(file);
+			return new UploadFileResponseVO(filename,
+					downloadBaseUri + UriUtils.encodePath(filename, StandardCharsets.UTF_8),
+					file.getContentType(), file.getSize());
+		} catch (RuntimeException e) {
+			logger.warning("Could not store file " + file.getOriginalFilename() + ": " + e.getMessage());
+			var failed = new UploadFileResponseVO(file.getOriginalFilename(), null, file.getContentType(), file.getSize());
+			failed.setError(e.getMessage());
+			return failed;
+		}
+	}
+
+	private UploadFileResponseVO result(MultipartFile file, Future<UploadFileResponseVO> future) throws InterruptedException {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			var failed = new UploadFileResponseVO(file.getOriginalFilename(), null, file.getContentType(), file.getSize());
+			failed.setError(e.getCause().getMessage());
+			return failed;
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
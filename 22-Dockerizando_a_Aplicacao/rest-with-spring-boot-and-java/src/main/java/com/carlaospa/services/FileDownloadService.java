@@ -0,0 +1,246 @@
+package com.carlaospa.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.carlaospa.storage.StoredFile;
+import com.carlaospa.util.AcceptEncoding;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Writes stored files to the response. Supports conditional requests
+ * (If-None-Match, If-Modified-Since, If-Range) and byte ranges, including
+ * multipart/byteranges for several ranges. Single regions go through Tomcat's
+ * sendfile when the connector offers it, otherwise through
+ * FileChannel.transferTo. Files kept by a non local backend are streamed
+ * from it, one ranged read per region.
+ *
+ * Files compressed at rest are sent as they are, with Content-Encoding, to
+ * clients that accept their encoding; ranges then apply to the compressed
+ * bytes. Other clients get them decoded on the fly, without ranges since the
+ * decoded length is not known up front.
+ */
+@Service
+public class FileDownloadService {
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+	private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+	@Autowired
+	FileStorageService storage;
+
+	// servlet context lookups by file extension
+	private final ConcurrentHashMap<String, String> mimeTypes = new ConcurrentHashMap<>();
+
+	public void download(String filename, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		StoredFile file = storage.loadFile(filename);
+
+		String etag = file.etag();
+		if (file.encoding() != null) {
+			response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			if (!AcceptEncoding.accepts(request, file.encoding().token())) {
+				downloadDecoded(file, request, response);
+				return;
+			}
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, file.encoding().token());
+			etag = file.encodedEtag();
+		}
+
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		if (new ServletWebRequest(request, response).checkNotModified(etag, file.lastModified())) {
+			return;
+		}
+
+		String contentType = contentType(request.getServletContext(), file.filename());
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"" + file.filename() + "\"");
+
+		boolean head = "HEAD".equalsIgnoreCase(request.getMethod());
+		List<long[]> ranges = requestedRanges(request, file, etag);
+
+		if (ranges == null) {
+			response.setStatus(HttpStatus.OK.value());
+			response.setContentType(contentType);
+			response.setContentLengthLong(file.size());
+			if (!head) writeRegion(file, request, response, 0, file.size());
+		} else if (ranges.isEmpty()) {
+			response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.size());
+		} else if (ranges.size() == 1) {
+			long start = ranges.get(0)[0];
+			long end = ranges.get(0)[1];
+			response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+			response.setContentType(contentType);
+			response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(start, end, file.size()));
+			response.setContentLengthLong(end - start + 1);
+			if (!head) writeRegion(file, request, response, start, end - start + 1);
+		} else {
+			writeMultipleRanges(file, contentType, ranges, head, response);
+		}
+	}
+
+	/**
+	 * Null means the whole file, an empty list means nothing satisfiable.
+	 * A Range is ignored when If-Range does not match the current file.
+	 */
+	private List<long[]> requestedRanges(HttpServletRequest request, StoredFile file, String etag) {
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (rangeHeader == null || !ifRangeMatches(request, file, etag)) return null;
+
+		List<HttpRange> httpRanges;
+		try {
+			httpRanges = HttpRange.parseRanges(rangeHeader);
+		} catch (IllegalArgumentException e) {
+			return List.of();
+		}
+
+		long size = file.size();
+		long total = 0;
+		List<long[]> ranges = new ArrayList<>(httpRanges.size());
+		for (HttpRange httpRange : httpRanges) {
+			if (size == 0) continue;
+			long start = httpRange.getRangeStart(size);
+			long end = httpRange.getRangeEnd(size);
+			if (start >= size || start > end) continue;
+			ranges.add(new long[] { start, end });
+			total += end - start + 1;
+		}
+		// many overlapping ranges would amplify the response
+		if (total > size) return List.of();
+		return ranges;
+	}
+
+	private boolean ifRangeMatches(HttpServletRequest request, StoredFile file, String etag) {
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (ifRange == null) return true;
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			return ifRange.equals(etag);
+		}
+		try {
+			return request.getDateHeader(HttpHeaders.IF_RANGE) == file.lastModified() / 1000 * 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private void downloadDecoded(StoredFile file, HttpServletRequest request, HttpServletResponse response)
+			throws IOException {
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "none");
+		if (new ServletWebRequest(request, response).checkNotModified(file.etag(), file.lastModified())) {
+			return;
+		}
+
+		response.setStatus(HttpStatus.OK.value());
+		response.setContentType(contentType(request.getServletContext(), file.filename()));
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+				"attachment; filename=\"" + file.filename() + "\"");
+		if ("HEAD".equalsIgnoreCase(request.getMethod())) return;
+
+		try (InputStream in = storage.openContent(file)) {
+			in.transferTo(response.getOutputStream());
+		}
+	}
+
+	private void writeRegion(StoredFile file, HttpServletRequest request, HttpServletResponse response,
+			long start, long count) throws IOException {
+		if (file.path() == null) {
+			try (InputStream in = storage.openStream(file, start, count)) {
+				in.transferTo(response.getOutputStream());
+			}
+			return;
+		}
+		if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+				&& file.path().getFileSystem() == FileSystems.getDefault()) {
+			request.setAttribute(SENDFILE_FILENAME, file.path().toAbsolutePath().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, start + count);
+			return;
+		}
+		try (FileChannel channel = storage.openChannel(file)) {
+			storage.transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+		}
+	}
+
+	private void writeMultipleRanges(StoredFile file, String contentType, List<long[]> ranges,
+			boolean head, HttpServletResponse response) throws IOException {
+		String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+		byte[][] partHeaders = new byte[ranges.size()][];
+		byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+		long contentLength = closing.length;
+		for (int i = 0; i < ranges.size(); i++) {
+			long[] range = ranges.get(i);
+			partHeaders[i] = ("\r\n--" + boundary + "\r\n"
+					+ HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+					+ HttpHeaders.CONTENT_RANGE + ": " + contentRange(range[0], range[1], file.size()) + "\r\n\r\n")
+					.getBytes(StandardCharsets.US_ASCII);
+			contentLength += partHeaders[i].length + range[1] - range[0] + 1;
+		}
+
+		response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+		response.setContentType("multipart/byteranges; boundary=" + boundary);
+		response.setContentLengthLong(contentLength);
+		if (head) return;
+
+		ServletOutputStream out = response.getOutputStream();
+		if (file.path() == null) {
+			for (int i = 0; i < ranges.size(); i++) {
+				long[] range = ranges.get(i);
+				out.write(partHeaders[i]);
+				try (InputStream in = storage.openStream(file, range[0], range[1] - range[0] + 1)) {
+					in.transferTo(out);
+				}
+			}
+			out.write(closing);
+			return;
+		}
+
+		WritableByteChannel target = Channels.newChannel(out);
+		try (FileChannel channel = storage.openChannel(file)) {
+			for (int i = 0; i < ranges.size(); i++) {
+				long[] range = ranges.get(i);
+				out.write(partHeaders[i]);
+				storage.transfer(channel, range[0], range[1] - range[0] + 1, target);
+			}
+		}
+		out.write(closing);
+	}
+
+	private String contentType(ServletContext servletContext, String filename) {
+		int dot = filename.lastIndexOf('.');
+		String extension = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+		return mimeTypes.computeIfAbsent(extension, ext -> {
+			String mimeType = ext.isEmpty() ? null : servletContext.getMimeType(filename);
+			return (mimeType == null || mimeType.isBlank()) ? DEFAULT_CONTENT_TYPE : mimeType;
+		});
+	}
+
+	private static String contentRange(long start, long end, long size) {
+		return "bytes " + start + "-" + end + "/" + size;
+	}
+}
@@ -0,0 +1,141 @@
+package com.carlaospa.services;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Service;
+
+import com.carlaospa.controllers.FileController;
+import com.carlaospa.data.vo.v1.CompressionStatsVO;
+import com.carlaospa.data.vo.v1.FileMetadataVO;
+import com.carlaospa.exception.ResourceNotFoundException;
+import com.carlaospa.mapper.custom.FileMetadataMapper;
+import com.carlaospa.model.FileMetadata;
+import com.carlaospa.repository.FileMetadataRepository;
+import com.carlaospa.util.SelfLinkFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Service
+public class FileMetadataService {
+
+	private static final SelfLinkFactory DOWNLOAD_LINKS = SelfLinkFactory.of(FileController.class,
+			"downloadFile", String.class, HttpServletRequest.class, HttpServletResponse.class);
+
+	private Logger logger = Logger.getLogger(FileMetadataService.class.getName());
+
+	@Autowired
+	FileMetadataRepository repository;
+
+	/** Inserts or replaces the row for a stored file. */
+	public void save(String name, long size, String contentType, String checksum) {
+		save(name, size, contentType, checksum, size, null);
+	}
+
+	/** storedSize and contentEncoding describe the bytes on disk when the file is compressed at rest. */
+	public void save(String name, long size, String contentType, String checksum, long storedSize,
+			String contentEncoding) {
+
+		logger.info("Saving metadata of file " + name + "!");
+
+		var metadata = repository.findByName(name);
+		if (metadata == null) {
+			metadata = new FileMetadata();
+			metadata.setName(name);
+		}
+		try {
+			repository.save(fill(metadata, size, contentType, checksum, storedSize, contentEncoding));
+		} catch (DataIntegrityViolationException e) {
+			// a concurrent upload of the same name inserted the row first
+			repository.save(fill(repository.findByName(name), size, contentType, checksum, storedSize,
+					contentEncoding));
+		}
+	}
+
+	public FileMetadataVO findByName(String name) {
+
+		logger.info("Finding metadata of file " + name + "!");
+
+		var metadata = repository.findByName(name);
+		if (metadata == null) throw new ResourceNotFoundException("No records found for this name!");
+
+		var vo = FileMetadataMapper.convertEntityToVo(metadata);
+		vo.add(DOWNLOAD_LINKS.selfLink(vo.getName()));
+		return vo;
+	}
+
+	public boolean exists(String name) {
+		return repository.existsByName(name);
+	}
+
+	/**
+	 * Keyset pagination by name: each page starts after the last name of the
+	 * previous one, optionally restricted to a name prefix and a content type.
+	 */
+	public PagedModel<EntityModel<FileMetadataVO>> findAll(String after, String prefix, String contentType, Integer size) {
+
+		logger.info("Finding all file metadata!");
+
+		String afterName = after == null ? "" : after;
+		String namePrefix = prefix == null ? "" : prefix;
+		String like = escapeLike(namePrefix) + "%";
+		var seek = PageRequest.of(0, size + 1);
+
+		List<FileMetadata> files = (contentType == null || contentType.isBlank())
+				? repository.findFilesAfter(afterName, like, seek)
+				: repository.findFilesByContentTypeAfter(contentType, afterName, like, seek);
+
+		boolean hasMore = files.size() > size;
+		if (hasMore) files = files.subList(0, size);
+
+		List<EntityModel<FileMetadataVO>> content = new ArrayList<>(files.size());
+		for (FileMetadata file : files) {
+			var vo = FileMetadataMapper.convertEntityToVo(file);
+			vo.add(DOWNLOAD_LINKS.selfLink(vo.getName()));
+			content.add(EntityModel.of(vo));
+		}
+
+		List<Link> links = new ArrayList<>();
+		links.add(linkTo(methodOn(FileController.class).findAll(afterName, namePrefix, contentType, size)).withSelfRel());
+		if (hasMore) {
+			String last = files.get(files.size() - 1).getName();
+			links.add(linkTo(methodOn(FileController.class).findAll(last, namePrefix, contentType, size)).withRel("next"));
+		}
+		return PagedModel.of(content, null, links);
+	}
+
+	/** Disk savings of at-rest compression, per encoding. */
+	public List<CompressionStatsVO> findCompressionStats() {
+
+		logger.info("Finding compression stats of stored files!");
+
+		return repository.findCompressionStats();
+	}
+
+	private FileMetadata fill(FileMetadata metadata, long size, String contentType, String checksum,
+			long storedSize, String contentEncoding) {
+		metadata.setSize(size);
+		metadata.setContentType(contentType);
+		metadata.setChecksum(checksum);
+		metadata.setStoredSize(storedSize);
+		metadata.setContentEncoding(contentEncoding);
+		metadata.setCreatedAt(new Date());
+		return metadata;
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
+}
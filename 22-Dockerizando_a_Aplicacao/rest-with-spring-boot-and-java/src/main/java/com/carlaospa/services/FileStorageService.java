@@ -1,69 +1,503 @@
 package com.carlaospa.services;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.carlaospa.config.FileStorageConfig;
 import com.carlaospa.exception.FileStorageException;
 import com.carlaospa.exception.MyFileNotFoundException;
+import com.carlaospa.storage.CompressionPolicy;
+import com.carlaospa.storage.ContentEncoding;
+import com.carlaospa.storage.LocalStorageBackend;
+import com.carlaospa.storage.ObjectInfo;
+import com.carlaospa.storage.ShardedLayout;
+import com.carlaospa.storage.StorageBackend;
+import com.carlaospa.storage.StorageNames;
+import com.carlaospa.storage.StoredContent;
+import com.carlaospa.storage.StoredFile;
 
 @Service
 public class FileStorageService {
-	
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final String BLOBS_DIR = ".blobs";
+	private static final String NAMES_DIR = ".names";
+	private static final Pattern SHA256_HEX = Pattern.compile("[0-9a-f]{64}");
+
+	// local directory for the local backend and for resumable upload sessions
 	private final Path fileStorageLocation;
-	
-	@Autowired
+
+	private final StorageBackend backend;
+
+	private final ShardedLayout layout;
+
+	private final boolean contentAddressable;
+
+	private final CompressionPolicy compression;
+
+	// absent in unit tests that build the service by hand
+	@Autowired(required = false)
+	private FileMetadataService metadataService;
+
+	@Value("${spring.servlet.multipart.max-file-size:200MB}")
+	private DataSize maxFileSize = DataSize.ofMegabytes(200);
+
+	/** Stores files on the local filesystem under the upload directory. */
 	public FileStorageService(FileStorageConfig fileStorageConfig) {
+		this(fileStorageConfig, null);
+	}
+
+	@Autowired
+	public FileStorageService(FileStorageConfig fileStorageConfig, StorageBackend backend) {
 		Path path = Paths.get(fileStorageConfig.getUploadDir())
 				.toAbsolutePath().normalize();
-		
+
 		this.fileStorageLocation = path;
-		
+		this.backend = backend != null ? backend : new LocalStorageBackend(path);
+		this.layout = new ShardedLayout(path, fileStorageConfig.getShardLevels());
+		this.contentAddressable = fileStorageConfig.isContentAddressable();
+		// blobs are shared by content, so they are stored raw
+		this.compression = contentAddressable ? CompressionPolicy.none()
+				: compressionPolicy(fileStorageConfig.getCompression());
+
 		try {
 			Files.createDirectories(this.fileStorageLocation);
 		}catch (Exception e) {
 			throw new FileStorageException("Could not create the directory where the uploaded files will be stored!");
 		}
 	}
-	
+
 	public String storeFile(MultipartFile file) {
-		
-		String filename = StringUtils.cleanPath(file.getOriginalFilename());
 		try {
-			if (filename.contains("..")) {
+			return storeStream(file.getOriginalFilename(), file.getContentType(), file.getInputStream()).filename();
+		} catch (IOException e) {
+			throw new FileStorageException(
+					"Could not store file " + file.getOriginalFilename() + ". Please try again!", e);
+		}
+	}
+
+	/**
+	 * Streams the upload into the backend, counting and hashing the bytes as
+	 * they are written. The backend only makes the object visible once it is
+	 * complete, so readers never see a partially written file. Files whose
+	 * type the compression policy selects are compressed on the way, under
+	 * the key of their encoding. In content addressable mode the upload goes
+	 * to a temporary key in the blob store and is dropped when a blob with
+	 * the same hash already exists.
+	 */
+	public StoredContent storeStream(String originalFilename, InputStream in) {
+		return storeStream(originalFilename, null, in);
+	}
+
+	public StoredContent storeStream(String originalFilename, String contentType, InputStream in) {
+
+		String filename = originalFilename;
+		String tempKey = null;
+		try {
+			if (!StorageNames.isValid(filename)) {
 				throw new FileStorageException(
-						"Sorry! Filename contains invalid path sequence " + filename);
+						"Sorry! Filename is not a plain file name " + filename);
+			}
+
+			var metered = new MeteredInputStream(in, maxFileSize, filename);
+			if (!contentAddressable) {
+				String key = layout.targetKey(filename);
+				ContentEncoding encoding = compression.encodingFor(filename);
+				if (encoding == null) {
+					backend.write(key, metered);
+					return placed(new StoredContent(filename, metered.size(), metered.checksum()), contentType);
+				}
+				try (var compressed = encoding.compress(metered)) {
+					backend.write(encoding.key(key), compressed);
+					return placed(new StoredContent(filename, metered.size(), metered.checksum(),
+							compressed.produced(), encoding), contentType);
+				}
 			}
-			
-			Path targetLocation = this.fileStorageLocation.resolve(filename);
-			Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);			
-			return filename;
-			
-		}catch(Exception e) {
+
+			tempKey = BLOBS_DIR + "/." + UUID.randomUUID() + ".upload";
+			backend.write(tempKey, metered);
+			String checksum = metered.checksum();
+			String blobKey = blobKey(checksum);
+			if (backend.stat(blobKey) == null) {
+				backend.move(tempKey, blobKey);
+				tempKey = null;
+			}
+			return pointed(filename, metered.size(), checksum, contentType);
+
+		} catch (FileStorageException e) {
+			throw e;
+		} catch (Exception e) {
 			throw new FileStorageException(
 					"Could not store file " + filename + ". Please try again!", e);
+		} finally {
+			deleteQuietly(tempKey);
+		}
+	}
+
+	/**
+	 * Stores a file assembled in the local storage location (a finished
+	 * resumable upload) under its final name, hashing it on the way. The local
+	 * backend renames it; other backends upload it and delete the source.
+	 */
+	public StoredContent storeFrom(String originalFilename, Path source) {
+
+		String filename = originalFilename;
+		try {
+			if (!StorageNames.isValid(filename)) {
+				throw new FileStorageException(
+						"Sorry! Filename is not a plain file name " + filename);
+			}
+
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			long size = 0;
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+			try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+				int read;
+				while ((read = channel.read(buffer)) != -1) {
+					size += read;
+					buffer.flip();
+					digest.update(buffer);
+					buffer.clear();
+				}
+			}
+			String checksum = HexFormat.of().formatHex(digest.digest());
+
+			if (!contentAddressable) {
+				String key = layout.targetKey(filename);
+				ContentEncoding encoding = compression.encodingFor(filename);
+				if (encoding == null) {
+					backend.writeFile(key, source);
+					return placed(new StoredContent(filename, size, checksum), null);
+				}
+				long storedSize;
+				try (InputStream in = Files.newInputStream(source); var compressed = encoding.compress(in)) {
+					backend.write(encoding.key(key), compressed);
+					storedSize = compressed.produced();
+				}
+				Files.delete(source);
+				return placed(new StoredContent(filename, size, checksum, storedSize, encoding), null);
+			}
+
+			String blobKey = blobKey(checksum);
+			if (backend.stat(blobKey) == null) {
+				backend.writeFile(blobKey, source);
+			} else {
+				Files.delete(source);
+			}
+			return pointed(filename, size, checksum, null);
+
+		} catch (FileStorageException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new FileStorageException(
+					"Could not store file " + filename + ". Please try again!", e);
+		}
+	}
+
+	/** The file is in place under its name; the file_metadata row follows. */
+	private StoredContent placed(StoredContent stored, String contentType) throws IOException {
+		String filename = stored.filename();
+		// an older flat copy would otherwise be migrated over this one
+		if (layout.isSharded()) backend.delete(layout.flatKey(filename));
+		// a copy under another encoding is stale now
+		if (compression.isEnabled()) {
+			String key = layout.targetKey(filename);
+			for (ContentEncoding encoding : variants(null)) {
+				if (encoding != stored.encoding()) backend.delete(encoding == null ? key : encoding.key(key));
+			}
+		}
+		return recordMetadata(stored, contentType);
+	}
+
+	/** The blob is in place; point the name at its hash. */
+	private StoredContent pointed(String filename, long size, String checksum, String contentType) throws IOException {
+		backend.write(pointerKey(filename), new ByteArrayInputStream(checksum.getBytes(StandardCharsets.US_ASCII)));
+		if (layout.isSharded()) backend.delete(NAMES_DIR + "/" + filename);
+		return recordMetadata(new StoredContent(filename, size, checksum), contentType);
+	}
+
+	/** Pointers are sharded like the files, so .names never becomes one huge directory. */
+	private String pointerKey(String filename) {
+		return layout.isSharded() ? layout.shardedKey(NAMES_DIR, filename) : NAMES_DIR + "/" + filename;
+	}
+
+	private StoredContent recordMetadata(StoredContent stored, String contentType) {
+		if (metadataService != null) {
+			String type = (contentType == null || contentType.isBlank())
+					? MediaTypeFactory.getMediaType(stored.filename()).map(MediaType::toString).orElse(null)
+					: contentType;
+			metadataService.save(stored.filename(), stored.size(), type, stored.checksum(), stored.storedSize(),
+					stored.encoding() == null ? null : stored.encoding().token());
+		}
+		return stored;
+	}
+
+	/** Blobs are sharded by the first two bytes of their hash: ab/cd/abcd... */
+	private static String blobKey(String checksum) {
+		return BLOBS_DIR + "/" + checksum.substring(0, 2) + "/" + checksum.substring(2, 4) + "/" + checksum;
+	}
+
+	/**
+	 * The hash a name points to, or null when the name has no pointer.
+	 * Pointers written before sharding was enabled are still found flat.
+	 */
+	private String readNamePointer(String filename) throws IOException {
+		if (!contentAddressable) return null;
+
+		String checksum = readPointer(pointerKey(filename));
+		if (checksum == null && layout.isSharded()) checksum = readPointer(NAMES_DIR + "/" + filename);
+		return checksum;
+	}
+
+	private String readPointer(String key) throws IOException {
+		String checksum;
+		try (InputStream in = backend.read(key)) {
+			checksum = new String(in.readNBytes(128), StandardCharsets.US_ASCII).trim();
+		} catch (FileNotFoundException e) {
+			return null;
+		}
+		return SHA256_HEX.matcher(checksum).matches() ? checksum : null;
+	}
+
+	private record Located(String key, ObjectInfo info, ContentEncoding encoding) {
+	}
+
+	/**
+	 * Finds the object holding a name's content, or null. Names without a
+	 * pointer fall back to the sharded and then the flat layout, so files
+	 * stored before content addressing or sharding was enabled stay readable.
+	 * The sharded key is checked again after the flat one, in case the
+	 * migration moved the file in between. Under each key the encoding the
+	 * policy picks for the name is tried first, then the raw file and the
+	 * other encodings, so changing the policy never hides a stored file.
+	 */
+	private Located locate(String filename, String checksum) throws IOException {
+		if (checksum != null) {
+			String key = blobKey(checksum);
+			ObjectInfo info = backend.stat(key);
+			return info == null ? null : new Located(key, info, null);
+		}
+
+		List<ContentEncoding> variants = variants(compression.encodingFor(filename));
+		if (!layout.isSharded()) return find(layout.flatKey(filename), variants);
+
+		String sharded = layout.shardedKey(filename);
+		Located located = find(sharded, variants);
+		if (located == null) located = find(layout.flatKey(filename), variants);
+		if (located == null) located = find(sharded, variants);
+		return located;
+	}
+
+	private Located find(String key, List<ContentEncoding> variants) throws IOException {
+		for (ContentEncoding encoding : variants) {
+			String variantKey = encoding == null ? key : encoding.key(key);
+			ObjectInfo info = backend.stat(variantKey);
+			if (info != null) return new Located(variantKey, info, encoding);
+		}
+		return null;
+	}
+
+	/** The preferred encoding first, then the others; null stands for the raw file. */
+	private static List<ContentEncoding> variants(ContentEncoding preferred) {
+		List<ContentEncoding> variants = new ArrayList<>(ContentEncoding.values().length + 1);
+		variants.add(preferred);
+		if (preferred != null) variants.add(null);
+		for (ContentEncoding encoding : ContentEncoding.values()) {
+			if (encoding != preferred) variants.add(encoding);
 		}
+		return variants;
+	}
+
+	private static CompressionPolicy compressionPolicy(FileStorageConfig.Compression config) {
+		if (!config.isEnabled()) return CompressionPolicy.none();
+
+		Map<String, List<String>> types = new LinkedHashMap<>();
+		types.put(ContentEncoding.ZSTD.token(), config.getZstdTypes());
+		types.put(ContentEncoding.GZIP.token(), config.getGzipTypes());
+		return new CompressionPolicy(types);
+	}
+
+	public Path getFileStorageLocation() {
+		return fileStorageLocation;
+	}
+
+	public ShardedLayout getLayout() {
+		return layout;
 	}
-	
+
+	/** Whether files live under the local storage location. */
+	public boolean isLocal() {
+		return backend instanceof LocalStorageBackend;
+	}
+
 	public Resource loadFileAsResource(String filename) {
 		try {
-			Path filePath = this.fileStorageLocation.resolve(filename).normalize();
-			Resource resource = new UrlResource(filePath.toUri());
-			if (resource.exists()) return resource;
-			else throw new MyFileNotFoundException("File not found");
-			
+			StoredFile file = loadFile(filename);
+			if (file.path() != null && file.encoding() == null) return new UrlResource(file.path().toUri());
+			return new InputStreamResource(openContent(file));
+
 		} catch (Exception e) {
 			throw new MyFileNotFoundException("File not found " + filename, e);
 		}
 	}
 
+	public StoredFile loadFile(String filename) {
+		try {
+			// internal objects share the namespace, they must not be reachable by name
+			if (!StorageNames.isValid(filename)) throw new MyFileNotFoundException("File not found");
+			String checksum = readNamePointer(filename);
+			Located located = locate(filename, checksum);
+			if (located == null) throw new MyFileNotFoundException("File not found");
+
+			return new StoredFile(Paths.get(filename).getFileName().toString(), located.key(),
+					backend.localPath(located.key()), located.info().size(), located.info().lastModified(),
+					checksum, located.encoding());
+		} catch (Exception e) {
+			throw new MyFileNotFoundException("File not found " + filename, e);
+		}
+	}
+
+	private void deleteQuietly(String key) {
+		if (key == null) return;
+		try {
+			backend.delete(key);
+		} catch (IOException | RuntimeException e) {
+			// an orphaned temporary object is harmless
+		}
+	}
+
+	public FileChannel openChannel(StoredFile file) throws IOException {
+		if (file.path() == null) {
+			throw new IOException("File " + file.filename() + " is not on the local filesystem");
+		}
+		return FileChannel.open(file.path(), StandardOpenOption.READ);
+	}
+
+	/** The decoded content of the file, whether or not it is compressed at rest. */
+	public InputStream openContent(StoredFile file) throws IOException {
+		InputStream in = backend.read(file.key());
+		if (file.encoding() == null) return in;
+		try {
+			return file.encoding().decoder(in);
+		} catch (IOException | RuntimeException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/** count stored bytes of the file from position, from whichever backend holds it. */
+	public InputStream openStream(StoredFile file, long position, long count) throws IOException {
+		return backend.read(file.key(), position, count);
+	}
+
+	/**
+	 * Copies count bytes starting at position with FileChannel.transferTo, so
+	 * the kernel moves the data whenever the target allows it.
+	 */
+	public void transfer(FileChannel source, long position, long count, WritableByteChannel target) throws IOException {
+		long end = position + count;
+		while (position < end) {
+			long transferred = source.transferTo(position, end - position, target);
+			if (transferred <= 0) {
+				throw new IOException("Unexpected end of file at position " + position);
+			}
+			position += transferred;
+		}
+	}
+
+	/** Counts and hashes what the backend reads, and stops past the size limit. */
+	private static final class MeteredInputStream extends FilterInputStream {
+
+		private final MessageDigest digest;
+		private final DataSize limit;
+		private final String filename;
+		private long size;
+
+		MeteredInputStream(InputStream in, DataSize limit, String filename) throws NoSuchAlgorithmException {
+			super(in);
+			this.digest = MessageDigest.getInstance("SHA-256");
+			this.limit = limit;
+			this.filename = filename;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if (b >= 0) {
+				count(1);
+				digest.update((byte) b);
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if (read > 0) {
+				count(read);
+				digest.update(b, off, read);
+			}
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			throw new IOException("Skipping would leave bytes out of the checksum");
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+		private void count(int read) {
+			size += read;
+			if (size > limit.toBytes()) {
+				throw new FileStorageException(
+						"File " + filename + " exceeds the maximum size of " + limit);
+			}
+		}
+
+		long size() {
+			return size;
+		}
+
+		/** Completes the digest, so call it once, after the stream is drained. */
+		String checksum() {
+			return HexFormat.of().formatHex(digest.digest());
+		}
+	}
+
 }
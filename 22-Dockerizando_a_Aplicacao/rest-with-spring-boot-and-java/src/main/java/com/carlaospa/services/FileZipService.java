@@ -0,0 +1,146 @@
+package com.carlaospa.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.exception.InvalidDownloadException;
+import com.carlaospa.storage.StorageNames;
+import com.carlaospa.storage.StoredFile;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Streams several stored files as one ZIP archive, built while it is sent.
+ * Every file is resolved before the first byte goes out, so a missing name
+ * still fails the request cleanly. After that each entry is copied through a
+ * single buffer: memory use does not depend on file sizes and nothing is
+ * staged on disk.
+ *
+ * Files whose format is already compressed are written as STORED entries.
+ * ZIP needs their CRC before the data, so they are read twice, once for the
+ * CRC and once for the copy; deflating them again would cost far more CPU
+ * for no gain.
+ */
+@Service
+public class FileZipService {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final String ARCHIVE_NAME = "files.zip";
+
+	private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+			"zip", "gz", "tgz", "bz2", "xz", "zst", "7z", "rar", "jar", "war",
+			"docx", "xlsx", "pptx", "odt", "ods", "odp", "epub",
+			"jpg", "jpeg", "png", "gif", "webp", "heic", "avif",
+			"mp3", "aac", "ogg", "opus", "flac", "m4a",
+			"mp4", "m4v", "mkv", "mov", "avi", "webm", "woff", "woff2");
+
+	private Logger logger = Logger.getLogger(FileZipService.class.getName());
+
+	private final FileStorageService storage;
+	private final int maxEntries;
+
+	@Autowired
+	public FileZipService(FileStorageService storage, FileStorageConfig fileStorageConfig) {
+		this.storage = storage;
+		this.maxEntries = fileStorageConfig.getZipMaxEntries();
+	}
+
+	public void zip(List<String> filenames, HttpServletResponse response) throws IOException {
+		List<Entry> entries = resolve(filenames);
+
+		logger.info("Streaming " + entries.size() + " files as a zip archive!");
+
+		response.setContentType("application/zip");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + ARCHIVE_NAME + "\"");
+
+		byte[] buffer = new byte[BUFFER_SIZE];
+		OutputStream out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+		try (ZipOutputStream zip = new ZipOutputStream(out)) {
+			for (Entry entry : entries) {
+				zip.putNextEntry(zipEntry(entry, buffer));
+				copy(entry.file(), zip, buffer);
+				zip.closeEntry();
+			}
+		}
+	}
+
+	/** Duplicate names are zipped once. */
+	private List<Entry> resolve(List<String> filenames) {
+		if (filenames == null || filenames.isEmpty()) {
+			throw new InvalidDownloadException("No files were requested!");
+		}
+
+		Set<String> names = new LinkedHashSet<>();
+		for (String filename : filenames) {
+			if (filename == null || filename.isBlank()) continue;
+			if (!StorageNames.isValid(filename)) {
+				throw new InvalidDownloadException("Filename is not a plain file name " + filename);
+			}
+			names.add(filename);
+		}
+		if (names.isEmpty()) throw new InvalidDownloadException("No files were requested!");
+		if (names.size() > maxEntries) {
+			throw new InvalidDownloadException("At most " + maxEntries + " files can be zipped at once!");
+		}
+
+		List<Entry> entries = new ArrayList<>(names.size());
+		for (String name : names) {
+			entries.add(new Entry(name, storage.loadFile(name)));
+		}
+		return entries;
+	}
+
+	private ZipEntry zipEntry(Entry entry, byte[] buffer) throws IOException {
+		ZipEntry zipEntry = new ZipEntry(entry.name());
+		zipEntry.setTime(entry.file().lastModified());
+		// files compressed at rest are compressible types, so never STORED
+		if (isCompressed(entry.name()) && entry.file().encoding() == null) {
+			zipEntry.setMethod(ZipEntry.STORED);
+			zipEntry.setSize(entry.file().size());
+			zipEntry.setCompressedSize(entry.file().size());
+			zipEntry.setCrc(crc(entry.file(), buffer));
+		}
+		return zipEntry;
+	}
+
+	private long crc(StoredFile file, byte[] buffer) throws IOException {
+		CRC32 crc = new CRC32();
+		try (InputStream in = storage.openContent(file)) {
+			int read;
+			while ((read = in.read(buffer)) != -1) crc.update(buffer, 0, read);
+		}
+		return crc.getValue();
+	}
+
+	private void copy(StoredFile file, OutputStream zip, byte[] buffer) throws IOException {
+		try (InputStream in = storage.openContent(file)) {
+			int read;
+			while ((read = in.read(buffer)) != -1) zip.write(buffer, 0, read);
+		}
+	}
+
+	private static boolean isCompressed(String name) {
+		int dot = name.lastIndexOf('.');
+		return dot >= 0 && COMPRESSED_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+	}
+
+	private record Entry(String name, StoredFile file) {
+	}
+}
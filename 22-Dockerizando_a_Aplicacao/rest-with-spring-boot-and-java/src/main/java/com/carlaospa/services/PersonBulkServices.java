@@ -0,0 +1,215 @@
+package com.carlaospa.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carlaospa.cache.ResponseCache;
+import com.carlaospa.data.vo.v1.BulkItemResultVO;
+import com.carlaospa.data.vo.v1.BulkItemResultVO.Status;
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.exception.RequiredObjectIsNullException;
+import com.carlaospa.model.Person;
+import com.carlaospa.search.PersonNameIndex;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Bulk create/update of people. Person ids are IDENTITY generated, which
+ * keeps Hibernate from batching inserts, so chunks go through plain JDBC
+ * batches (rewritten into multi-row statements by the driver, see
+ * rewriteBatchedStatements) with one transaction per chunk.
+ */
+@Service
+public class PersonBulkServices {
+
+	private static final String INSERT_SQL =
+			"INSERT INTO person (first_name, last_name, address, gender, enabled) VALUES (?, ?, ?, ?, ?)";
+	private static final String UPDATE_SQL =
+			"UPDATE person SET first_name = ?, last_name = ?, address = ?, gender = ?, version = version + 1 WHERE id = ?";
+
+	private Logger logger = Logger.getLogger(PersonBulkServices.class.getName());
+
+	@Value("${person.bulk.chunk-size:1000}")
+	private int chunkSize = 1000;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	@Autowired
+	ObjectMapper objectMapper;
+
+	@Autowired
+	PersonNameIndex nameIndex;
+
+	@Autowired
+	EntityCacheService entityCache;
+
+	@Autowired
+	ResponseCache responseCache;
+
+	public List<BulkItemResultVO> saveAll(List<PersonVO> people) {
+
+		if (people == null) throw new RequiredObjectIsNullException();
+
+		return saveAll(people.iterator());
+	}
+
+	public List<BulkItemResultVO> saveAllNdjson(InputStream body) throws IOException {
+
+		try (MappingIterator<PersonVO> people = objectMapper.readerFor(PersonVO.class).readValues(body)) {
+			return saveAll(people);
+		}
+	}
+
+	private List<BulkItemResultVO> saveAll(Iterator<PersonVO> people) {
+
+		logger.info("Saving people in bulk!");
+
+		List<BulkItemResultVO> results = new ArrayList<>();
+		List<PersonVO> chunk = new ArrayList<>(chunkSize);
+		int offset = 0;
+		while (people.hasNext()) {
+			chunk.add(people.next());
+			if (chunk.size() == chunkSize) {
+				results.addAll(saveChunk(chunk, offset));
+				offset += chunk.size();
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) results.addAll(saveChunk(chunk, offset));
+		return results;
+	}
+
+	private List<BulkItemResultVO> saveChunk(List<PersonVO> chunk, int offset) {
+
+		var results = new BulkItemResultVO[chunk.size()];
+		List<Integer> inserts = new ArrayList<>();
+		List<Integer> updates = new ArrayList<>();
+		for (int i = 0; i < chunk.size(); i++) {
+			var person = chunk.get(i);
+			if (!isValid(person)) {
+				results[i] = new BulkItemResultVO(offset + i, person == null ? null : person.getKey(),
+						Status.INVALID, "firstName, lastName, address and gender are required!");
+			} else if (person.getKey() == null) {
+				inserts.add(i);
+			} else {
+				updates.add(i);
+			}
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(status ->
+				jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+					insertBatch(connection, chunk, inserts, results, offset);
+					updateBatch(connection, chunk, updates, results, offset);
+					return null;
+				}));
+		} catch (RuntimeException e) {
+			logger.warning("Bulk chunk starting at " + offset + " rolled back: " + e.getMessage());
+			for (int i : inserts) {
+				results[i] = new BulkItemResultVO(offset + i, null, Status.FAILED, e.getMessage());
+			}
+			for (int i : updates) {
+				results[i] = new BulkItemResultVO(offset + i, chunk.get(i).getKey(), Status.FAILED, e.getMessage());
+			}
+			return Arrays.asList(results);
+		}
+
+		// Only committed rows reach the name index; JDBC updates bypass the entity cache
+		for (var result : results) {
+			if (result.getStatus() == Status.UPDATED) {
+				entityCache.evict(Person.class, result.getId());
+				responseCache.invalidate(PersonServices.RESOURCE, result.getId());
+			}
+			if (result.getStatus() == Status.CREATED || result.getStatus() == Status.UPDATED) {
+				nameIndex.put(toEntity(chunk.get(result.getIndex() - offset), result.getId()));
+			}
+		}
+		return Arrays.asList(results);
+	}
+
+	private void insertBatch(Connection connection, List<PersonVO> chunk, List<Integer> inserts,
+			BulkItemResultVO[] results, int offset) throws SQLException {
+
+		if (inserts.isEmpty()) return;
+
+		try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+			for (int i : inserts) {
+				var person = chunk.get(i);
+				statement.setString(1, person.getFirstName());
+				statement.setString(2, person.getLastName());
+				statement.setString(3, person.getAddress());
+				statement.setString(4, person.getGender());
+				statement.setBoolean(5, person.getEnabled() == null || person.getEnabled());
+				statement.addBatch();
+			}
+			statement.executeBatch();
+
+			try (ResultSet keys = statement.getGeneratedKeys()) {
+				for (int i : inserts) {
+					if (!keys.next()) throw new SQLException("Missing generated key for bulk item " + (offset + i));
+					results[i] = new BulkItemResultVO(offset + i, keys.getLong(1), Status.CREATED, null);
+				}
+			}
+		}
+	}
+
+	private void updateBatch(Connection connection, List<PersonVO> chunk, List<Integer> updates,
+			BulkItemResultVO[] results, int offset) throws SQLException {
+
+		if (updates.isEmpty()) return;
+
+		try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+			for (int i : updates) {
+				var person = chunk.get(i);
+				statement.setString(1, person.getFirstName());
+				statement.setString(2, person.getLastName());
+				statement.setString(3, person.getAddress());
+				statement.setString(4, person.getGender());
+				statement.setLong(5, person.getKey());
+				statement.addBatch();
+			}
+			int[] counts = statement.executeBatch();
+
+			for (int j = 0; j < counts.length; j++) {
+				int i = updates.get(j);
+				results[i] = counts[j] == 0
+						? new BulkItemResultVO(offset + i, chunk.get(i).getKey(), Status.NOT_FOUND, "No records found for this ID!")
+						: new BulkItemResultVO(offset + i, chunk.get(i).getKey(), Status.UPDATED, null);
+			}
+		}
+	}
+
+	private boolean isValid(PersonVO person) {
+		return person != null && person.getFirstName() != null && person.getLastName() != null
+				&& person.getAddress() != null && person.getGender() != null;
+	}
+
+	private Person toEntity(PersonVO vo, Long id) {
+		var person = new Person();
+		person.setId(id);
+		person.setFirstName(vo.getFirstName());
+		person.setLastName(vo.getLastName());
+		return person;
+	}
+}
@@ -0,0 +1,92 @@
+package com.carlaospa.services;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import com.carlaospa.repository.PersonRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Approximate person totals for the count free listings, so a UI can still
+ * show "about N results". Counts run on a background thread and are cached
+ * per first name fragment; after refresh-after they are recounted in the
+ * background on the next use, while the old value keeps being served. A
+ * request never waits for a COUNT: until the first one finishes there is no
+ * estimate at all. The queue of pending counts is bounded by queue-size;
+ * a fragment that does not fit gets no estimate and is retried on its next
+ * use, so varied input cannot pile up full scans.
+ */
+@Service
+public class PersonCountService {
+
+	private static final String ALL = "";
+
+	private Logger logger = Logger.getLogger(PersonCountService.class.getName());
+
+	private final PersonRepository repository;
+	private final ExecutorService executor;
+	private final AsyncLoadingCache<String, Long> counts;
+
+	@Autowired
+	public PersonCountService(PersonRepository repository,
+			@Value("${person.count.refresh-after:60000}") long refreshAfter,
+			@Value("${person.count.max-size:1000}") long maxSize,
+			@Value("${person.count.queue-size:16}") int queueSize) {
+		this.repository = repository;
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(Math.max(1, queueSize)), new CustomizableThreadFactory("person-count-"));
+		this.counts = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.refreshAfterWrite(Duration.ofMillis(refreshAfter))
+				.buildAsync((key, ignored) -> submit(key));
+	}
+
+	/** The approximate number of people, or null while it is still being counted. */
+	public Long estimateAll() {
+		return estimate(ALL);
+	}
+
+	/** The approximate number of people matching the first name, or null while it is still being counted. */
+	public Long estimateByName(String firstName) {
+		return estimate(firstName == null ? ALL : firstName.toLowerCase(Locale.ROOT));
+	}
+
+	private Long estimate(String key) {
+		var count = counts.get(key);
+		return count.isDone() && !count.isCompletedExceptionally() ? count.join() : null;
+	}
+
+	/** A failed future is not kept, and a failed refresh keeps the old value. */
+	private CompletableFuture<Long> submit(String key) {
+		try {
+			return CompletableFuture.supplyAsync(() -> count(key), executor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+	}
+
+	private Long count(String key) {
+		logger.info("Counting people for an estimate!");
+		return ALL.equals(key) ? repository.count() : repository.countPersonsByName(key);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdown();
+	}
+}
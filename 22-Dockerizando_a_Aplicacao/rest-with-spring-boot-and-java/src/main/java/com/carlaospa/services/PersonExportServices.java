@@ -0,0 +1,111 @@
+package com.carlaospa.services;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.carlaospa.model.Person;
+import com.carlaospa.repository.PersonRepository;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+/**
+ * Writes the whole person table straight from a streaming result set to the
+ * response. Every row is detached once written, so the persistence context
+ * (and the heap) stays the same size whatever the table size.
+ */
+@Service
+public class PersonExportServices {
+
+	private Logger logger = Logger.getLogger(PersonExportServices.class.getName());
+
+	private final JsonFactory jsonFactory = new JsonFactory();
+
+	@Autowired
+	PersonRepository repository;
+
+	@PersistenceContext
+	EntityManager entityManager;
+
+	@Transactional(readOnly = true)
+	public void exportNdjson(OutputStream out) throws IOException {
+
+		logger.info("Exporting all people as NDJSON!");
+
+		try (Stream<Person> people = repository.streamAll();
+				JsonGenerator generator = jsonFactory.createGenerator(out)) {
+			generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+			generator.setRootValueSeparator(null);
+
+			var iterator = people.iterator();
+			while (iterator.hasNext()) {
+				var person = iterator.next();
+				generator.writeStartObject();
+				generator.writeNumberField("id", person.getId());
+				generator.writeStringField("firstName", person.getFirstName());
+				generator.writeStringField("lastName", person.getLastName());
+				generator.writeStringField("address", person.getAddress());
+				generator.writeStringField("gender", person.getGender());
+				generator.writeBooleanField("enabled", Boolean.TRUE.equals(person.getEnabled()));
+				generator.writeEndObject();
+				generator.writeRaw('\n');
+				entityManager.detach(person);
+			}
+		}
+	}
+
+	@Transactional(readOnly = true)
+	public void exportCsv(OutputStream out) throws IOException {
+
+		logger.info("Exporting all people as CSV!");
+
+		Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		writer.write("id,firstName,lastName,address,gender,enabled\n");
+
+		try (Stream<Person> people = repository.streamAll()) {
+			var iterator = people.iterator();
+			while (iterator.hasNext()) {
+				var person = iterator.next();
+				writer.write(String.valueOf(person.getId()));
+				writer.write(',');
+				writeCsvField(writer, person.getFirstName());
+				writer.write(',');
+				writeCsvField(writer, person.getLastName());
+				writer.write(',');
+				writeCsvField(writer, person.getAddress());
+				writer.write(',');
+				writeCsvField(writer, person.getGender());
+				writer.write(',');
+				writer.write(String.valueOf(Boolean.TRUE.equals(person.getEnabled())));
+				writer.write('\n');
+				entityManager.detach(person);
+			}
+		}
+		writer.flush();
+	}
+
+	private void writeCsvField(Writer writer, String value) throws IOException {
+		if (value == null) return;
+		boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+				|| value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+		if (!quote) {
+			writer.write(value);
+			return;
+		}
+		writer.write('"');
+		writer.write(value.replace("\"", "\"\""));
+		writer.write('"');
+	}
+}
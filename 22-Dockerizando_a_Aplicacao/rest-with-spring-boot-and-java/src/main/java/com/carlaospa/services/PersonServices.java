@@ -3,101 +3,242 @@ package com.carlaospa.services;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
 import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.stereotype.Service;
 
+import com.carlaospa.cache.ResponseCache;
 import com.carlaospa.controllers.PersonController;
 import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.exception.PreconditionFailedException;
 import com.carlaospa.exception.RequiredObjectIsNullException;
 import com.carlaospa.exception.ResourceNotFoundException;
-import com.carlaospa.mapper.DozerMapper;
+import com.carlaospa.mapper.custom.PersonMapper;
 import com.carlaospa.model.Person;
 import com.carlaospa.repository.PersonRepository;
-
-import jakarta.transaction.Transactional;
+import com.carlaospa.search.PersonNameIndex;
+import com.carlaospa.util.PersonCursor;
+import com.carlaospa.util.SelfLinkFactory;
 
 @Service
 public class PersonServices {
 
+	/** The path segment of people in the response cache keys. */
+	public static final String RESOURCE = "person";
+
+	private static final SelfLinkFactory PERSON_LINKS = SelfLinkFactory.of(PersonController.class, "findById", Long.class);
+
 	private Logger logger = Logger.getLogger(PersonServices.class.getName());
 
 	@Autowired
 	PersonRepository repository;
 	
+	@Autowired
+	PersonNameIndex nameIndex;
+	
 	@Autowired
 	PagedResourcesAssembler<PersonVO> assembler;
+	
+	@Autowired
+	ResponseCache responseCache;
+	
+	@Autowired
+	PersonCountService countService;
 
 	public PagedModel<EntityModel<PersonVO>> findAll(Pageable pageable) {
+		
+		return toPagedModel(findPage(pageable), pageable);
+	}
+	
+	/** The page of entities, so its ETag can be checked before anything is mapped. */
+	public Page<Person> findPage(Pageable pageable) {
 
 		logger.info("Finding all people!");
 		
-		var personPage = repository.findAll(pageable);
+		return repository.findAll(pageable);
+	}
+	
+	public PagedModel<EntityModel<PersonVO>> toPagedModel(Page<Person> personPage, Pageable pageable) {
 		
-		var personVosPage = personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class));
+		var personVosPage = personPage.map(PersonMapper::convertEntityToVo);
 		
-		personVosPage.map(
-				p -> {
-					try {
-						return p.add(
-								linkTo(methodOn(PersonController.class).findById(p.getKey())).withSelfRel());
-					} catch (Exception e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
-					return p;
-				});
+		personVosPage.forEach(p -> p.add(PERSON_LINKS.selfLink(p.getKey())));
 		
 		Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), 
-				pageable.getPageSize(), "asc")).withSelfRel();
+				pageable.getPageSize(), "asc", null, null)).withSelfRel();
 		
 		return assembler.toModel(personVosPage, link);
 	}
 	
+	public PagedModel<EntityModel<PersonVO>> findAllByCursor(String cursor, Integer size, Direction direction) {
+		
+		logger.info("Finding all people by cursor!");
+		
+		var position = (cursor == null || cursor.isBlank()) ? null : PersonCursor.decode(cursor);
+		boolean backward = position != null && position.isBackward();
+		
+		// Paging back walks the index in the opposite order and flips the slice afterwards
+		var seekDirection = backward 
+				? (direction.isAscending() ? Direction.DESC : Direction.ASC) : direction;
+		Pageable seek = PageRequest.of(0, size + 1, 
+				Sort.by(seekDirection, "firstName").and(Sort.by(seekDirection, "id")));
+		
+		List<Person> people;
+		if (position == null) {
+			people = repository.findPersonsFirstSlice(seek);
+		} else if (seekDirection.isAscending()) {
+			people = repository.findPersonsAfter(position.getFirstName(), position.getId(), seek);
+		} else {
+			people = repository.findPersonsBefore(position.getFirstName(), position.getId(), seek);
+		}
+		
+		boolean hasMore = people.size() > size;
+		if (hasMore) people = people.subList(0, size);
+		if (backward) {
+			people = new ArrayList<>(people);
+			Collections.reverse(people);
+		}
+		
+		List<EntityModel<PersonVO>> content = new ArrayList<>();
+		for (Person person : people) {
+			var vo = PersonMapper.convertEntityToVo(person);
+			vo.add(PERSON_LINKS.selfLink(vo.getKey()));
+			content.add(EntityModel.of(vo));
+		}
+		
+		var directionParam = direction.isAscending() ? "asc" : "desc";
+		List<Link> links = new ArrayList<>();
+		links.add(linkTo(methodOn(PersonController.class).findAll(0, size, directionParam, 
+				cursor == null ? "" : cursor, null)).withSelfRel());
+		
+		if (!people.isEmpty()) {
+			var first = people.get(0);
+			var last = people.get(people.size() - 1);
+			if (backward || hasMore) {
+				links.add(linkTo(methodOn(PersonController.class).findAll(0, size, directionParam, 
+						PersonCursor.after(last.getFirstName(), last.getId()).encode(), null))
+						.withRel(IanaLinkRelations.NEXT));
+			}
+			if ((backward && hasMore) || (!backward && position != null)) {
+				links.add(linkTo(methodOn(PersonController.class).findAll(0, size, directionParam, 
+						PersonCursor.before(first.getFirstName(), first.getId()).encode(), null))
+						.withRel(IanaLinkRelations.PREV));
+			}
+		}
+		
+		return PagedModel.of(content, null, links);
+	}
+	
 	public PagedModel<EntityModel<PersonVO>> findPersonByName(String firstname, Pageable pageable) {
 		
 		logger.info("Finding all people name!");
 		
-		var personPage = repository.findPersonsByName(firstname, pageable);
+		var personPage = nameIndex.isReady()
+				? nameIndex.findPersonsByFirstName(firstname, pageable)
+				: repository.findPersonsByName(firstname, pageable);
 		
-		var personVosPage = personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class));
+		var personVosPage = personPage.map(PersonMapper::convertEntityToVo);
 		
-		personVosPage.map(
-				p -> {
-					try {
-						return p.add(
-								linkTo(methodOn(PersonController.class).findById(p.getKey())).withSelfRel());
-					} catch (Exception e) {
-						// TODO Auto-generated catch block
-						e.printStackTrace();
-					}
-					return p;
-				});
+		personVosPage.forEach(p -> p.add(PERSON_LINKS.selfLink(p.getKey())));
 		
 		Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), 
-				pageable.getPageSize(), "asc")).withSelfRel();
+				pageable.getPageSize(), "asc", null, null)).withSelfRel();
 		
 		return assembler.toModel(personVosPage, link);
 	}
 
+	/**
+	 * A page without its COUNT query: the slice reads one row more than asked
+	 * to know whether a next page exists, so only the self and next links can
+	 * be given, and no page metadata. The approximate total comes along, or
+	 * null when none is known yet.
+	 */
+	public EstimatedSlice findSlice(Pageable pageable) {
+
+		logger.info("Finding a slice of people!");
+
+		var direction = directionParam(pageable);
+		return new EstimatedSlice(toSliceModel(repository.findPersonSlice(pageable),
+				page -> methodOn(PersonController.class).findAll(page, pageable.getPageSize(), direction, null, false)),
+				countService.estimateAll());
+	}
+
+	public EstimatedSlice findSliceByName(String firstname, Pageable pageable) {
+
+		logger.info("Finding a slice of people by name!");
+
+		Slice<Person> slice;
+		Long estimate;
+		if (nameIndex.isReady()) {
+			// the index page already carries the exact number of matches
+			Page<Person> matches = nameIndex.findPersonsByFirstName(firstname, pageable);
+			slice = matches;
+			estimate = matches.getTotalElements();
+		} else {
+			slice = repository.findPersonSliceByName(firstname, pageable);
+			estimate = countService.estimateByName(firstname);
+		}
+
+		var direction = directionParam(pageable);
+		return new EstimatedSlice(toSliceModel(slice, page -> methodOn(PersonController.class)
+				.findPersonByName(firstname, page, pageable.getPageSize(), direction, false)), estimate);
+	}
+
+	public record EstimatedSlice(PagedModel<EntityModel<PersonVO>> slice, Long estimate) {
+	}
+
+	private PagedModel<EntityModel<PersonVO>> toSliceModel(Slice<Person> slice, IntFunction<Object> invocation) {
+
+		List<EntityModel<PersonVO>> content = new ArrayList<>(slice.getNumberOfElements());
+		for (Person person : slice) {
+			var vo = PersonMapper.convertEntityToVo(person);
+			vo.add(PERSON_LINKS.selfLink(vo.getKey()));
+			content.add(EntityModel.of(vo));
+		}
+
+		List<Link> links = new ArrayList<>(2);
+		links.add(linkTo(invocation.apply(slice.getNumber())).withSelfRel());
+		if (slice.hasNext()) links.add(linkTo(invocation.apply(slice.getNumber() + 1)).withRel(IanaLinkRelations.NEXT));
+		return PagedModel.of(content, null, links);
+	}
+
+	private static String directionParam(Pageable pageable) {
+		var order = pageable.getSort().getOrderFor("firstName");
+		return order != null && order.isDescending() ? "desc" : "asc";
+	}
+
+	/** The current version of a person, read without mapping it. */
+	public Long findVersion(Long id) {
+
+		return repository.findById(id)
+				.map(Person::getVersion)
+				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+	}
+
 	public PersonVO findById(Long id) {
 
 		logger.info("Finding one person!");
 
 		var entity = repository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-		var vo = DozerMapper.parseObject(entity, PersonVO.class);
-		try {
-			vo.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		var vo = PersonMapper.convertEntityToVo(entity);
+		vo.add(PERSON_LINKS.selfLink(id));
 		return vo;
 	}
 
@@ -107,54 +248,72 @@ public class PersonServices {
 		
 		logger.info("Creating one person!");
 		
-		var entity = DozerMapper.parseObject(person, Person.class);		
-		var vo = DozerMapper.parseObject(repository.save(entity), PersonVO.class);
-		try {
-			vo.add(linkTo(methodOn(PersonController.class).findById(vo.getKey())).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		var entity = PersonMapper.convertVoToEntity(person);		
+		var persisted = repository.save(entity);
+		nameIndex.put(persisted);
+		responseCache.invalidate(RESOURCE, persisted.getId());
+		var vo = PersonMapper.convertEntityToVo(persisted);
+		vo.add(PERSON_LINKS.selfLink(vo.getKey()));
 		return vo;
 	}
 
 	public PersonVO update(PersonVO person) {
 		
+		return update(person, null);
+	}
+
+	/**
+	 * Updates only while the person is still at the expected version, when one
+	 * is given. A single UPDATE does the write and the version check; the
+	 * response is the request plus the new version, which is only known when
+	 * a version was expected. Enabled is not written, so it is left out.
+	 */
+	public PersonVO update(PersonVO person, Long expectedVersion) {
+		
 		if (person == null) throw new RequiredObjectIsNullException(); 
 
 		logger.info("Updating one person!");
 
-		var entity = repository.findById(person.getKey())
-				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-
-		entity.setFirstName(person.getFirstName());
-		entity.setLastName(person.getLastName());
-		entity.setAddress(person.getAddress());
-		entity.setGender(person.getGender());
-
-		var vo = DozerMapper.parseObject(repository.save(entity), PersonVO.class);
-		try {
-			vo.add(linkTo(methodOn(PersonController.class).findById(vo.getKey())).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
+		var entity = PersonMapper.convertVoToEntity(person);
+		if (repository.updatePerson(entity, expectedVersion) == 0) {
+			throw notWritten(person.getKey(), expectedVersion);
 		}
+		entity.setVersion(expectedVersion == null ? null : expectedVersion + 1);
+		entity.setEnabled(null);
+
+		nameIndex.put(entity);
+		responseCache.invalidate(RESOURCE, entity.getId());
+		var vo = PersonMapper.convertEntityToVo(entity);
+		vo.add(PERSON_LINKS.selfLink(vo.getKey()));
 		return vo;
 	}
 
-	@Transactional
 	public PersonVO disablePerson(Long id) {
 
+		return disablePerson(id, null);
+	}
+
+	/**
+	 * A single UPDATE, conditional on the version only when the client expects
+	 * one. The names for the response are read before the write, which the
+	 * second level cache normally answers; after it the write has evicted the
+	 * row and a read would go to the database. As for update, the new version
+	 * is only known when the expected one was the version read.
+	 */
+	public PersonVO disablePerson(Long id, Long expectedVersion) {
+
 		logger.info("Disabling one person!");
-		
-		repository.disabledPerson(id);
 
 		var entity = repository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
-		var vo = DozerMapper.parseObject(entity, PersonVO.class);
-		try {
-			vo.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+		if (repository.disablePerson(id, expectedVersion) == 0) throw notWritten(id, expectedVersion);
+		responseCache.invalidate(RESOURCE, id);
+
+		boolean current = expectedVersion != null && expectedVersion.equals(entity.getVersion());
+		entity.setVersion(current ? expectedVersion + 1 : null);
+		entity.setEnabled(false);
+		var vo = PersonMapper.convertEntityToVo(entity);
+		vo.add(PERSON_LINKS.selfLink(id));
 		return vo;
 	}
 	
@@ -162,10 +321,17 @@ public class PersonServices {
 
 		logger.info("Deleting one person!");
 
-		var entity = repository.findById(id)
-				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+		if (repository.deletePerson(id) == 0) throw new ResourceNotFoundException("No records found for this ID!");
+		nameIndex.remove(id);
+		responseCache.invalidate(RESOURCE, id);
+	}
 
-		repository.delete(entity);
+	/** Only a failed write pays for telling a missing person from a stale version. */
+	private RuntimeException notWritten(Long id, Long expectedVersion) {
+		if (expectedVersion != null && id != null && repository.existsById(id)) {
+			return new PreconditionFailedException("The person was changed since version " + expectedVersion + "!");
+		}
+		return new ResourceNotFoundException("No records found for this ID!");
 	}
 
 }
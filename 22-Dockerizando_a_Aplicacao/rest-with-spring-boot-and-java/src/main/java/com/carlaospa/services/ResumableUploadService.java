@@ -0,0 +1,235 @@
+package com.carlaospa.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.exception.FileStorageException;
+import com.carlaospa.exception.InvalidUploadException;
+import com.carlaospa.exception.ResourceNotFoundException;
+import com.carlaospa.storage.StorageNames;
+import com.carlaospa.storage.StoredContent;
+import com.carlaospa.storage.UploadSession;
+
+/**
+ * Resumable uploads. Each session lives in its own directory under
+ * .uploads in the storage location: session.properties with the target name
+ * and length, a sparse data file written with positional writes, and a
+ * ranges log with one 16 byte (start, end) record per accepted chunk. The
+ * log is replayed when a session is not in memory, so uploads survive
+ * restarts.
+ */
+@Service
+public class ResumableUploadService {
+
+	private Logger logger = Logger.getLogger(ResumableUploadService.class.getName());
+
+	private static final String SESSIONS_DIR = ".uploads";
+	private static final String SESSION_FILE = "session.properties";
+	private static final String DATA_FILE = "data";
+	private static final String RANGES_FILE = "ranges";
+	private static final Pattern SESSION_ID = Pattern.compile("[0-9a-f]{32}");
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final FileStorageService storage;
+	private final Path sessionsLocation;
+	private final long maxLength;
+	private final Duration expiry;
+
+	private final ConcurrentHashMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+	@Autowired
+	public ResumableUploadService(FileStorageService storage, FileStorageConfig fileStorageConfig) {
+		this.storage = storage;
+		this.sessionsLocation = storage.getFileStorageLocation().resolve(SESSIONS_DIR);
+		this.maxLength = fileStorageConfig.getResumableMaxSize().toBytes();
+		this.expiry = fileStorageConfig.getResumableExpiry();
+
+		try {
+			Files.createDirectories(this.sessionsLocation);
+		} catch (Exception e) {
+			throw new FileStorageException("Could not create the directory where the resumable uploads will be stored!");
+		}
+	}
+
+	public UploadSession create(String originalFilename, long length) {
+		String filename = originalFilename;
+		if (!StorageNames.isValid(filename)) {
+			throw new InvalidUploadException("Sorry! Filename is not a plain file name " + filename);
+		}
+		if (length < 0 || length > maxLength) {
+			throw new InvalidUploadException("Upload length must be between 0 and " + maxLength + " bytes");
+		}
+		purgeExpired();
+
+		String id = UUID.randomUUID().toString().replace("-", "");
+		Path directory = sessionsLocation.resolve(id);
+		try {
+			Files.createDirectory(directory);
+			Files.createFile(directory.resolve(DATA_FILE));
+			Files.createFile(directory.resolve(RANGES_FILE));
+
+			var properties = new Properties();
+			properties.setProperty("filename", filename);
+			properties.setProperty("length", Long.toString(length));
+			try (Writer writer = Files.newBufferedWriter(directory.resolve(SESSION_FILE), StandardCharsets.UTF_8)) {
+				properties.store(writer, null);
+			}
+		} catch (IOException e) {
+			FileSystemUtils.deleteRecursively(directory.toFile());
+			throw new FileStorageException("Could not create upload session for " + filename, e);
+		}
+
+		var session = new UploadSession(id, filename, length, directory);
+		sessions.put(id, session);
+		return session;
+	}
+
+	public UploadSession find(String id) {
+		if (id == null || !SESSION_ID.matcher(id).matches()) {
+			throw new ResourceNotFoundException("No upload session found for this ID!");
+		}
+		UploadSession session = sessions.computeIfAbsent(id, this::load);
+		if (session == null) {
+			throw new ResourceNotFoundException("No upload session found for this ID!");
+		}
+		return session;
+	}
+
+	/**
+	 * Writes the chunk at offset with positional writes, so chunks of the same
+	 * upload can be sent in parallel and in any order. Whatever was written
+	 * before a broken connection is still recorded.
+	 */
+	public UploadSession write(String id, long offset, InputStream in) {
+		UploadSession session = find(id);
+		if (offset < 0 || offset > session.getLength()) {
+			throw new InvalidUploadException("Offset " + offset + " is outside the upload length " + session.getLength());
+		}
+
+		long position = offset;
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (FileChannel data = FileChannel.open(session.getDirectory().resolve(DATA_FILE), StandardOpenOption.WRITE)) {
+			try {
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					if (position + read > session.getLength()) {
+						throw new InvalidUploadException("Chunk exceeds the upload length " + session.getLength());
+					}
+					ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+					while (chunk.hasRemaining()) {
+						position += data.write(chunk, position);
+					}
+				}
+			} finally {
+				if (position > offset) {
+					data.force(false);
+					record(session, offset, position);
+				}
+			}
+		} catch (InvalidUploadException e) {
+			throw e;
+		} catch (IOException e) {
+			throw new FileStorageException("Could not write chunk of upload " + id, e);
+		}
+		return session;
+	}
+
+	public StoredContent complete(String id) {
+		UploadSession session = find(id);
+		if (!session.isComplete()) {
+			throw new InvalidUploadException("Upload " + id + " is incomplete: "
+					+ session.getOffset() + " of " + session.getLength() + " bytes received");
+		}
+		StoredContent stored = storage.storeFrom(session.getFilename(), session.getDirectory().resolve(DATA_FILE));
+		remove(session);
+		return stored;
+	}
+
+	public void abort(String id) {
+		remove(find(id));
+	}
+
+	private void record(UploadSession session, long start, long end) throws IOException {
+		ByteBuffer entry = ByteBuffer.allocate(16).putLong(start).putLong(end).flip();
+		synchronized (session) {
+			try (FileChannel ranges = FileChannel.open(session.getDirectory().resolve(RANGES_FILE),
+					StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				while (entry.hasRemaining()) ranges.write(entry);
+			}
+			session.addRange(start, end);
+		}
+	}
+
+	private UploadSession load(String id) {
+		Path directory = sessionsLocation.resolve(id);
+		Path sessionFile = directory.resolve(SESSION_FILE);
+		if (!Files.isRegularFile(sessionFile)) return null;
+
+		try {
+			var properties = new Properties();
+			try (Reader reader = Files.newBufferedReader(sessionFile, StandardCharsets.UTF_8)) {
+				properties.load(reader);
+			}
+			var session = new UploadSession(id, properties.getProperty("filename"),
+					Long.parseLong(properties.getProperty("length")), directory);
+
+			ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(RANGES_FILE)));
+			// a torn trailing record is ignored, the client simply resends it
+			while (log.remaining() >= 16) {
+				session.addRange(log.getLong(), log.getLong());
+			}
+			return session;
+		} catch (Exception e) {
+			logger.warning("Could not load upload session " + id + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	private void remove(UploadSession session) {
+		sessions.remove(session.getId());
+		try {
+			FileSystemUtils.deleteRecursively(session.getDirectory());
+		} catch (IOException e) {
+			logger.warning("Could not delete upload session " + session.getId() + ": " + e.getMessage());
+		}
+	}
+
+	/** Drops sessions that have not received any chunk within the expiry. */
+	private void purgeExpired() {
+		long cutoff = System.currentTimeMillis() - expiry.toMillis();
+		try (Stream<Path> directories = Files.list(sessionsLocation)) {
+			directories.forEach(directory -> {
+				try {
+					if (Files.getLastModifiedTime(directory.resolve(RANGES_FILE)).toMillis() < cutoff) {
+						sessions.remove(directory.getFileName().toString());
+						FileSystemUtils.deleteRecursively(directory);
+					}
+				} catch (IOException e) {
+					// the session is being completed or was already removed
+				}
+			});
+		} catch (IOException e) {
+			logger.warning("Could not purge expired upload sessions: " + e.getMessage());
+		}
+	}
+}
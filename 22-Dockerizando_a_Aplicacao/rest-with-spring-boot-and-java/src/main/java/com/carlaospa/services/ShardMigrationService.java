@@ -0,0 +1,98 @@
+package com.carlaospa.services;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.storage.ShardedLayout;
+
+/**
+ * Moves files still sitting flat in the upload directory into their shards,
+ * one at a time on a background thread, while the application keeps serving
+ * them from whichever layout they are in. The directory is streamed, never
+ * listed into memory, so it copes with millions of entries. Only the local
+ * storage backend has flat files to migrate.
+ */
+@Service
+public class ShardMigrationService {
+
+	private Logger logger = Logger.getLogger(ShardMigrationService.class.getName());
+
+	private static final int PROGRESS_INTERVAL = 10000;
+
+	private final ShardedLayout layout;
+	private final boolean local;
+	private final boolean migrateOnStartup;
+
+	private final AtomicBoolean running = new AtomicBoolean(false);
+	private final AtomicLong migrated = new AtomicLong();
+
+	@Autowired
+	public ShardMigrationService(FileStorageService storage, FileStorageConfig fileStorageConfig) {
+		this.layout = storage.getLayout();
+		this.local = storage.isLocal();
+		this.migrateOnStartup = fileStorageConfig.isMigrateFlatFiles();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void onReady() {
+		if (migrateOnStartup) start();
+	}
+
+	/** Starts a migration pass unless sharding is off, files are not local or one is running. */
+	public boolean start() {
+		if (!layout.isSharded() || !local || !running.compareAndSet(false, true)) return false;
+
+		Thread worker = new Thread(() -> {
+			try {
+				migrateAll();
+			} finally {
+				running.set(false);
+			}
+		}, "file-shard-migration");
+		worker.setDaemon(true);
+		worker.start();
+		return true;
+	}
+
+	public void migrateAll() {
+		logger.info("Migrating flat files into shards!");
+
+		long count = 0;
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(layout.getRoot())) {
+			for (Path file : files) {
+				if (ShardedLayout.isInternal(file) || !Files.isRegularFile(file)) continue;
+				try {
+					if (layout.migrate(file)) migrated.incrementAndGet();
+				} catch (IOException e) {
+					logger.warning("Could not migrate " + file.getFileName() + ": " + e.getMessage());
+				}
+				if (++count % PROGRESS_INTERVAL == 0) {
+					logger.info("Shard migration visited " + count + " files, moved " + migrated.get());
+				}
+			}
+		} catch (IOException e) {
+			logger.warning("Shard migration stopped: " + e.getMessage());
+		}
+
+		logger.info("Shard migration finished, " + migrated.get() + " files moved!");
+	}
+
+	public boolean isRunning() {
+		return running.get();
+	}
+
+	public long getMigrated() {
+		return migrated.get();
+	}
+}
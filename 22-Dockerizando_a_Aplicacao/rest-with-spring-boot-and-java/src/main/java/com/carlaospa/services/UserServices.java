@@ -7,29 +7,74 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.carlaospa.exception.ResourceNotFoundException;
 import com.carlaospa.repository.UserRepository;
+import com.carlaospa.security.UserDetailsCache;
+
+import jakarta.transaction.Transactional;
 
 @Service
 public class UserServices implements UserDetailsService {
-	
+
 	private Logger logger = Logger.getLogger(UserServices.class.getName());
-	
+
 	@Autowired
 	UserRepository repository;
-	
+
+	@Autowired
+	UserDetailsCache userCache;
+
 	public UserServices(UserRepository repository) {
 		this.repository = repository;
 	}
 
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+		var cached = userCache.get(username);
+		if (cached != null) return cached;
+
 		logger.info("Finding one user by name " + username + "!");
 		var user = repository.findByUsername(username);
 		if (user != null) {
+			userCache.put(username, user);
 			return user;
 		} else {
 			throw new UsernameNotFoundException("Username " + username + " not found!");
 		}
 	}
-}
\ No newline at end of file
+
+	@Transactional
+	public void disableUser(String username) {
+		logger.info("Disabling user " + username + "!");
+		if (repository.disableUser(username) == 0) throw new ResourceNotFoundException("No records found for this username!");
+		evictAfterCommit(username);
+	}
+
+	@Transactional
+	public void lockUser(String username) {
+		logger.info("Locking user " + username + "!");
+		if (repository.lockUser(username) == 0) throw new ResourceNotFoundException("No records found for this username!");
+		evictAfterCommit(username);
+	}
+
+	/**
+	 * Evicting before the commit would let a concurrent login load and cache
+	 * the still enabled user for the whole TTL, so the entry goes once the
+	 * change is visible.
+	 */
+	private void evictAfterCommit(String username) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			userCache.evict(username);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				userCache.evict(username);
+			}
+		});
+	}
+}
@@ -0,0 +1,98 @@
+package com.carlaospa.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Turns a push style compressor (GZIPOutputStream, ZstdOutputStream) into a
+ * stream the storage backend can pull from. Each refill reads one chunk of
+ * the source and pushes it through the encoder; whatever compressed bytes
+ * come out are handed to the reader. Memory stays at one chunk plus the
+ * encoder's own window, whatever the size of the file.
+ */
+public class CompressingInputStream extends InputStream {
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+
+	/** Exposes its buffer so drained bytes can be read without copying. */
+	private static final class Sink extends ByteArrayOutputStream {
+
+		Sink() {
+			super(CHUNK_SIZE);
+		}
+
+		byte[] buffer() {
+			return buf;
+		}
+	}
+
+	private final InputStream source;
+	private final Sink sink = new Sink();
+	private final OutputStream encoder;
+	private final byte[] chunk = new byte[CHUNK_SIZE];
+
+	private int position;
+	private boolean finished;
+	private long produced;
+
+	CompressingInputStream(InputStream source, ContentEncoding encoding) {
+		this.source = source;
+		try {
+			this.encoder = encoding.encoder(sink);
+		} catch (IOException e) {
+			// the encoders only write their header to the in-memory sink
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (!fill()) return -1;
+		produced++;
+		return sink.buffer()[position++] & 0xff;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) return 0;
+		if (!fill()) return -1;
+		int count = Math.min(len, sink.size() - position);
+		System.arraycopy(sink.buffer(), position, b, off, count);
+		position += count;
+		produced += count;
+		return count;
+	}
+
+	/** Makes sure there are undrained compressed bytes, unless the end is reached. */
+	private boolean fill() throws IOException {
+		while (position == sink.size()) {
+			if (finished) return false;
+			sink.reset();
+			position = 0;
+			int read = source.read(chunk);
+			if (read < 0) {
+				encoder.close();
+				finished = true;
+			} else {
+				encoder.write(chunk, 0, read);
+			}
+		}
+		return true;
+	}
+
+	/** Compressed bytes handed out so far; the stored size once drained. */
+	public long produced() {
+		return produced;
+	}
+
+	/** Releases the encoder of an abandoned stream; the source belongs to the caller. */
+	@Override
+	public void close() throws IOException {
+		if (!finished) {
+			finished = true;
+			encoder.close();
+		}
+	}
+}
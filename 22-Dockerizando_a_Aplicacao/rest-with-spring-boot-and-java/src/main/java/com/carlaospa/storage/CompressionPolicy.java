@@ -0,0 +1,54 @@
+package com.carlaospa.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * Decides which files are compressed at rest, from the media type their
+ * name maps to. The decision depends on the name only, never on what the
+ * client declared, so a download finds the file under the same key the
+ * upload chose. Types may be wildcards such as text/*; the first match wins.
+ */
+public final class CompressionPolicy {
+
+	private record Rule(MediaType type, ContentEncoding encoding) {
+	}
+
+	private final List<Rule> rules;
+
+	/** Maps encoding tokens (gzip, zstd) to the media types they apply to. */
+	public CompressionPolicy(Map<String, List<String>> typesByEncoding) {
+		List<Rule> parsed = new ArrayList<>();
+		typesByEncoding.forEach((token, types) -> {
+			ContentEncoding encoding = ContentEncoding.fromToken(token);
+			for (String type : types) {
+				parsed.add(new Rule(MediaType.parseMediaType(type), encoding));
+			}
+		});
+		this.rules = List.copyOf(parsed);
+	}
+
+	public static CompressionPolicy none() {
+		return new CompressionPolicy(Map.of());
+	}
+
+	public boolean isEnabled() {
+		return !rules.isEmpty();
+	}
+
+	/** The encoding new uploads of filename get, or null to store them raw. */
+	public ContentEncoding encodingFor(String filename) {
+		if (rules.isEmpty()) return null;
+
+		MediaType type = MediaTypeFactory.getMediaType(filename).orElse(null);
+		if (type == null) return null;
+		for (Rule rule : rules) {
+			if (rule.type().includes(type)) return rule.encoding();
+		}
+		return null;
+	}
+}
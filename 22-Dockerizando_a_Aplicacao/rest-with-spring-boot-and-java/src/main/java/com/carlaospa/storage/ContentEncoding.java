@@ -0,0 +1,78 @@
+package com.carlaospa.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * An at-rest compression of stored files. The token is the HTTP content
+ * coding, so compressed bytes can be sent as they are with Content-Encoding.
+ * Encoded objects live under their own key prefix (".gzip/", ".zstd/"),
+ * which keeps them apart from any raw file of the same name.
+ */
+public enum ContentEncoding {
+
+	GZIP("gzip") {
+		@Override
+		public OutputStream encoder(OutputStream out) throws IOException {
+			return new GZIPOutputStream(out, 8192);
+		}
+
+		@Override
+		public InputStream decoder(InputStream in) throws IOException {
+			return new GZIPInputStream(in, 8192);
+		}
+	},
+
+	ZSTD("zstd") {
+		@Override
+		public OutputStream encoder(OutputStream out) throws IOException {
+			return new ZstdOutputStream(out, ZSTD_LEVEL);
+		}
+
+		@Override
+		public InputStream decoder(InputStream in) throws IOException {
+			return new ZstdInputStream(in);
+		}
+	};
+
+	private static final int ZSTD_LEVEL = 3;
+
+	private final String token;
+
+	ContentEncoding(String token) {
+		this.token = token;
+	}
+
+	public String token() {
+		return token;
+	}
+
+	/** The key of the encoded copy of key. */
+	public String key(String key) {
+		return "." + token + "/" + key;
+	}
+
+	public abstract OutputStream encoder(OutputStream out) throws IOException;
+
+	public abstract InputStream decoder(InputStream in) throws IOException;
+
+	/** Compresses in lazily, as the returned stream is read. */
+	public CompressingInputStream compress(InputStream in) {
+		return new CompressingInputStream(in, this);
+	}
+
+	public static ContentEncoding fromToken(String token) {
+		String value = token.trim().toLowerCase(Locale.ROOT);
+		for (ContentEncoding encoding : values()) {
+			if (encoding.token.equals(value)) return encoding;
+		}
+		throw new IllegalArgumentException("Unknown content encoding " + token);
+	}
+}
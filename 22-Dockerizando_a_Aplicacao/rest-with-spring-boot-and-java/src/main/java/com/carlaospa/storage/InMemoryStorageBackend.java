@@ -0,0 +1,58 @@
+package com.carlaospa.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps objects on the heap. Meant for tests and for trying the application
+ * without a disk or a bucket; everything is lost on restart.
+ */
+public class InMemoryStorageBackend implements StorageBackend {
+
+	private record StoredObject(byte[] data, long lastModified) {
+	}
+
+	private final ConcurrentMap<String, StoredObject> objects = new ConcurrentHashMap<>();
+
+	@Override
+	public void write(String key, InputStream in) throws IOException {
+		byte[] data = in.readAllBytes();
+		objects.put(key, new StoredObject(data, System.currentTimeMillis()));
+	}
+
+	@Override
+	public InputStream read(String key, long position, long count) throws IOException {
+		StoredObject object = objects.get(key);
+		if (object == null) throw StorageBackend.notFound(key);
+
+		int offset = (int) Math.min(position, object.data().length);
+		int length = object.data().length - offset;
+		if (count >= 0) length = (int) Math.min(length, count);
+		return new ByteArrayInputStream(object.data(), offset, length);
+	}
+
+	@Override
+	public ObjectInfo stat(String key) {
+		StoredObject object = objects.get(key);
+		return object == null ? null : new ObjectInfo(object.data().length, object.lastModified());
+	}
+
+	@Override
+	public void move(String from, String to) throws IOException {
+		StoredObject object = objects.remove(from);
+		if (object == null) throw StorageBackend.notFound(from);
+		objects.put(to, object);
+	}
+
+	@Override
+	public void delete(String key) {
+		objects.remove(key);
+	}
+
+	public int size() {
+		return objects.size();
+	}
+}
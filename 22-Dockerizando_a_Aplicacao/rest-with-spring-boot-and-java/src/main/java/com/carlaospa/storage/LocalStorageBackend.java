@@ -0,0 +1,169 @@
+package com.carlaospa.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+
+/**
+ * Keeps objects as files under a root directory, one file per key. Writes go
+ * to a hidden temporary file next to the target which is then renamed over
+ * it, so a file is only ever visible complete.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path root;
+
+	public LocalStorageBackend(Path root) {
+		this.root = root.toAbsolutePath().normalize();
+	}
+
+	public Path getRoot() {
+		return root;
+	}
+
+	@Override
+	public void write(String key, InputStream in) throws IOException {
+		Path target = resolve(key);
+		Files.createDirectories(target.getParent());
+		Path tempFile = target.resolveSibling("." + target.getFileName() + "." + UUID.randomUUID() + ".upload");
+
+		boolean moved = false;
+		try {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			try (FileChannel channel = FileChannel.open(tempFile,
+					StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+					while (chunk.hasRemaining()) channel.write(chunk);
+				}
+			}
+			Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			moved = true;
+		} finally {
+			if (!moved) Files.deleteIfExists(tempFile);
+		}
+	}
+
+	/** A rename when source is on the same filesystem, a copy otherwise. */
+	@Override
+	public void writeFile(String key, Path source) throws IOException {
+		Path target = resolve(key);
+		Files.createDirectories(target.getParent());
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			StorageBackend.super.writeFile(key, source);
+		}
+	}
+
+	@Override
+	public InputStream read(String key, long position, long count) throws IOException {
+		FileChannel channel;
+		try {
+			channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+		} catch (NoSuchFileException e) {
+			throw StorageBackend.notFound(key);
+		}
+		try {
+			channel.position(position);
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+		InputStream in = Channels.newInputStream(channel);
+		return count < 0 ? in : new BoundedInputStream(in, count);
+	}
+
+	@Override
+	public ObjectInfo stat(String key) throws IOException {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+			if (!attributes.isRegularFile()) return null;
+			return new ObjectInfo(attributes.size(), attributes.lastModifiedTime().toMillis());
+		} catch (NoSuchFileException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void move(String from, String to) throws IOException {
+		Path target = resolve(to);
+		Files.createDirectories(target.getParent());
+		Files.move(resolve(from), target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Override
+	public void delete(String key) throws IOException {
+		Files.deleteIfExists(resolve(key));
+	}
+
+	@Override
+	public Path localPath(String key) {
+		try {
+			return resolve(key);
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/** Keys may not climb out of the root. */
+	private Path resolve(String key) throws IOException {
+		Path path = root.resolve(key).normalize();
+		if (!path.startsWith(root) || path.equals(root)) {
+			throw new IOException("Key " + key + " is outside the storage location");
+		}
+		return path;
+	}
+
+	private static final class BoundedInputStream extends FilterInputStream {
+
+		private long remaining;
+
+		BoundedInputStream(InputStream in, long count) {
+			super(in);
+			this.remaining = count;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0) return -1;
+			int b = in.read();
+			if (b >= 0) remaining--;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0) return -1;
+			int read = in.read(b, off, (int) Math.min(len, remaining));
+			if (read > 0) remaining -= read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(Math.min(n, remaining));
+			remaining -= skipped;
+			return skipped;
+		}
+
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(in.available(), remaining);
+		}
+	}
+}
@@ -0,0 +1,5 @@
+package com.carlaospa.storage;
+
+/** Size and modification time of an object, as reported by its backend. */
+public record ObjectInfo(long size, long lastModified) {
+}
@@ -0,0 +1,235 @@
+package com.carlaospa.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Keeps objects in an S3 compatible bucket (AWS, MinIO, Ceph, ...), so every
+ * replica of the application sees the same files.
+ *
+ * Objects up to one part are sent with a single PUT. Larger ones use a
+ * multipart upload: the stream is cut into parts on the calling thread and
+ * the parts are sent in parallel on a shared pool, with at most
+ * upload-threads parts buffered per upload, so memory stays bounded by
+ * (upload-threads + 1) * part-size whatever the object size. A failed upload
+ * is aborted, so the bucket never keeps orphaned parts.
+ */
+public class S3StorageBackend implements StorageBackend {
+
+	/** S3 rejects parts below 5 MiB, except the last one. */
+	public static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+	/** Larger objects cannot be copied with a single CopyObject. */
+	private static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+	private final S3Client client;
+	private final String bucket;
+	private final int partSize;
+	private final int uploadThreads;
+	private final ExecutorService executor;
+
+	public S3StorageBackend(S3Client client, String bucket, int partSize, int uploadThreads) {
+		if (partSize < MIN_PART_SIZE) {
+			throw new IllegalArgumentException("The part size must be at least 5MB");
+		}
+		this.client = client;
+		this.bucket = bucket;
+		this.partSize = partSize;
+		this.uploadThreads = Math.max(1, uploadThreads);
+		this.executor = Executors.newFixedThreadPool(this.uploadThreads, new CustomizableThreadFactory("s3-upload-"));
+	}
+
+	@Override
+	public void write(String key, InputStream in) throws IOException {
+		byte[] part = in.readNBytes(partSize);
+		if (part.length < partSize) {
+			client.putObject(builder -> builder.bucket(bucket).key(key).contentLength((long) part.length),
+					RequestBody.fromInputStream(new ByteArrayInputStream(part), part.length));
+			return;
+		}
+
+		String uploadId = client.createMultipartUpload(builder -> builder.bucket(bucket).key(key)).uploadId();
+		List<Future<CompletedPart>> parts = new ArrayList<>();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Semaphore inFlight = new Semaphore(uploadThreads);
+		try {
+			byte[] next = part;
+			while (next.length > 0) {
+				inFlight.acquire();
+				throwIfFailed(failure);
+				parts.add(submitPart(key, uploadId, parts.size() + 1, next, inFlight, failure));
+				next = in.readNBytes(partSize);
+			}
+			complete(key, uploadId, parts);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			abort(key, uploadId, parts);
+			throw new InterruptedIOException("Upload of " + key + " was interrupted");
+		} catch (IOException | RuntimeException | Error e) {
+			abort(key, uploadId, parts);
+			throw e;
+		}
+	}
+
+	private Future<CompletedPart> submitPart(String key, String uploadId, int partNumber, byte[] data,
+			Semaphore inFlight, AtomicReference<Throwable> failure) {
+		return submit(() -> {
+			try {
+				String eTag = client.uploadPart(builder -> builder.bucket(bucket).key(key)
+						.uploadId(uploadId).partNumber(partNumber).contentLength((long) data.length),
+						RequestBody.fromInputStream(new ByteArrayInputStream(data), data.length)).eTag();
+				return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+			} catch (RuntimeException | Error e) {
+				failure.compareAndSet(null, e);
+				throw e;
+			} finally {
+				inFlight.release();
+			}
+		}, inFlight);
+	}
+
+	private <T> Future<T> submit(Callable<T> task, Semaphore inFlight) {
+		try {
+			return executor.submit(task);
+		} catch (RuntimeException e) {
+			inFlight.release();
+			throw e;
+		}
+	}
+
+	private void complete(String key, String uploadId, List<Future<CompletedPart>> parts) throws IOException,
+			InterruptedException {
+		List<CompletedPart> completed = new ArrayList<>(parts.size());
+		for (Future<CompletedPart> part : parts) {
+			try {
+				completed.add(part.get());
+			} catch (ExecutionException e) {
+				throw new IOException("Could not upload a part of " + key, e.getCause());
+			}
+		}
+		client.completeMultipartUpload(builder -> builder.bucket(bucket).key(key).uploadId(uploadId)
+				.multipartUpload(CompletedMultipartUpload.builder().parts(completed).build()));
+	}
+
+	private void abort(String key, String uploadId, List<Future<CompletedPart>> parts) {
+		parts.forEach(part -> part.cancel(true));
+		try {
+			client.abortMultipartUpload(builder -> builder.bucket(bucket).key(key).uploadId(uploadId));
+		} catch (RuntimeException e) {
+			// the bucket lifecycle rule for incomplete uploads cleans up after us
+		}
+	}
+
+	private static void throwIfFailed(AtomicReference<Throwable> failure) throws IOException {
+		Throwable cause = failure.get();
+		if (cause != null) throw new IOException("Could not upload a part", cause);
+	}
+
+	@Override
+	public InputStream read(String key, long position, long count) throws IOException {
+		if (count == 0) return InputStream.nullInputStream();
+
+		GetObjectRequest.Builder request = GetObjectRequest.builder().bucket(bucket).key(key);
+		if (position > 0 || count > 0) {
+			request.range("bytes=" + position + "-" + (count < 0 ? "" : String.valueOf(position + count - 1)));
+		}
+		try {
+			return client.getObject(request.build());
+		} catch (NoSuchKeyException e) {
+			throw StorageBackend.notFound(key);
+		}
+	}
+
+	@Override
+	public ObjectInfo stat(String key) {
+		try {
+			HeadObjectResponse head = client.headObject(builder -> builder.bucket(bucket).key(key));
+			return new ObjectInfo(head.contentLength(), head.lastModified().toEpochMilli());
+		} catch (NoSuchKeyException e) {
+			return null;
+		} catch (S3Exception e) {
+			if (e.statusCode() == 404) return null;
+			throw e;
+		}
+	}
+
+	/** S3 has no rename: the object is copied server side, then the source deleted. */
+	@Override
+	public void move(String from, String to) throws IOException {
+		ObjectInfo source = stat(from);
+		if (source == null) throw StorageBackend.notFound(from);
+
+		if (source.size() <= MAX_COPY_SIZE) {
+			client.copyObject(builder -> builder.sourceBucket(bucket).sourceKey(from)
+					.destinationBucket(bucket).destinationKey(to));
+		} else {
+			copyInParts(from, to, source.size());
+		}
+		delete(from);
+	}
+
+	/** Objects over 5GB are copied with UploadPartCopy, in parallel like uploads. */
+	private void copyInParts(String from, String to, long size) throws IOException {
+		String uploadId = client.createMultipartUpload(builder -> builder.bucket(bucket).key(to)).uploadId();
+		List<Future<CompletedPart>> parts = new ArrayList<>();
+		Semaphore inFlight = new Semaphore(uploadThreads);
+		try {
+			for (long start = 0; start < size; start += partSize) {
+				int partNumber = parts.size() + 1;
+				String range = "bytes=" + start + "-" + (Math.min(start + partSize, size) - 1);
+				inFlight.acquire();
+				parts.add(submit(() -> {
+					try {
+						String eTag = client.uploadPartCopy(builder -> builder.sourceBucket(bucket).sourceKey(from)
+								.destinationBucket(bucket).destinationKey(to).uploadId(uploadId)
+								.partNumber(partNumber).copySourceRange(range)).copyPartResult().eTag();
+						return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+					} finally {
+						inFlight.release();
+					}
+				}, inFlight));
+			}
+			complete(to, uploadId, parts);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			abort(to, uploadId, parts);
+			throw new InterruptedIOException("Copy of " + from + " was interrupted");
+		} catch (IOException | RuntimeException | Error e) {
+			abort(to, uploadId, parts);
+			throw e;
+		}
+	}
+
+	@Override
+	public void delete(String key) {
+		client.deleteObject(builder -> builder.bucket(bucket).key(key));
+	}
+
+	@Override
+	public void close() {
+		executor.shutdown();
+		client.close();
+	}
+}
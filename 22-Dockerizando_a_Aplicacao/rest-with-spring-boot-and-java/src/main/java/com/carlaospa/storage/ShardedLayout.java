@@ -0,0 +1,121 @@
+package com.carlaospa.storage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Where a named file lives in the upload directory. With zero levels files
+ * sit directly under the root, as they always have. With n levels they live
+ * under .shards/ab/cd/... where each level is the next byte of the SHA-256 of
+ * the name, so no directory grows past 256 entries per level. Reads look in
+ * both places while flat files are being migrated.
+ *
+ * The same names are used as keys for non local storage backends, where
+ * they keep listings by prefix cheap.
+ */
+public final class ShardedLayout {
+
+	private static final String SHARDS_DIR = ".shards";
+
+	private final Path root;
+	private final int levels;
+
+	public ShardedLayout(Path root, int levels) {
+		if (levels < 0 || levels > 4) {
+			throw new IllegalArgumentException("Shard levels must be between 0 and 4");
+		}
+		this.root = root;
+		this.levels = levels;
+	}
+
+	public boolean isSharded() {
+		return levels > 0;
+	}
+
+	public Path getRoot() {
+		return root;
+	}
+
+	public Path flatPath(String filename) {
+		return root.resolve(filename).normalize();
+	}
+
+	public Path shardedPath(String filename) {
+		return root.resolve(shardedKey(filename)).normalize();
+	}
+
+	/** Where a new version of the file is written. */
+	public Path targetPath(String filename) {
+		return isSharded() ? shardedPath(filename) : flatPath(filename);
+	}
+
+	public String flatKey(String filename) {
+		return filename;
+	}
+
+	public String shardedKey(String filename) {
+		return shardedKey(SHARDS_DIR, filename);
+	}
+
+	/** The key of a name under another internal directory, sharded the same way. */
+	public String shardedKey(String dir, String filename) {
+		String hash = hash(filename);
+		StringBuilder key = new StringBuilder(dir);
+		for (int level = 0; level < levels; level++) {
+			key.append('/').append(hash, level * 2, level * 2 + 2);
+		}
+		return key.append('/').append(filename).toString();
+	}
+
+	public String targetKey(String filename) {
+		return isSharded() ? shardedKey(filename) : flatKey(filename);
+	}
+
+	/**
+	 * Moves one flat file into its shard. The hard link fails if a sharded
+	 * copy already exists, in which case that copy is newer and the flat one
+	 * is simply dropped; this way the migration never overwrites an upload
+	 * that raced with it.
+	 */
+	public boolean migrate(Path flatFile) throws IOException {
+		String filename = root.relativize(flatFile).toString();
+		Path target = shardedPath(filename);
+		Files.createDirectories(target.getParent());
+		try {
+			Files.createLink(target, flatFile);
+			Files.delete(flatFile);
+			return true;
+		} catch (FileAlreadyExistsException e) {
+			Files.deleteIfExists(flatFile);
+			return false;
+		} catch (UnsupportedOperationException e) {
+			if (Files.exists(target)) {
+				Files.deleteIfExists(flatFile);
+				return false;
+			}
+			Files.move(flatFile, target, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		}
+	}
+
+	/** Internal directories (.shards, .blobs, .uploads, ...) are never user files. */
+	public static boolean isInternal(Path path) {
+		return path.getFileName().toString().startsWith(".");
+	}
+
+	private static String hash(String filename) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+					.digest(filename.getBytes(StandardCharsets.UTF_8)));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
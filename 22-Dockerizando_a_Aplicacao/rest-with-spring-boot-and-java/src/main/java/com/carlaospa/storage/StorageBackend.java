@@ -0,0 +1,65 @@
+package com.carlaospa.storage;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Where the bytes of stored files live. Keys are relative, slash separated
+ * names such as "report.csv" or ".blobs/ab/cd/abcd..."; how names map to
+ * keys (sharding, content addressing) is up to FileStorageService.
+ *
+ * Writes are all or nothing: readers see either the previous object or the
+ * complete new one, and a write that fails leaves nothing behind. Reading a
+ * missing key throws FileNotFoundException.
+ */
+public interface StorageBackend extends AutoCloseable {
+
+	/** Streams in to key, replacing any object already stored there. */
+	void write(String key, InputStream in) throws IOException;
+
+	/**
+	 * Stores a finished local file under key. The source is consumed: it is
+	 * moved when the backend can, otherwise streamed and then deleted.
+	 */
+	default void writeFile(String key, Path source) throws IOException {
+		try (InputStream in = Files.newInputStream(source)) {
+			write(key, in);
+		}
+		Files.delete(source);
+	}
+
+	/** count bytes starting at position, or up to the end when count is negative. */
+	InputStream read(String key, long position, long count) throws IOException;
+
+	default InputStream read(String key) throws IOException {
+		return read(key, 0, -1);
+	}
+
+	/** The size and modification time of key, or null when it does not exist. */
+	ObjectInfo stat(String key) throws IOException;
+
+	/** Renames from to to, replacing to when it exists. */
+	void move(String from, String to) throws IOException;
+
+	/** Removes key; removing a missing key is not an error. */
+	void delete(String key) throws IOException;
+
+	/**
+	 * The file holding key when the backend keeps objects on the local
+	 * filesystem, so downloads can use sendfile; null otherwise.
+	 */
+	default Path localPath(String key) {
+		return null;
+	}
+
+	@Override
+	default void close() throws IOException {
+	}
+
+	static FileNotFoundException notFound(String key) {
+		return new FileNotFoundException("No object stored under " + key);
+	}
+}
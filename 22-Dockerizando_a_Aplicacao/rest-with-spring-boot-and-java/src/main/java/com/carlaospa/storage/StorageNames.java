@@ -0,0 +1,20 @@
+package com.carlaospa.storage;
+
+/**
+ * The rule for names clients may store or read. The storage keeps its own
+ * objects under dot directories (.names, .blobs, .uploads, .gzip, .zstd) in
+ * the same namespace, and with shard-levels 0 a name is used as its key
+ * as is, so a client name must be a single segment that does not start with
+ * a dot: no separators of either kind, no hidden or relative names.
+ */
+public final class StorageNames {
+
+	private StorageNames() {
+	}
+
+	public static boolean isValid(String name) {
+		return name != null && !name.isBlank()
+				&& name.indexOf('/') < 0 && name.indexOf('\\') < 0 && name.indexOf('\0') < 0
+				&& !name.startsWith(".");
+	}
+}
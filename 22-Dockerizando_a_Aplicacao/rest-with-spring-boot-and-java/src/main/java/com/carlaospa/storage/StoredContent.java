@@ -0,0 +1,13 @@
+package com.carlaospa.storage;
+
+/**
+ * Outcome of writing an upload: the stored name, the number of bytes written
+ * and the hex SHA-256 of those bytes, all computed in the same pass. When the
+ * file was compressed at rest, storedSize is what it takes on disk.
+ */
+public record StoredContent(String filename, long size, String checksum, long storedSize, ContentEncoding encoding) {
+
+	public StoredContent(String filename, long size, String checksum) {
+		this(filename, size, checksum, size, null);
+	}
+}
@@ -0,0 +1,32 @@
+package com.carlaospa.storage;
+
+import java.nio.file.Path;
+
+/**
+ * A file resolved in the storage backend, with the attributes read once
+ * when it was resolved. The path is only set when the backend keeps the file
+ * on the local filesystem. Content addressed files carry their SHA-256, which
+ * is used as a strong ETag; otherwise the ETag is derived from size and
+ * modification time, so it changes whenever the file is rewritten.
+ *
+ * A file compressed at rest has its encoding set; size and path then refer
+ * to the compressed bytes.
+ */
+public record StoredFile(String filename, String key, Path path, long size, long lastModified, String checksum,
+		ContentEncoding encoding) {
+
+	public StoredFile(String filename, Path path, long size, long lastModified) {
+		this(filename, filename, path, size, lastModified, null, null);
+	}
+
+	public String etag() {
+		if (checksum != null) return "\"" + checksum + "\"";
+		return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+	}
+
+	/** The ETag of the compressed representation, distinct from the decoded one. */
+	public String encodedEtag() {
+		String etag = etag();
+		return etag.substring(0, etag.length() - 1) + "-" + encoding.token() + "\"";
+	}
+}
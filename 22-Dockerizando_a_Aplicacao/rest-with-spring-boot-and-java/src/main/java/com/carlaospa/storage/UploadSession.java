@@ -0,0 +1,76 @@
+package com.carlaospa.storage;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A resumable upload in progress. Chunks may arrive in any order, so the
+ * received bytes are tracked as merged [start, end) ranges; the offset a
+ * client should resume from is the end of the range starting at zero.
+ */
+public class UploadSession {
+
+	private final String id;
+	private final String filename;
+	private final long length;
+	private final Path directory;
+
+	private final TreeMap<Long, Long> received = new TreeMap<>();
+
+	public UploadSession(String id, String filename, long length, Path directory) {
+		this.id = id;
+		this.filename = filename;
+		this.length = length;
+		this.directory = directory;
+	}
+
+	public synchronized void addRange(long start, long end) {
+		if (end <= start) return;
+
+		Map.Entry<Long, Long> before = received.floorEntry(start);
+		if (before != null && before.getValue() >= start) {
+			start = before.getKey();
+			end = Math.max(end, before.getValue());
+		}
+		Map.Entry<Long, Long> next;
+		while ((next = received.ceilingEntry(start)) != null && next.getKey() <= end) {
+			end = Math.max(end, next.getValue());
+			received.remove(next.getKey());
+		}
+		received.put(start, end);
+	}
+
+	public synchronized long getOffset() {
+		Long end = received.get(0L);
+		return end == null ? 0 : end;
+	}
+
+	public synchronized long getReceived() {
+		long total = 0;
+		for (var range : received.entrySet()) {
+			total += range.getValue() - range.getKey();
+		}
+		return total;
+	}
+
+	public boolean isComplete() {
+		return getOffset() >= length;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public String getFilename() {
+		return filename;
+	}
+
+	public long getLength() {
+		return length;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+}
@@ -0,0 +1,50 @@
+package com.carlaospa.util;
+
+import java.util.Enumeration;
+import java.util.Locale;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/** Reads Accept-Encoding, including q values and the * wildcard. */
+public final class AcceptEncoding {
+
+	private AcceptEncoding() {
+	}
+
+	/**
+	 * The q value the request gives a coding, by name or through *; 0 when
+	 * it is not acceptable. An explicit entry wins over the wildcard.
+	 */
+	public static double quality(HttpServletRequest request, String coding) {
+		Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+		if (headers == null) return 0;
+
+		double wildcard = 0;
+		while (headers.hasMoreElements()) {
+			for (String value : headers.nextElement().split(",")) {
+				String[] parts = value.split(";");
+				String name = parts[0].trim().toLowerCase(Locale.ROOT);
+				double q = 1;
+				for (int i = 1; i < parts.length; i++) {
+					String param = parts[i].trim();
+					if (param.startsWith("q=")) {
+						try {
+							q = Double.parseDouble(param.substring(2));
+						} catch (NumberFormatException e) {
+							q = 0;
+						}
+					}
+				}
+				if (name.equals(coding)) return q;
+				if (name.equals("*")) wildcard = q;
+			}
+		}
+		return wildcard;
+	}
+
+	public static boolean accepts(HttpServletRequest request, String coding) {
+		return quality(request, coding) > 0;
+	}
+}
@@ -0,0 +1,83 @@
+package com.carlaospa.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.carlaospa.exception.PreconditionFailedException;
+
+/**
+ * ETags derived from the @Version column. A single resource gets the strong
+ * tag "version"; a page gets a weak tag over its position, its total and
+ * the id and version of every row on it, so any update, insert or delete
+ * that shows on the page changes the tag. The max version alone would not:
+ * versions count per row, not across the table.
+ */
+public final class ETags {
+
+	private ETags() {
+	}
+
+	public static String of(Long version) {
+		return "\"" + (version == null ? 0 : version) + "\"";
+	}
+
+	public static <T> String page(Page<T> page, Function<T, Long> id, Function<T, Long> version) {
+		var digest = new StringBuilder()
+				.append(page.getNumber()).append(':')
+				.append(page.getSize()).append(':')
+				.append(page.getSort()).append(':')
+				.append(page.getTotalElements());
+		for (T row : page) {
+			digest.append(':').append(id.apply(row)).append('.').append(version.apply(row));
+		}
+		return "W/\"" + DigestUtils.md5DigestAsHex(digest.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+	}
+
+	/** Weak comparison, as If-None-Match asks for. */
+	public static boolean matches(String ifNoneMatch, String etag) {
+		if (ifNoneMatch == null || etag == null) return false;
+		String opaque = opaque(etag);
+		for (String candidate : ifNoneMatch.split(",")) {
+			String tag = candidate.trim();
+			if (tag.equals("*") || opaque(tag).equals(opaque)) return true;
+		}
+		return false;
+	}
+
+	/** Whether the current request's If-None-Match already has the tag. */
+	public static boolean notModified(String etag) {
+		var attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+		return attributes != null && matches(attributes.getRequest().getHeader(HttpHeaders.IF_NONE_MATCH), etag);
+	}
+
+	/**
+	 * The version the current request's If-Match expects, or null when it
+	 * sets no condition. Only a single strong tag can name a version; weak
+	 * tags never pass the strong comparison If-Match asks for.
+	 */
+	public static Long expectedVersion() {
+		var attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+		String ifMatch = attributes == null ? null : attributes.getRequest().getHeader(HttpHeaders.IF_MATCH);
+		if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/") || tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+			throw new PreconditionFailedException("If-Match must be a single strong ETag!");
+		}
+		try {
+			return Long.valueOf(tag.substring(1, tag.length() - 1));
+		} catch (NumberFormatException e) {
+			throw new PreconditionFailedException("Unknown ETag " + tag + "!");
+		}
+	}
+
+	private static String opaque(String tag) {
+		return tag.startsWith("W/") ? tag.substring(2) : tag;
+	}
+}
@@ -0,0 +1,68 @@
+package com.carlaospa.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.carlaospa.exception.InvalidCursorException;
+
+/**
+ * Opaque keyset cursor for person listings. Holds the last seen
+ * (firstName, id) pair and whether the client is paging forward or back.
+ */
+public final class PersonCursor {
+
+	private static final char SEPARATOR = '\u0000';
+
+	private final String firstName;
+	private final Long id;
+	private final boolean backward;
+
+	public PersonCursor(String firstName, Long id, boolean backward) {
+		this.firstName = firstName;
+		this.id = id;
+		this.backward = backward;
+	}
+
+	public static PersonCursor after(String firstName, Long id) {
+		return new PersonCursor(firstName, id, false);
+	}
+
+	public static PersonCursor before(String firstName, Long id) {
+		return new PersonCursor(firstName, id, true);
+	}
+
+	public String encode() {
+		String raw = (backward ? "b" : "a") + id + SEPARATOR + firstName;
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static PersonCursor decode(String token) {
+		try {
+			String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = raw.indexOf(SEPARATOR);
+			char mode = raw.charAt(0);
+			if (separator < 2 || (mode != 'a' && mode != 'b')) {
+				throw new InvalidCursorException("Invalid cursor " + token);
+			}
+			Long id = Long.valueOf(raw.substring(1, separator));
+			return new PersonCursor(raw.substring(separator + 1), id, mode == 'b');
+		} catch (InvalidCursorException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new InvalidCursorException("Invalid cursor " + token);
+		}
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public boolean isBackward() {
+		return backward;
+	}
+}
@@ -0,0 +1,75 @@
+package com.carlaospa.util;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.hateoas.Link;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriTemplate;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Builds self links for a single-id controller method without going through
+ * linkTo(methodOn(...)). The method's URI template is resolved once from its
+ * mappings; the base URI is resolved once per request; each link is then just
+ * base + prefix + id + suffix.
+ */
+public final class SelfLinkFactory {
+
+	private static final String BASE_URI_ATTRIBUTE = SelfLinkFactory.class.getName() + ".BASE_URI";
+
+	private final String prefix;
+	private final String suffix;
+
+	private SelfLinkFactory(String path) {
+		var variables = new UriTemplate(path).getVariableNames();
+		if (variables.size() != 1) {
+			throw new IllegalArgumentException("Expected a single path variable in " + path);
+		}
+		// {name} or {name:regex}
+		int index = path.indexOf("{" + variables.get(0));
+		int end = path.lastIndexOf('}');
+		if (index < 0 || end < index) {
+			throw new IllegalArgumentException("Unsupported path variable syntax in " + path);
+		}
+		this.prefix = path.substring(0, index);
+		this.suffix = path.substring(end + 1);
+	}
+
+	public static SelfLinkFactory of(Class<?> controller, String methodName, Class<?>... parameterTypes) {
+		Method method = ReflectionUtils.findMethod(controller, methodName, parameterTypes);
+		if (method == null) {
+			throw new IllegalArgumentException("No method " + methodName + " on " + controller.getName());
+		}
+		return new SelfLinkFactory(firstPath(AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class))
+				+ firstPath(AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class)));
+	}
+
+	public Link selfLink(Object id) {
+		Object segment = (id instanceof String value) ? UriUtils.encodePathSegment(value, StandardCharsets.UTF_8) : id;
+		return Link.of(baseUri() + prefix + segment + suffix).withSelfRel();
+	}
+
+	/** Same base linkTo would use; relative when there is no current request. */
+	private static String baseUri() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) return "";
+
+		Object cached = attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+		if (cached != null) return (String) cached;
+
+		String base = ServletUriComponentsBuilder.fromCurrentServletMapping().build().toUriString();
+		if (base.endsWith("/")) base = base.substring(0, base.length() - 1);
+		attributes.setAttribute(BASE_URI_ATTRIBUTE, base, RequestAttributes.SCOPE_REQUEST);
+		return base;
+	}
+
+	private static String firstPath(RequestMapping mapping) {
+		return (mapping == null || mapping.path().length == 0) ? "" : mapping.path()[0];
+	}
+}
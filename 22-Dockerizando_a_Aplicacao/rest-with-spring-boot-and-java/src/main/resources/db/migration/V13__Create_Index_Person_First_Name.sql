@@ -0,0 +1,2 @@
+ALTER TABLE `person`
+	ADD INDEX `idx_person_first_name_id` (`first_name`, `id`);
\ No newline at end of file
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS `file_metadata` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `name` varchar(255) NOT NULL,
+  `size` bigint NOT NULL,
+  `content_type` varchar(150) DEFAULT NULL,
+  `checksum` char(64) DEFAULT NULL,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_file_metadata_name` (`name`),
+  KEY `idx_file_metadata_content_type_name` (`content_type`, `name`),
+  KEY `idx_file_metadata_checksum` (`checksum`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
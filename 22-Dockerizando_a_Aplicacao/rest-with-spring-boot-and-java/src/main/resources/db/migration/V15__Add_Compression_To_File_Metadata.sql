@@ -0,0 +1,3 @@
+ALTER TABLE `file_metadata`
+  ADD COLUMN `stored_size` bigint DEFAULT NULL AFTER `checksum`,
+  ADD COLUMN `content_encoding` varchar(16) DEFAULT NULL AFTER `stored_size`;
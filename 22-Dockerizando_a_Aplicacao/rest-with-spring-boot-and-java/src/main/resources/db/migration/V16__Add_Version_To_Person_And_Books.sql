@@ -0,0 +1,7 @@
+ALTER TABLE `person`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0,
+  ADD COLUMN `updated_at` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+ALTER TABLE `books`
+  ADD COLUMN `version` bigint NOT NULL DEFAULT 0,
+  ADD COLUMN `updated_at` datetime(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
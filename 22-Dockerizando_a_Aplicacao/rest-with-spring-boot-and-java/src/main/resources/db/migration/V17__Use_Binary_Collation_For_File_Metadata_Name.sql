@@ -0,0 +1,2 @@
+ALTER TABLE `file_metadata`
+  MODIFY COLUMN `name` varchar(255) CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL;
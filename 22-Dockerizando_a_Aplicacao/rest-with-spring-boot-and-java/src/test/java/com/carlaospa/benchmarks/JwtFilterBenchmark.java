@@ -0,0 +1,95 @@
+package com.carlaospa.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.carlaospa.security.jwt.JwtTokenFilter;
+import com.carlaospa.security.jwt.JwtTokenProvider;
+
+/**
+ * JwtTokenFilter path for one authenticated request: the old provider
+ * behaviour (a fresh HMAC256 verifier for validateToken and again for
+ * getAuthentication) against the shared verifier with a single decode, with
+ * and without the verified token cache. Authentication is built from the
+ * roles claim so no user lookup is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+	@Param({"0", "1024"})
+	public int verifiedCacheSize;
+
+	private JwtTokenProvider provider;
+	private JwtTokenFilter filter;
+	private String token;
+	private String encodedSecret;
+	private MockHttpServletRequest request;
+
+	@Setup
+	public void setup() {
+		request = new MockHttpServletRequest("GET", "/api/person/v1");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		provider = new JwtTokenProvider();
+		ReflectionTestUtils.setField(provider, "secretKey", "53cr37");
+		ReflectionTestUtils.setField(provider, "stateless", true);
+		ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+		ReflectionTestUtils.invokeMethod(provider, "init");
+		encodedSecret = (String) ReflectionTestUtils.getField(provider, "secretKey");
+		filter = new JwtTokenFilter(provider);
+
+		token = provider.createAccessToken("leandro", List.of("ADMIN", "MANAGER")).getAccessToken();
+		request.addHeader("Authorization", "Bearer " + token);
+	}
+
+	@Benchmark
+	public Authentication legacyDoubleDecode() {
+		DecodedJWT validated = JWT.require(Algorithm.HMAC256(encodedSecret.getBytes())).build().verify(token);
+		if (validated.getExpiresAt() == null) return null;
+		DecodedJWT decodedJWT = JWT.require(Algorithm.HMAC256(encodedSecret.getBytes())).build().verify(token);
+		return provider.getAuthentication(decodedJWT);
+	}
+
+	@Benchmark
+	public Authentication filter() throws Exception {
+		SecurityContextHolder.clearContext();
+		filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		return SecurityContextHolder.getContext().getAuthentication();
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(JwtFilterBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,103 @@
+package com.carlaospa.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.carlaospa.data.vo.v1.BookVO;
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.mapper.DozerMapper;
+import com.carlaospa.mapper.custom.BookMapper;
+import com.carlaospa.mapper.custom.PersonMapper;
+import com.carlaospa.model.Book;
+import com.carlaospa.model.Person;
+
+/**
+ * Reflective Dozer mapping against the hand written mappers, for a single
+ * entity and for a 12 item page (the PersonController default size).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapperBenchmark {
+
+	private Person person;
+	private Book book;
+	private List<Person> page;
+
+	@Setup
+	public void setup() {
+		page = new ArrayList<>();
+		for (int i = 0; i < 12; i++) {
+			var p = new Person();
+			p.setId((long) i);
+			p.setFirstName("First Name " + i);
+			p.setLastName("Last Name " + i);
+			p.setAddress("Address " + i);
+			p.setGender((i % 2 == 0) ? "Male" : "Female");
+			p.setEnabled(true);
+			page.add(p);
+		}
+		person = page.get(0);
+
+		book = new Book();
+		book.setId(1L);
+		book.setAuthor("Some Author");
+		book.setLaunchDate(new Date());
+		book.setPrice(25D);
+		book.setTitle("Some Title");
+	}
+
+	@Benchmark
+	public PersonVO personDozer() {
+		return DozerMapper.parseObject(person, PersonVO.class);
+	}
+
+	@Benchmark
+	public PersonVO personCustom() {
+		return PersonMapper.convertEntityToVo(person);
+	}
+
+	@Benchmark
+	public List<PersonVO> personPageDozer() {
+		return DozerMapper.parseListObjects(page, PersonVO.class);
+	}
+
+	@Benchmark
+	public List<PersonVO> personPageCustom() {
+		return PersonMapper.convertEntitiesToVos(page);
+	}
+
+	@Benchmark
+	public BookVO bookDozer() {
+		return DozerMapper.parseObject(book, BookVO.class);
+	}
+
+	@Benchmark
+	public BookVO bookCustom() {
+		return BookMapper.convertEntityToVo(book);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(MapperBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,147 @@
+package com.carlaospa.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.MySQLContainer;
+
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.mapper.custom.PersonMapper;
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Rows per second written by the path PersonServices.create takes per request
+ * (VO to entity mapping, a JPA persist and one commit per person) against the
+ * bulk path (JDBC batches rewritten into multi-row INSERTs, one commit per
+ * chunk). HTTP overhead, the name index and the caches are left out of both
+ * sides. Needs Docker for the MySQL container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PersonBulkInsertBenchmark {
+
+	private static final String INSERT_SQL =
+			"INSERT INTO person (first_name, last_name, address, gender, enabled) VALUES (?, ?, ?, ?, ?)";
+
+	@Param({ "1000" })
+	int rowsPerOperation;
+
+	@Param({ "100", "1000" })
+	int chunkSize;
+
+	private MySQLContainer<?> mysql;
+	private HikariDataSource dataSource;
+	private EntityManagerFactory entityManagerFactory;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		mysql = new MySQLContainer<>("mysql:8.0.30-oracle");
+		mysql.start();
+
+		dataSource = new HikariDataSource();
+		dataSource.setJdbcUrl(mysql.getJdbcUrl());
+		dataSource.setUsername(mysql.getUsername());
+		dataSource.setPassword(mysql.getPassword());
+		dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+
+		Flyway.configure().dataSource(dataSource).load().migrate();
+
+		var factory = new LocalContainerEntityManagerFactoryBean();
+		factory.setDataSource(dataSource);
+		factory.setPackagesToScan("com.carlaospa.model");
+		factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+		factory.setJpaPropertyMap(Map.of("hibernate.cache.use_second_level_cache", "false"));
+		factory.afterPropertiesSet();
+		entityManagerFactory = factory.getObject();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		entityManagerFactory.close();
+		dataSource.close();
+		mysql.stop();
+	}
+
+	@Benchmark
+	public void jpaCreates() {
+		for (int i = 0; i < rowsPerOperation; i++) {
+			EntityManager entityManager = entityManagerFactory.createEntityManager();
+			try {
+				entityManager.getTransaction().begin();
+				entityManager.persist(PersonMapper.convertVoToEntity(person(i)));
+				entityManager.getTransaction().commit();
+			} finally {
+				entityManager.close();
+			}
+		}
+	}
+
+	@Benchmark
+	public void bulkChunkedInserts() throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+			connection.setAutoCommit(false);
+			for (int i = 0; i < rowsPerOperation; i++) {
+				bind(statement, i);
+				statement.addBatch();
+				if ((i + 1) % chunkSize == 0 || i + 1 == rowsPerOperation) {
+					statement.executeBatch();
+					connection.commit();
+				}
+			}
+			connection.setAutoCommit(true);
+		}
+	}
+
+	private PersonVO person(int i) {
+		var person = new PersonVO();
+		person.setFirstName("First Name " + i);
+		person.setLastName("Last Name " + i);
+		person.setAddress("Address " + i);
+		person.setGender((i % 2 == 0) ? "Male" : "Female");
+		person.setEnabled(true);
+		return person;
+	}
+
+	private void bind(PreparedStatement statement, int i) throws SQLException {
+		statement.setString(1, "First Name " + i);
+		statement.setString(2, "Last Name " + i);
+		statement.setString(3, "Address " + i);
+		statement.setString(4, (i % 2 == 0) ? "Male" : "Female");
+		statement.setBoolean(5, true);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(PersonBulkInsertBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
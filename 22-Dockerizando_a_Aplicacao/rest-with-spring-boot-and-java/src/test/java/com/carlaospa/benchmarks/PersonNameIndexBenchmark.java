@@ -0,0 +1,86 @@
+package com.carlaospa.benchmarks;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.carlaospa.search.TrigramIndex;
+
+/**
+ * Trigram index lookup against the work a leading-wildcard LIKE does: a
+ * lowercase "contains" over every first name. The scan side leaves out the
+ * MySQL I/O, so it is a lower bound for the current path.
+ *
+ * Run with: java -cp target/test-classes:<test classpath> com.carlaospa.benchmarks.PersonNameIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PersonNameIndexBenchmark {
+
+	private static final String[] SYLLABLES = {
+			"al", "an", "ar", "be", "ca", "da", "el", "en", "fe", "go", "ha", "is",
+			"jo", "ka", "la", "ma", "ni", "or", "pe", "ra", "sa", "te", "va", "ze" };
+
+	@Param({ "1000000" })
+	int rows;
+
+	@Param({ "ara", "mani", "zeva" })
+	String query;
+
+	private String[] firstNames;
+	private TrigramIndex index;
+
+	@Setup
+	public void setup() {
+		var random = new Random(42);
+		firstNames = new String[rows];
+		index = new TrigramIndex();
+		for (int i = 0; i < rows; i++) {
+			var name = new StringBuilder();
+			int syllables = 2 + random.nextInt(3);
+			for (int s = 0; s < syllables; s++) name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+			name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+			firstNames[i] = name.toString();
+			index.put(i + 1, firstNames[i]);
+		}
+	}
+
+	@Benchmark
+	public long[] trigramIndex() {
+		return index.search(query);
+	}
+
+	@Benchmark
+	public int likeScan() {
+		String needle = query.toLowerCase(Locale.ROOT);
+		int matches = 0;
+		for (String name : firstNames) {
+			if (name.toLowerCase(Locale.ROOT).contains(needle)) matches++;
+		}
+		return matches;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(PersonNameIndexBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
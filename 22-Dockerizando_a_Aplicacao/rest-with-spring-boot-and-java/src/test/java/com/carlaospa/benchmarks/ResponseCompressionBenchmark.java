@@ -0,0 +1,137 @@
+package com.carlaospa.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.carlaospa.compression.DeflaterPool;
+import com.carlaospa.compression.ResponseCompressionFilter;
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Latency and bytes on the wire of a 100 person page in each negotiated
+ * format, sent as identity, gzip on a fresh or a pooled deflater, and brotli.
+ * SampleTime reports the p99 next to the mean; the body size of each
+ * combination is printed at the end of its trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCompressionBenchmark {
+
+	private static final int PAGE_SIZE = 100;
+
+	@Param({ "application/json", "application/xml", "application/x-yaml" })
+	public String format;
+
+	@Param({ "identity", "gzip", "br" })
+	public String coding;
+
+	@Param({ "0", "64" })
+	public int deflaterPoolSize;
+
+	private byte[] payload;
+	private ResponseCompressionFilter filter;
+	private HttpServlet servlet;
+	private int wireBytes;
+
+	@Setup
+	public void setup() throws Exception {
+		List<PersonVO> people = new ArrayList<>(PAGE_SIZE);
+		for (long id = 1; id <= PAGE_SIZE; id++) {
+			var person = new PersonVO();
+			person.setKey(id);
+			person.setFirstName("First Name " + id);
+			person.setLastName("Last Name " + id);
+			person.setAddress("Address " + id + ", Some City - Some State");
+			person.setGender(id % 2 == 0 ? "Male" : "Female");
+			person.setEnabled(true);
+			person.add(Link.of("http://localhost:8080/api/person/v1/" + id).withSelfRel());
+			people.add(person);
+		}
+		var page = PagedModel.of(people, new PageMetadata(PAGE_SIZE, 0, 1000),
+				Link.of("http://localhost:8080/api/person/v1?page=0&size=100&direction=asc").withSelfRel());
+
+		ObjectMapper mapper = switch (format) {
+			case "application/xml" -> new XmlMapper();
+			case "application/x-yaml" -> new YAMLMapper();
+			default -> new ObjectMapper();
+		};
+		payload = mapper.writeValueAsBytes(page);
+
+		List<MediaType> types = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML,
+				MediaType.valueOf("application/x-yaml"));
+		filter = new ResponseCompressionFilter(types, 1024, new DeflaterPool(6, deflaterPoolSize), true, 4);
+
+		servlet = new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response)
+					throws IOException {
+				response.setContentType(format);
+				response.setContentLength(payload.length);
+				response.getOutputStream().write(payload);
+				response.getOutputStream().flush();
+			}
+		};
+	}
+
+	@Benchmark
+	public byte[] page() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/api/person/v1");
+		if (!"identity".equals(coding)) request.addHeader("Accept-Encoding", coding);
+		var response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain(servlet));
+		byte[] body = response.getContentAsByteArray();
+		wireBytes = body.length;
+		return body;
+	}
+
+	@TearDown(Level.Trial)
+	public void report() {
+		filter.close();
+		System.out.printf("%n%s as %s (pool %d): %d of %d bytes on the wire%n",
+				format, coding, deflaterPoolSize, wireBytes, payload.length);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(ResponseCompressionBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
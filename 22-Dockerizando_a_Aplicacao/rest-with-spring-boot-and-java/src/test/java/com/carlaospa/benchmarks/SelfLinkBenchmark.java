@@ -0,0 +1,79 @@
+package com.carlaospa.benchmarks;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.carlaospa.controllers.PersonController;
+import com.carlaospa.util.SelfLinkFactory;
+
+/**
+ * Cost of the self links of a 100 item page: linkTo(methodOn(...)) per item
+ * against the cached template of SelfLinkFactory. Each invocation runs in a
+ * fresh request, so the factory pays its per-request base URI lookup too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelfLinkBenchmark {
+
+	private static final int PAGE_SIZE = 100;
+
+	private final SelfLinkFactory factory = SelfLinkFactory.of(PersonController.class, "findById", Long.class);
+
+	@Setup(Level.Invocation)
+	public void newRequest() {
+		var request = new MockHttpServletRequest("GET", "/api/person/v1");
+		request.setServerName("localhost");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	@Benchmark
+	public List<Link> linkToMethodOn() throws Exception {
+		List<Link> links = new ArrayList<>(PAGE_SIZE);
+		for (long id = 1; id <= PAGE_SIZE; id++) {
+			links.add(linkTo(methodOn(PersonController.class).findById(id)).withSelfRel());
+		}
+		return links;
+	}
+
+	@Benchmark
+	public List<Link> selfLinkFactory() {
+		List<Link> links = new ArrayList<>(PAGE_SIZE);
+		for (long id = 1; id <= PAGE_SIZE; id++) {
+			links.add(factory.selfLink(id));
+		}
+		return links;
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(SelfLinkBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,113 @@
+package com.carlaospa.benchmarks;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.serialization.converter.CborJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.MessagePackJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.SmileJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.YamlJackson2HttpMessageConverter;
+
+/**
+ * Write and read throughput of a 100 person page through the message
+ * converter of each negotiated format. The payload size of each format is
+ * printed at the end of its trial.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+	private static final int PAGE_SIZE = 100;
+
+	private static final Type PAGE_TYPE = new ParameterizedTypeReference<List<PersonVO>>() {
+	}.getType();
+
+	@Param({ "json", "xml", "yaml", "cbor", "smile", "msgpack" })
+	public String format;
+
+	private AbstractJackson2HttpMessageConverter converter;
+	private MediaType mediaType;
+	private List<PersonVO> page;
+	private byte[] payload;
+
+	@Setup
+	public void setup() throws Exception {
+		converter = switch (format) {
+			case "xml" -> new MappingJackson2XmlHttpMessageConverter();
+			case "yaml" -> new YamlJackson2HttpMessageConverter();
+			case "cbor" -> new CborJackson2HttpMessageConverter();
+			case "smile" -> new SmileJackson2HttpMessageConverter();
+			case "msgpack" -> new MessagePackJackson2HttpMessageConverter();
+			default -> new MappingJackson2HttpMessageConverter();
+		};
+		mediaType = converter.getSupportedMediaTypes().get(0);
+
+		page = new ArrayList<>(PAGE_SIZE);
+		for (long id = 1; id <= PAGE_SIZE; id++) {
+			var person = new PersonVO();
+			person.setKey(id);
+			person.setFirstName("First Name " + id);
+			person.setLastName("Last Name " + id);
+			person.setAddress("Address " + id + ", Some City - Some State");
+			person.setGender(id % 2 == 0 ? "Male" : "Female");
+			person.setEnabled(true);
+			page.add(person);
+		}
+		payload = write();
+	}
+
+	@Benchmark
+	public byte[] write() throws Exception {
+		var output = new MockHttpOutputMessage();
+		converter.write(page, PAGE_TYPE, mediaType, output);
+		return output.getBodyAsBytes();
+	}
+
+	@Benchmark
+	public Object read() throws Exception {
+		var input = new MockHttpInputMessage(payload);
+		input.getHeaders().setContentType(mediaType);
+		return converter.read(PAGE_TYPE, null, input);
+	}
+
+	@TearDown(Level.Trial)
+	public void report() {
+		System.out.printf("%n%s: %d bytes for %d people%n", format, payload.length, PAGE_SIZE);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(SerializationBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
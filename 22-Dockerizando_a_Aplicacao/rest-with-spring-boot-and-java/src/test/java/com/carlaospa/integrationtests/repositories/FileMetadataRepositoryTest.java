@@ -0,0 +1,56 @@
+package com.carlaospa.integrationtests.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import com.carlaospa.integrationtestcontainers.AbstractIntegrationTest;
+import com.carlaospa.model.FileMetadata;
+import com.carlaospa.repository.FileMetadataRepository;
+
+@ExtendWith(SpringExtension.class)
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class FileMetadataRepositoryTest extends AbstractIntegrationTest {
+	
+	@Autowired
+	public FileMetadataRepository repository;
+	
+	@Test
+	public void testNamesDifferingOnlyInCaseAreTwoFiles() {
+		
+		repository.saveAndFlush(metadata("Report.csv", 10));
+		repository.saveAndFlush(metadata("report.csv", 20));
+		
+		var upper = repository.findByName("Report.csv");
+		var lower = repository.findByName("report.csv");
+		
+		assertNotEquals(upper.getId(), lower.getId());
+		assertEquals(10, upper.getSize());
+		assertEquals(20, lower.getSize());
+		
+		// byte order, as the storage keys: upper case sorts first
+		var names = repository.findFilesAfter("", "%eport.csv", PageRequest.of(0, 10)).stream()
+				.map(FileMetadata::getName).toList();
+		assertEquals(List.of("Report.csv", "report.csv"), names);
+	}
+	
+	private static FileMetadata metadata(String name, long size) {
+		var metadata = new FileMetadata();
+		metadata.setName(name);
+		metadata.setSize(size);
+		metadata.setContentType("text/csv");
+		metadata.setCreatedAt(new Date());
+		return metadata;
+	}
+}
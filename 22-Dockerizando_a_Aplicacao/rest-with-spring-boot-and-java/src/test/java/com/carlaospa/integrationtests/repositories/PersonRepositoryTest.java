@@ -71,7 +71,7 @@ public class PersonRepositoryTest  extends AbstractIntegrationTest{
 	@Order(1)
 	public void testDisablePerson() throws JsonMappingException, JsonProcessingException {
 		
-		repository.disabledPerson(person.getId());		
+		repository.disablePerson(person.getId(), null);		
 		
 		Pageable pageable = PageRequest.of(0, 6, Sort.by(Direction.ASC, "firstName"));
 		
@@ -0,0 +1,132 @@
+package com.carlaospa.integrationtests.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+
+import com.carlaospa.storage.S3StorageBackend;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+
+@TestInstance(Lifecycle.PER_CLASS)
+public class S3StorageBackendTest {
+
+	private static final String BUCKET = "files";
+
+	private GenericContainer<?> minio;
+	private S3Client client;
+	private S3StorageBackend backend;
+
+	@BeforeAll
+	public void startMinio() {
+		minio = new GenericContainer<>("minio/minio:RELEASE.2022-10-08T20-11-00Z")
+				.withEnv("MINIO_ROOT_USER", "minioadmin")
+				.withEnv("MINIO_ROOT_PASSWORD", "minioadmin")
+				.withCommand("server", "/data")
+				.withExposedPorts(9000)
+				.waitingFor(Wait.forHttp("/minio/health/live").forPort(9000));
+		minio.start();
+
+		client = S3Client.builder()
+				.region(Region.US_EAST_1)
+				.endpointOverride(URI.create("http://" + minio.getHost() + ":" + minio.getMappedPort(9000)))
+				.credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("minioadmin", "minioadmin")))
+				.serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+				.build();
+		client.createBucket(builder -> builder.bucket(BUCKET));
+		backend = new S3StorageBackend(client, BUCKET, S3StorageBackend.MIN_PART_SIZE, 3);
+	}
+
+	@AfterAll
+	public void stopMinio() {
+		backend.close();
+		minio.stop();
+	}
+
+	@Test
+	public void smallObjectTest() throws Exception {
+		backend.write(".shards/ab/report.csv", input("0123456789"));
+
+		assertEquals(10, backend.stat(".shards/ab/report.csv").size());
+		assertEquals("0123456789", read(backend.read(".shards/ab/report.csv")));
+		assertEquals("345", read(backend.read(".shards/ab/report.csv", 3, 3)));
+		assertEquals("789", read(backend.read(".shards/ab/report.csv", 7, -1)));
+	}
+
+	@Test
+	public void multipartUploadTest() throws Exception {
+		byte[] data = new byte[S3StorageBackend.MIN_PART_SIZE * 2 + 12345];
+		new Random(42).nextBytes(data);
+
+		backend.write("large.bin", new ByteArrayInputStream(data));
+
+		assertEquals(data.length, backend.stat("large.bin").size());
+		try (InputStream in = backend.read("large.bin")) {
+			assertArrayEquals(data, in.readAllBytes());
+		}
+		try (InputStream in = backend.read("large.bin", S3StorageBackend.MIN_PART_SIZE - 1, 2)) {
+			assertArrayEquals(new byte[] { data[S3StorageBackend.MIN_PART_SIZE - 1], data[S3StorageBackend.MIN_PART_SIZE] },
+					in.readAllBytes());
+		}
+	}
+
+	@Test
+	public void failedMultipartUploadIsAbortedTest() throws Exception {
+		byte[] part = new byte[S3StorageBackend.MIN_PART_SIZE + 1];
+		InputStream failing = new SequenceInputStream(new ByteArrayInputStream(part), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		});
+
+		assertThrows(IOException.class, () -> backend.write("broken.bin", failing));
+		assertNull(backend.stat("broken.bin"));
+		assertEquals(0, client.listMultipartUploads(builder -> builder.bucket(BUCKET)).uploads().size());
+	}
+
+	@Test
+	public void moveAndDeleteTest() throws Exception {
+		backend.write("a.txt", input("content"));
+
+		backend.move("a.txt", "b.txt");
+		assertNull(backend.stat("a.txt"));
+		assertEquals("content", read(backend.read("b.txt")));
+
+		backend.delete("b.txt");
+		assertNull(backend.stat("b.txt"));
+		assertThrows(FileNotFoundException.class, () -> backend.read("b.txt"));
+	}
+
+	private static ByteArrayInputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(InputStream in) throws IOException {
+		try (in) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
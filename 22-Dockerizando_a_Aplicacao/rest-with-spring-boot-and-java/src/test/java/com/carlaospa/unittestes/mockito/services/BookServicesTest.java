@@ -1,6 +1,8 @@
 package com.carlaospa.unittestes.mockito.services;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -16,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.carlaospa.cache.ResponseCache;
 import com.carlaospa.data.vo.v1.BookVO;
 import com.carlaospa.exception.RequiredObjectIsNullException;
 import com.carlaospa.model.Book;
@@ -34,6 +37,9 @@ class BookServicesTest {
 	
 	@Mock
 	BookRepository repository;
+	
+	@Mock
+	ResponseCache responseCache;
 
 	@BeforeEach
 	void setUpMocks() throws Exception {
@@ -105,17 +111,10 @@ class BookServicesTest {
 	@Test
 	void testUpdate() {
 		
-		Book entity = input.mockEntity(1);
-		entity.setId(1L);
-		
-		Book persisted = entity;
-		persisted.setId(1L);
-		
 		BookVO vo = input.mockVO(1);
 		vo.setKey(1L);
 		
-		when(repository.findById(1L)).thenReturn(Optional.of(entity));
-		when(repository.save(entity)).thenReturn(persisted);
+		when(repository.updateBook(any(Book.class), isNull())).thenReturn(1);
 		
 		var result = services.update(vo);
 		
@@ -146,10 +145,7 @@ class BookServicesTest {
 	@Test
 	void testDelete() {
 		
-		Book entity = input.mockEntity(1);
-		entity.setId(1L);
-		
-		when(repository.findById(1L)).thenReturn(Optional.of(entity));
+		when(repository.deleteBook(1L)).thenReturn(1);
 		
 		services.delete(1L);
 	}	
@@ -0,0 +1,106 @@
+package com.carlaospa.unittestes.mockito.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import com.carlaospa.exception.ResourceNotFoundException;
+import com.carlaospa.model.FileMetadata;
+import com.carlaospa.repository.FileMetadataRepository;
+import com.carlaospa.services.FileMetadataService;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+class FileMetadataServiceTest {
+
+	@InjectMocks
+	private FileMetadataService services;
+
+	@Mock
+	FileMetadataRepository repository;
+
+	@BeforeEach
+	void setUpMocks() throws Exception {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	@Test
+	void testFindAllFirstPage() {
+		when(repository.findFilesAfter(eq(""), eq("report!_%"), any(Pageable.class))).thenReturn(mockList(3));
+
+		var result = services.findAll("", "report_", null, 2);
+
+		assertEquals(2, result.getContent().size());
+		var first = result.getContent().iterator().next().getContent();
+		assertEquals("file0.csv", first.getName());
+		assertTrue(first.toString().contains("</api/file/v1/downloadFile/file0.csv>;rel=\"self\""));
+
+		var next = result.getLink("next");
+		assertTrue(next.isPresent());
+		assertTrue(next.get().getHref().contains("after=file1.csv"));
+	}
+
+	@Test
+	void testFindAllLastPageByContentType() {
+		when(repository.findFilesByContentTypeAfter(eq("text/csv"), eq("file1.csv"), eq("%"), any(Pageable.class)))
+			.thenReturn(mockList(1));
+
+		var result = services.findAll("file1.csv", "", "text/csv", 2);
+
+		assertEquals(1, result.getContent().size());
+		assertFalse(result.getLink("next").isPresent());
+	}
+
+	@Test
+	void testSaveReplacesExistingRow() {
+		var existing = mockList(1).get(0);
+		existing.setId(7L);
+		when(repository.findByName("file0.csv")).thenReturn(existing);
+
+		services.save("file0.csv", 42L, "text/csv", "abc");
+
+		ArgumentCaptor<FileMetadata> saved = ArgumentCaptor.forClass(FileMetadata.class);
+		verify(repository).save(saved.capture());
+		assertEquals(7L, saved.getValue().getId());
+		assertEquals(42L, saved.getValue().getSize());
+		assertEquals("abc", saved.getValue().getChecksum());
+	}
+
+	@Test
+	void testFindByNameNotFound() {
+		when(repository.findByName("missing.txt")).thenReturn(null);
+
+		assertThrows(ResourceNotFoundException.class, () -> services.findByName("missing.txt"));
+	}
+
+	private List<FileMetadata> mockList(int count) {
+		List<FileMetadata> files = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			var file = new FileMetadata();
+			file.setName("file" + i + ".csv");
+			file.setSize(10L * i);
+			file.setContentType("text/csv");
+			file.setCreatedAt(new Date());
+			files.add(file);
+		}
+		return files;
+	}
+}
@@ -0,0 +1,194 @@
+package com.carlaospa.unittestes.mockito.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.carlaospa.cache.ResponseCache;
+import com.carlaospa.data.vo.v1.BulkItemResultVO;
+import com.carlaospa.data.vo.v1.BulkItemResultVO.Status;
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.exception.RequiredObjectIsNullException;
+import com.carlaospa.model.Person;
+import com.carlaospa.search.PersonNameIndex;
+import com.carlaospa.services.EntityCacheService;
+import com.carlaospa.services.PersonBulkServices;
+import com.carlaospa.services.PersonServices;
+import com.carlaospa.unittests.mapper.mocks.MockPerson;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+class PersonBulkServicesTest {
+	
+	MockPerson input;
+	
+	@InjectMocks
+	private PersonBulkServices services;
+	
+	@Mock
+	JdbcTemplate jdbcTemplate;
+	
+	@Mock
+	TransactionTemplate transactionTemplate;
+	
+	@Mock
+	PersonNameIndex nameIndex;
+	
+	@Mock
+	EntityCacheService entityCache;
+	
+	@Mock
+	ResponseCache responseCache;
+	
+	Connection connection;
+	PreparedStatement inserts;
+	PreparedStatement updates;
+	
+	@BeforeEach
+	void setUpMocks() throws Exception {
+		input = new MockPerson();
+		MockitoAnnotations.openMocks(this);
+		
+		connection = mock(Connection.class);
+		inserts = mock(PreparedStatement.class);
+		updates = mock(PreparedStatement.class);
+		
+		// shared by every test, but unused by the ones failing before the chunk runs
+		lenient().doAnswer(invocation -> {
+			Consumer<TransactionStatus> action = invocation.getArgument(0);
+			action.accept(mock(TransactionStatus.class));
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		
+		// JdbcTemplate translates SQLExceptions the callback throws
+		lenient().when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+			ConnectionCallback<?> callback = invocation.getArgument(0);
+			try {
+				return callback.doInConnection(connection);
+			} catch (SQLException e) {
+				throw new UncategorizedSQLException("bulk", null, e);
+			}
+		});
+	}
+	
+	@Test
+	void testSaveAllStatuses() throws Exception {
+		
+		List<PersonVO> people = new ArrayList<>();
+		people.add(newPerson(1));
+		PersonVO invalid = newPerson(2);
+		invalid.setFirstName(null);
+		people.add(invalid);
+		people.add(input.mockVO(5));
+		people.add(input.mockVO(6));
+		people.add(newPerson(3));
+		
+		ResultSet keys = mock(ResultSet.class);
+		when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(inserts);
+		when(inserts.getGeneratedKeys()).thenReturn(keys);
+		when(keys.next()).thenReturn(true, true, false);
+		when(keys.getLong(1)).thenReturn(100L, 101L);
+		when(connection.prepareStatement(anyString())).thenReturn(updates);
+		when(updates.executeBatch()).thenReturn(new int[] { 1, 0 });
+		
+		List<BulkItemResultVO> results = services.saveAll(people);
+		
+		assertEquals(5, results.size());
+		assertResult(results.get(0), 0, 100L, Status.CREATED);
+		assertResult(results.get(1), 1, null, Status.INVALID);
+		assertResult(results.get(2), 2, 5L, Status.UPDATED);
+		assertResult(results.get(3), 3, 6L, Status.NOT_FOUND);
+		assertResult(results.get(4), 4, 101L, Status.CREATED);
+		assertNull(results.get(0).getMessage());
+		assertEquals("No records found for this ID!", results.get(3).getMessage());
+		
+		// only the updated row was cached before, only committed rows are indexed
+		verify(entityCache).evict(Person.class, 5L);
+		verify(responseCache).invalidate(PersonServices.RESOURCE, 5L);
+		verify(entityCache, never()).evict(Person.class, 6L);
+		verify(responseCache, never()).invalidate(PersonServices.RESOURCE, 6L);
+		verify(nameIndex, times(3)).put(any(Person.class));
+	}
+	
+	@Test
+	void testRolledBackChunkFails() throws Exception {
+		
+		List<PersonVO> people = new ArrayList<>();
+		people.add(newPerson(1));
+		PersonVO invalid = newPerson(2);
+		invalid.setGender(null);
+		people.add(invalid);
+		people.add(input.mockVO(5));
+		
+		ResultSet keys = mock(ResultSet.class);
+		when(connection.prepareStatement(anyString(), eq(Statement.RETURN_GENERATED_KEYS))).thenReturn(inserts);
+		when(inserts.getGeneratedKeys()).thenReturn(keys);
+		when(keys.next()).thenReturn(true);
+		when(keys.getLong(1)).thenReturn(100L);
+		when(connection.prepareStatement(anyString())).thenReturn(updates);
+		when(updates.executeBatch()).thenThrow(new SQLException("Lock wait timeout exceeded"));
+		
+		List<BulkItemResultVO> results = services.saveAll(people);
+		
+		assertResult(results.get(0), 0, null, Status.FAILED);
+		assertResult(results.get(1), 1, null, Status.INVALID);
+		assertResult(results.get(2), 2, 5L, Status.FAILED);
+		
+		verifyNoInteractions(nameIndex, responseCache);
+		verify(entityCache, never()).evict(any(), any());
+	}
+	
+	@Test
+	void testSaveAllWithNullList() {
+		
+		assertThrows(RequiredObjectIsNullException.class, () -> {
+			services.saveAll(null);
+		});
+	}
+	
+	private PersonVO newPerson(int number) {
+		PersonVO person = input.mockVO(number);
+		person.setKey(null);
+		return person;
+	}
+	
+	private static void assertResult(BulkItemResultVO result, int index, Long id, Status status) {
+		assertEquals(index, result.getIndex());
+		assertEquals(id, result.getId());
+		assertEquals(status, result.getStatus());
+	}
+}
@@ -0,0 +1,85 @@
+package com.carlaospa.unittestes.mockito.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.carlaospa.repository.PersonRepository;
+import com.carlaospa.services.PersonCountService;
+
+class PersonCountServiceTest {
+
+	PersonRepository repository;
+	PersonCountService countService;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(PersonRepository.class);
+		countService = new PersonCountService(repository, 60000, 100, 1);
+	}
+
+	@AfterEach
+	void tearDown() {
+		countService.shutdown();
+	}
+
+	@Test
+	void testEstimateIsCountedOnceInTheBackground() throws Exception {
+
+		var release = new CountDownLatch(1);
+		when(repository.countPersonsByName("al")).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return 42L;
+		});
+
+		assertNull(countService.estimateByName("Al"));
+		release.countDown();
+
+		Long estimate = null;
+		for (int i = 0; i < 100 && estimate == null; i++) {
+			Thread.sleep(10);
+			estimate = countService.estimateByName("al");
+		}
+
+		assertEquals(42L, estimate);
+		verify(repository, times(1)).countPersonsByName("al");
+	}
+
+	@Test
+	void testEstimateIsDroppedWhenTheQueueIsFull() throws Exception {
+
+		var release = new CountDownLatch(1);
+		when(repository.countPersonsByName("a")).thenAnswer(invocation -> {
+			release.await(5, TimeUnit.SECONDS);
+			return 1L;
+		});
+		when(repository.countPersonsByName("b")).thenReturn(2L);
+		when(repository.countPersonsByName("c")).thenReturn(3L);
+
+		// "a" holds the only worker and "b" the only queue slot, so "c" is not queued
+		assertNull(countService.estimateByName("a"));
+		Thread.sleep(50);
+		assertNull(countService.estimateByName("b"));
+		assertNull(countService.estimateByName("c"));
+		release.countDown();
+
+		Long estimate = null;
+		for (int i = 0; i < 100 && estimate == null; i++) {
+			Thread.sleep(10);
+			estimate = countService.estimateByName("c");
+		}
+
+		assertEquals(3L, estimate);
+		verify(repository, times(1)).countPersonsByName("c");
+	}
+}
@@ -0,0 +1,115 @@
+package com.carlaospa.unittestes.mockito.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.carlaospa.model.Person;
+import com.carlaospa.repository.PersonRepository;
+import com.carlaospa.services.PersonExportServices;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(MockitoExtension.class)
+class PersonExportServicesTest {
+	
+	@InjectMocks
+	private PersonExportServices services;
+	
+	@Mock
+	PersonRepository repository;
+	
+	@Mock
+	EntityManager entityManager;
+	
+	AtomicBoolean closed;
+	
+	@BeforeEach
+	void setUpMocks() throws Exception {
+		MockitoAnnotations.openMocks(this);
+		closed = new AtomicBoolean();
+	}
+	
+	@Test
+	void testExportCsvQuoting() throws Exception {
+		
+		when(repository.streamAll()).thenReturn(people(
+				person(1L, "Ayrton", "Senna, da Silva", "Rua \"A\", 10", "Male", true),
+				person(2L, "Line\nBreak", "Carriage\rReturn", null, "Female", false)));
+		
+		var out = new ByteArrayOutputStream();
+		services.exportCsv(out);
+		
+		assertEquals("id,firstName,lastName,address,gender,enabled\n"
+				+ "1,Ayrton,\"Senna, da Silva\",\"Rua \"\"A\"\", 10\",Male,true\n"
+				+ "2,\"Line\nBreak\",\"Carriage\rReturn\",,Female,false\n",
+				out.toString(StandardCharsets.UTF_8));
+		assertTrue(closed.get());
+		verify(entityManager, times(2)).detach(any(Person.class));
+	}
+	
+	@Test
+	void testExportNdjsonOneObjectPerLine() throws Exception {
+		
+		when(repository.streamAll()).thenReturn(people(
+				person(1L, "Ayrton", "Senna", "Line\nBreak \"quoted\"", "Male", true),
+				person(2L, "Nelson", null, "Brasília", "Male", null)));
+		
+		var out = new ByteArrayOutputStream();
+		services.exportNdjson(out);
+		
+		String body = out.toString(StandardCharsets.UTF_8);
+		assertTrue(body.endsWith("\n"));
+		String[] lines = body.split("\n");
+		assertEquals(2, lines.length);
+		
+		var mapper = new ObjectMapper();
+		var first = mapper.readTree(lines[0]);
+		assertEquals(1L, first.get("id").asLong());
+		assertEquals("Line\nBreak \"quoted\"", first.get("address").asText());
+		assertTrue(first.get("enabled").asBoolean());
+		
+		var second = mapper.readTree(lines[1]);
+		assertTrue(second.get("lastName").isNull());
+		assertEquals("Brasília", second.get("address").asText());
+		assertFalse(second.get("enabled").asBoolean());
+		assertTrue(closed.get());
+	}
+	
+	private Stream<Person> people(Person... people) {
+		return Stream.of(people).onClose(() -> closed.set(true));
+	}
+	
+	private static Person person(Long id, String firstName, String lastName, String address, String gender,
+			Boolean enabled) {
+		Person person = new Person();
+		person.setId(id);
+		person.setFirstName(firstName);
+		person.setLastName(lastName);
+		person.setAddress(address);
+		person.setGender(gender);
+		person.setEnabled(enabled);
+		return person;
+	}
+}
@@ -1,11 +1,20 @@
 package com.carlaospa.unittestes.mockito.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,11 +26,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
 
+import com.carlaospa.cache.ResponseCache;
 import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.exception.PreconditionFailedException;
 import com.carlaospa.exception.RequiredObjectIsNullException;
+import com.carlaospa.exception.ResourceNotFoundException;
 import com.carlaospa.model.Person;
 import com.carlaospa.repository.PersonRepository;
+import com.carlaospa.search.PersonNameIndex;
+import com.carlaospa.services.PersonCountService;
 import com.carlaospa.services.PersonServices;
 import com.carlaospa.unittests.mapper.mocks.MockPerson;
 
@@ -36,6 +56,15 @@ class PersonServicesTest {
 	
 	@Mock
 	PersonRepository repository;
+	
+	@Mock
+	PersonNameIndex nameIndex;
+	
+	@Mock
+	ResponseCache responseCache;
+	
+	@Mock
+	PersonCountService countService;
 
 	@BeforeEach
 	void setUpMocks() throws Exception {
@@ -90,6 +119,42 @@ class PersonServicesTest {
 		
 	}
 	
+	@Test
+	void testFindSlice() {
+		
+		Pageable pageable = PageRequest.of(0, 2, Sort.by(Direction.ASC, "firstName"));
+		List<Person> people = List.of(input.mockEntity(1), input.mockEntity(2));
+		
+		when(repository.findPersonSlice(pageable)).thenReturn(new SliceImpl<>(people, pageable, true));
+		
+		var estimated = services.findSlice(pageable);
+		var result = estimated.slice();
+		
+		assertNull(estimated.estimate());
+		assertEquals(2, result.getContent().size());
+		assertNull(result.getMetadata());
+		assertTrue(result.getLink("next").get().getHref().contains("page=1"));
+		assertTrue(result.getLink("next").get().getHref().contains("count=false"));
+		assertTrue(result.getLink("prev").isEmpty());
+	}
+	
+	@Test
+	void testFindSliceByNameTakesTheTotalFromTheIndexPage() {
+		
+		Pageable pageable = PageRequest.of(0, 2, Sort.by(Direction.ASC, "firstName"));
+		List<Person> people = List.of(input.mockEntity(1), input.mockEntity(2));
+		
+		when(nameIndex.isReady()).thenReturn(true);
+		when(nameIndex.findPersonsByFirstName("Fir", pageable)).thenReturn(new PageImpl<>(people, pageable, 7));
+		
+		var result = services.findSliceByName("Fir", pageable);
+		
+		assertEquals(2, result.slice().getContent().size());
+		assertEquals(7L, result.estimate());
+		verify(nameIndex, never()).searchFirstName(any());
+		verify(countService, never()).estimateByName(any());
+	}
+	
 	@Test
 	void testCreateWithNullPerson() {
 		
@@ -106,17 +171,10 @@ class PersonServicesTest {
 	@Test
 	void testUpdate() {
 		
-		Person entity = input.mockEntity(1);
-		entity.setId(1L);
-		
-		Person persisted = entity;
-		persisted.setId(1L);
-		
 		PersonVO vo = input.mockVO(1);
 		vo.setKey(1L);
 		
-		when(repository.findById(1L)).thenReturn(Optional.of(entity));
-		when(repository.save(entity)).thenReturn(persisted);
+		when(repository.updatePerson(any(Person.class), isNull())).thenReturn(1);
 		
 		var result = services.update(vo);
 		
@@ -127,6 +185,100 @@ class PersonServicesTest {
 		assertEquals("Addres Test1", result.getAddress());		
 		assertEquals("First Name Test1", result.getFirstName());
 		assertEquals("Last Name Test1", result.getLastName());
+		assertNull(result.getEnabled());
+	}
+	
+	@Test
+	void testUpdateWithStaleVersion() {
+		
+		PersonVO vo = input.mockVO(1);
+		vo.setKey(1L);
+		
+		when(repository.updatePerson(any(Person.class), eq(1L))).thenReturn(0);
+		when(repository.existsById(1L)).thenReturn(true);
+		
+		assertThrows(PreconditionFailedException.class, () -> {
+			services.update(vo, 1L);
+		});
+	}
+	
+	@Test
+	void testUpdateWithVersion() {
+		
+		PersonVO vo = input.mockVO(1);
+		vo.setKey(1L);
+		
+		when(repository.updatePerson(any(Person.class), eq(1L))).thenReturn(1);
+		
+		var result = services.update(vo, 1L);
+		
+		assertEquals(2L, result.getVersion());
+	}
+	
+	@Test
+	void testDisablePerson() {
+		
+		Person entity = input.mockEntity(1);
+		entity.setId(1L);
+		entity.setEnabled(true);
+		entity.setVersion(3L);
+		
+		when(repository.findById(1L)).thenReturn(Optional.of(entity));
+		when(repository.disablePerson(1L, 3L)).thenReturn(1);
+		
+		var result = services.disablePerson(1L, 3L);
+		
+		assertFalse(result.getEnabled());
+		assertEquals(4L, result.getVersion());
+		assertEquals("First Name Test1", result.getFirstName());
+		assertTrue(result.toString().contains("[</api/person/v1/1>;rel=\"self\"]"));
+		verify(repository, times(1)).findById(1L);
+	}
+	
+	@Test
+	void testDisablePersonWithoutIfMatchAfterVersionMoved() {
+		
+		// another writer may have moved the row past the cached version 7
+		Person entity = input.mockEntity(1);
+		entity.setId(1L);
+		entity.setEnabled(true);
+		entity.setVersion(7L);
+		
+		when(repository.findById(1L)).thenReturn(Optional.of(entity));
+		when(repository.disablePerson(1L, null)).thenReturn(1);
+		
+		var result = services.disablePerson(1L);
+		
+		assertFalse(result.getEnabled());
+		assertNull(result.getVersion());
+		verify(repository, never()).existsById(any());
+	}
+	
+	@Test
+	void testDisableMissingPerson() {
+		
+		when(repository.findById(1L)).thenReturn(Optional.empty());
+		
+		assertThrows(ResourceNotFoundException.class, () -> {
+			services.disablePerson(1L, 3L);
+		});
+		verify(repository, never()).disablePerson(any(), any());
+	}
+	
+	@Test
+	void testDisablePersonWithStaleIfMatch() {
+		
+		Person entity = input.mockEntity(1);
+		entity.setId(1L);
+		entity.setVersion(5L);
+		
+		when(repository.findById(1L)).thenReturn(Optional.of(entity));
+		when(repository.disablePerson(1L, 3L)).thenReturn(0);
+		when(repository.existsById(1L)).thenReturn(true);
+		
+		assertThrows(PreconditionFailedException.class, () -> {
+			services.disablePerson(1L, 3L);
+		});
 	}
 	
 	@Test
@@ -145,11 +297,18 @@ class PersonServicesTest {
 	@Test
 	void testDelete() {
 		
-		Person entity = input.mockEntity(1);
-		entity.setId(1L);
-		
-		when(repository.findById(1L)).thenReturn(Optional.of(entity));
+		when(repository.deletePerson(1L)).thenReturn(1);
 		
 		services.delete(1L);
+	}
+	
+	@Test
+	void testDeleteMissingPerson() {
+		
+		when(repository.deletePerson(1L)).thenReturn(0);
+		
+		assertThrows(ResourceNotFoundException.class, () -> {
+			services.delete(1L);
+		});
 	}	
 }
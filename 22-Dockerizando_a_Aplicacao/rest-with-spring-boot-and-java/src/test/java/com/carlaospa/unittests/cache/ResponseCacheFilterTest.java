@@ -0,0 +1,146 @@
+package com.carlaospa.unittests.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.carlaospa.cache.ResponseCache;
+import com.carlaospa.cache.ResponseCacheFilter;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class ResponseCacheFilterTest {
+
+	private static final List<MediaType> TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML);
+
+	ResponseCache cache;
+	ResponseCacheFilter filter;
+	AtomicInteger renders;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new ResponseCache();
+		cache.init();
+		filter = new ResponseCacheFilter(cache, List.of("person"), TYPES);
+		renders = new AtomicInteger();
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void hitSkipsHandlerTest(boolean offHeap) throws Exception {
+		ReflectionTestUtils.setField(cache, "offHeap", offHeap);
+		cache.init();
+
+		var first = get("/api/person/v1/1", null);
+		var second = get("/api/person/v1/1", null);
+
+		assertEquals(1, renders.get());
+		assertEquals("{\"id\":1}", second.getContentAsString());
+		assertEquals(first.getContentType(), second.getContentType());
+		assertEquals(first.getContentLength(), second.getContentLength());
+		assertEquals("Accept", second.getHeader("Vary"));
+	}
+
+	@Test
+	public void mediaTypeIsPartOfTheKeyTest() throws Exception {
+		get("/api/person/v1/1", "application/json");
+		var xml = get("/api/person/v1/1", "application/xml");
+		get("/api/person/v1/1", "application/xml;q=0.9, application/json");
+
+		assertEquals(2, renders.get());
+		assertEquals("<id>1</id>", xml.getContentAsString());
+	}
+
+	@Test
+	public void invalidateTest() throws Exception {
+		get("/api/person/v1/1", null);
+		cache.invalidate("person", 1L);
+		get("/api/person/v1/1", null);
+		get("/api/person/v1/2", null);
+
+		assertEquals(3, renders.get());
+	}
+
+	@Test
+	public void readBeforeWriteIsNotStoredTest() throws Exception {
+		var key = new ResponseCache.Key("person", 1L);
+		var variant = new ResponseCache.Variant("application/json", "v1", "http://localhost:80");
+		long generation = cache.generation(key);
+
+		cache.invalidate("person", 1L);
+		cache.put(key, variant, generation, "application/json", null, "{}".getBytes(StandardCharsets.UTF_8));
+
+		assertNull(cache.get(key, variant));
+	}
+
+	@Test
+	public void conditionalHitTest() throws Exception {
+		get("/api/person/v1/1", null);
+
+		var request = new MockHttpServletRequest("GET", "/api/person/v1/1");
+		request.addHeader("If-None-Match", "\"3\"");
+		var response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+
+		assertEquals(1, renders.get());
+		assertEquals(304, response.getStatus());
+		assertEquals("\"3\"", response.getHeader("ETag"));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void otherPathsUntouchedTest() throws Exception {
+		get("/api/person/v1", null);
+		get("/api/person/v1", null);
+		get("/api/file/v1/1", null);
+		get("/api/file/v1/1", null);
+
+		assertEquals(4, renders.get());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void overlongIdLeftToHandlerTest() throws Exception {
+		var response = get("/api/person/v1/99999999999999999999", null);
+
+		assertEquals(1, renders.get());
+		assertEquals(200, response.getStatus());
+		assertEquals(0, cache.size());
+	}
+
+	private MockHttpServletResponse get(String uri, String accept) throws Exception {
+		var request = new MockHttpServletRequest("GET", uri);
+		if (accept != null) request.addHeader("Accept", accept);
+		var response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest req, HttpServletResponse res) throws IOException {
+				renders.incrementAndGet();
+				String id = req.getRequestURI().substring(req.getRequestURI().lastIndexOf('/') + 1);
+				boolean xml = accept != null && accept.startsWith("application/xml");
+				res.setContentType(xml ? "application/xml" : "application/json");
+				res.setHeader("ETag", "\"3\"");
+				res.getWriter().write(xml ? "<id>" + id + "</id>" : "{\"id\":" + id + "}");
+			}
+		}));
+		return response;
+	}
+}
@@ -0,0 +1,210 @@
+package com.carlaospa.unittests.compression;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.carlaospa.compression.DeflaterPool;
+import com.carlaospa.compression.ResponseCompressionFilter;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+public class ResponseCompressionFilterTest {
+
+	private static final MediaType YAML = MediaType.valueOf("application/x-yaml");
+
+	private static final byte[] LARGE = "{\"firstName\":\"Ayrton\",\"lastName\":\"Senna\"},".repeat(100)
+			.getBytes(StandardCharsets.UTF_8);
+	private static final byte[] SMALL = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+	DeflaterPool pool;
+	ResponseCompressionFilter filter;
+
+	@BeforeEach
+	public void setUp() {
+		pool = new DeflaterPool(6, 4);
+		filter = new ResponseCompressionFilter(List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, YAML),
+				1024, pool, false, 4);
+	}
+
+	@Test
+	public void gzipRoundTripTest() throws Exception {
+		var response = send(request("gzip, deflate"), "application/json", LARGE, null);
+
+		assertEquals("gzip", response.getHeader("Content-Encoding"));
+		assertEquals(List.of("Accept-Encoding"), response.getHeaders("Vary"));
+		assertNull(response.getHeader("Content-Length"));
+		assertArrayEquals(LARGE, gunzip(response.getContentAsByteArray()));
+		assertEquals(1, pool.idle());
+	}
+
+	@Test
+	public void belowThresholdTest() throws Exception {
+		var response = send(request("gzip"), "application/json", SMALL, null);
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals(List.of("Accept-Encoding"), response.getHeaders("Vary"));
+		assertEquals(SMALL.length, response.getContentLength());
+		assertArrayEquals(SMALL, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void notAcceptedTest() throws Exception {
+		var response = send(request("gzip;q=0, identity"), "application/xml", LARGE, null);
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", response.getHeaders("Vary").get(0));
+		assertArrayEquals(LARGE, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void otherTypesUntouchedTest() throws Exception {
+		var response = send(request("gzip"), "image/png", LARGE, null);
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertEquals(List.of(), response.getHeaders("Vary"));
+		assertArrayEquals(LARGE, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void attachmentUntouchedTest() throws Exception {
+		var response = send(request("gzip"), "application/json", LARGE, "attachment; filename=\"people.json\"");
+
+		assertNull(response.getHeader("Content-Encoding"));
+		assertArrayEquals(LARGE, response.getContentAsByteArray());
+	}
+
+	@Test
+	public void existingVaryMergedTest() throws Exception {
+		var request = request("gzip");
+		var response = new MockHttpServletResponse();
+		response.addHeader("Vary", "Origin, accept");
+		filter.doFilter(request, response, new MockFilterChain(servlet("application/x-yaml", LARGE, null)));
+
+		assertEquals("gzip", response.getHeader("Content-Encoding"));
+		assertEquals(List.of("Origin, accept", "Accept-Encoding"), response.getHeaders("Vary"));
+	}
+
+	@Test
+	public void nonBlockingWritesPassThroughTest() throws Exception {
+		var response = new MockHttpServletResponse();
+		var ready = new AtomicBoolean();
+		var listener = new AtomicReference<WriteListener>();
+		ServletOutputStream container = new ServletOutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				response.getOutputStream().write(b);
+			}
+
+			@Override
+			public boolean isReady() {
+				return ready.get();
+			}
+
+			@Override
+			public void setWriteListener(WriteListener writeListener) {
+				listener.set(writeListener);
+			}
+		};
+		var wrapped = new HttpServletResponseWrapper(response) {
+			@Override
+			public ServletOutputStream getOutputStream() {
+				return container;
+			}
+		};
+
+		List<Boolean> readiness = new ArrayList<>();
+		WriteListener writeListener = new WriteListener() {
+			@Override
+			public void onWritePossible() {
+			}
+
+			@Override
+			public void onError(Throwable t) {
+			}
+		};
+		HttpServlet servlet = new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				response.setContentType("application/json");
+				var out = response.getOutputStream();
+				out.write(SMALL);
+				out.setWriteListener(writeListener);
+				readiness.add(out.isReady());
+				ready.set(true);
+				readiness.add(out.isReady());
+				out.write(LARGE);
+			}
+		};
+		filter.doFilter(request("gzip"), wrapped, new MockFilterChain(servlet));
+
+		assertSame(writeListener, listener.get());
+		assertEquals(List.of(false, true), readiness);
+		assertNull(response.getHeader("Content-Encoding"));
+		var body = new ByteArrayOutputStream();
+		body.write(SMALL);
+		body.write(LARGE);
+		assertArrayEquals(body.toByteArray(), response.getContentAsByteArray());
+	}
+
+	private MockHttpServletResponse send(MockHttpServletRequest request, String contentType, byte[] body,
+			String disposition) throws Exception {
+		var response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain(servlet(contentType, body, disposition)));
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String acceptEncoding) {
+		var request = new MockHttpServletRequest("GET", "/api/person/v1");
+		request.addHeader("Accept-Encoding", acceptEncoding);
+		return request;
+	}
+
+	private static HttpServlet servlet(String contentType, byte[] body, String disposition) {
+		return new HttpServlet() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+				response.setContentType(contentType);
+				if (disposition != null) response.setHeader("Content-Disposition", disposition);
+				response.setContentLength(body.length);
+				// converters write in pieces and flush at the end
+				response.getOutputStream().write(body, 0, body.length / 2);
+				response.getOutputStream().write(body, body.length / 2, body.length - body.length / 2);
+				response.getOutputStream().flush();
+			}
+		};
+	}
+
+	private static byte[] gunzip(byte[] body) throws IOException {
+		try (var in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+			return in.readAllBytes();
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package com.carlaospa.unittests.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import com.carlaospa.config.EntityCacheConfig;
+import com.carlaospa.config.HibernateCacheConfig;
+
+public class HibernateCacheConfigTest {
+
+	@Test
+	public void regionOverridesDefaultsTest() {
+		var config = new EntityCacheConfig();
+		config.setDefaultMaxSize(500);
+		config.setDefaultExpireAfterWrite(Duration.ofMinutes(2));
+		var person = new EntityCacheConfig.Region();
+		person.setMaxSize(20000L);
+		config.getRegions().put("person", person);
+
+		var configuration = HibernateCacheConfig.configuration(config, person);
+		assertEquals(20000, configuration.getMaximumSize().getAsLong());
+		assertEquals(Duration.ofMinutes(2).toNanos(), configuration.getExpireAfterWrite().getAsLong());
+		assertTrue(configuration.isStatisticsEnabled());
+
+		var defaults = HibernateCacheConfig.configuration(config, null);
+		assertEquals(500, defaults.getMaximumSize().getAsLong());
+	}
+
+	@Test
+	public void cacheManagerRegionsTest() {
+		var config = new EntityCacheConfig();
+		config.getRegions().put("person", new EntityCacheConfig.Region());
+		config.getRegions().put("book", new EntityCacheConfig.Region());
+
+		try (var cacheManager = new HibernateCacheConfig().entityCacheManager(config)) {
+			assertTrue(cacheManager.getCache("person") != null);
+			assertTrue(cacheManager.getCache("book") != null);
+			assertTrue(cacheManager.getCache(HibernateCacheConfig.QUERY_RESULTS_REGION) != null);
+			assertTrue(cacheManager.getCache(HibernateCacheConfig.TIMESTAMPS_REGION) != null);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.carlaospa.unittests.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.carlaospa.config.NegotiatedVaryAdvice;
+import com.carlaospa.serialization.converter.SmileJackson2HttpMessageConverter;
+
+public class NegotiatedVaryAdviceTest {
+
+	private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+	NegotiatedVaryAdvice advice = new NegotiatedVaryAdvice();
+
+	@Test
+	public void smileVariesOnAcceptTest() throws Exception {
+		var response = write(SMILE, new MockHttpServletResponse());
+
+		assertEquals(List.of("Accept"), response.getHeaders("Vary"));
+	}
+
+	@Test
+	public void otherTypesDoNotVaryTest() throws Exception {
+		var response = write(MediaType.IMAGE_PNG, new MockHttpServletResponse());
+
+		assertEquals(List.of(), response.getHeaders("Vary"));
+	}
+
+	@Test
+	public void existingVaryKeptTest() throws Exception {
+		var servletResponse = new MockHttpServletResponse();
+		servletResponse.addHeader("Vary", "Origin, accept");
+		var response = write(MediaType.APPLICATION_JSON, servletResponse);
+
+		assertEquals(List.of("Origin, accept"), response.getHeaders("Vary"));
+	}
+
+	private MockHttpServletResponse write(MediaType type, MockHttpServletResponse servletResponse) throws Exception {
+		var response = new ServletServerHttpResponse(servletResponse);
+		advice.beforeBodyWrite("body", null, type, SmileJackson2HttpMessageConverter.class,
+				new ServletServerHttpRequest(new MockHttpServletRequest()), response);
+		response.flush();
+		return servletResponse;
+	}
+}
@@ -0,0 +1,74 @@
+package com.carlaospa.unittests.mapper;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.carlaospa.data.vo.v1.BookVO;
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.mapper.DozerMapper;
+import com.carlaospa.mapper.custom.BookMapper;
+import com.carlaospa.mapper.custom.PersonMapper;
+import com.carlaospa.model.Book;
+import com.carlaospa.model.Person;
+import com.carlaospa.unittests.mapper.mocks.MockBook;
+import com.carlaospa.unittests.mapper.mocks.MockPerson;
+
+public class CustomMapperTest {
+
+    MockPerson personInput;
+    MockBook bookInput;
+
+    @BeforeEach
+    public void setUp() {
+        personInput = new MockPerson();
+        bookInput = new MockBook();
+    }
+
+    @Test
+    public void parsePersonEntityToVOTest() {
+        PersonVO output = PersonMapper.convertEntityToVo(personInput.mockEntity(7));
+        assertEquals(Long.valueOf(7L), output.getKey());
+        assertEquals("First Name Test7", output.getFirstName());
+        assertEquals("Last Name Test7", output.getLastName());
+        assertEquals("Addres Test7", output.getAddress());
+        assertEquals("Female", output.getGender());
+    }
+
+    @Test
+    public void parsePersonVOToEntityTest() {
+        Person output = PersonMapper.convertVoToEntity(personInput.mockVO(12));
+        assertEquals(Long.valueOf(12L), output.getId());
+        assertEquals("First Name Test12", output.getFirstName());
+        assertEquals("Last Name Test12", output.getLastName());
+        assertEquals("Addres Test12", output.getAddress());
+        assertEquals("Male", output.getGender());
+    }
+
+    @Test
+    public void parsePersonEntityListMatchesDozerTest() {
+        List<PersonVO> expected = DozerMapper.parseListObjects(personInput.mockEntityList(), PersonVO.class);
+        List<PersonVO> output = PersonMapper.convertEntitiesToVos(personInput.mockEntityList());
+        assertEquals(expected, output);
+    }
+
+    @Test
+    public void parseBookEntityToVOTest() {
+        Book entity = bookInput.mockEntity(3);
+        BookVO output = BookMapper.convertEntityToVo(entity);
+        assertEquals(Long.valueOf(3L), output.getKey());
+        assertEquals("Some Author3", output.getAuthor());
+        assertEquals("Some Title3", output.getTitle());
+        assertEquals(25D, output.getPrice());
+        assertEquals(entity.getLaunchDate(), output.getLaunchDate());
+    }
+
+    @Test
+    public void parseBookVOToEntityMatchesDozerTest() {
+        BookVO vo = bookInput.mockVO(5);
+        assertEquals(DozerMapper.parseObject(vo, Book.class), BookMapper.convertVoToEntity(vo));
+    }
+}
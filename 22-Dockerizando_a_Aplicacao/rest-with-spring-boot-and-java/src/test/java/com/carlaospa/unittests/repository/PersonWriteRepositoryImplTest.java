@@ -0,0 +1,82 @@
+package com.carlaospa.unittests.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.carlaospa.model.Person;
+import com.carlaospa.repository.PersonWriteRepositoryImpl;
+
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+
+public class PersonWriteRepositoryImplTest {
+
+	JdbcTemplate jdbcTemplate;
+	Set<Object> cached;
+	PersonWriteRepositoryImpl writes;
+
+	@BeforeEach
+	public void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		cached = new HashSet<>();
+		cached.add(1L);
+
+		// a second level cache holding ids, enough to see what evictions leave behind
+		Cache cache = mock(Cache.class);
+		doAnswer(invocation -> cached.remove(invocation.getArgument(1))).when(cache).evict(eq(Person.class), any());
+		var entityManagerFactory = mock(EntityManagerFactory.class);
+		when(entityManagerFactory.getCache()).thenReturn(cache);
+
+		// while the statement runs, a concurrent load that read the old row puts it back
+		when(jdbcTemplate.update(anyString(), eq(1L))).thenAnswer(invocation -> {
+			cached.add(1L);
+			return 1;
+		});
+
+		writes = new PersonWriteRepositoryImpl(jdbcTemplate, entityManagerFactory);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	public void autoCommittedWriteEvictsAfterTheStatementTest() {
+		writes.disablePerson(1L, null);
+
+		assertFalse(cached.contains(1L));
+	}
+
+	@Test
+	public void transactionalWriteEvictsAfterCompletionTest() {
+		TransactionSynchronizationManager.initSynchronization();
+
+		writes.deletePerson(1L);
+		// not committed yet, evicting now would only be undone by the next load
+		assertTrue(cached.contains(1L));
+
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+		}
+		assertFalse(cached.contains(1L));
+	}
+}
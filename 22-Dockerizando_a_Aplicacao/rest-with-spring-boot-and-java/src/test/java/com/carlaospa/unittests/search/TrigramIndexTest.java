@@ -0,0 +1,124 @@
+package com.carlaospa.unittests.search;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.carlaospa.search.TrigramIndex;
+
+public class TrigramIndexTest {
+
+	TrigramIndex index;
+
+	@BeforeEach
+	public void setUp() {
+		index = new TrigramIndex();
+		index.put(1L, "Alan");
+		index.put(2L, "Alana");
+		index.put(3L, "Mariana");
+		index.put(4L, "José");
+	}
+
+	@Test
+	public void searchIsCaseAndAccentInsensitiveTest() {
+		assertArrayEquals(new long[] { 1L, 2L }, index.search("ALA"));
+		assertArrayEquals(new long[] { 4L }, index.search("jose"));
+	}
+
+	@Test
+	public void searchShortQueryTest() {
+		assertArrayEquals(new long[] { 1L, 2L, 3L }, index.search("an"));
+	}
+
+	@Test
+	public void searchVerifiesCandidatesTest() {
+		index.put(5L, "abcxbcab");
+		assertArrayEquals(new long[0], index.search("abcab"));
+	}
+
+	@Test
+	public void updateAndRemoveTest() {
+		index.put(2L, "Bruna");
+		index.remove(3L);
+
+		assertArrayEquals(new long[] { 1L }, index.search("alan"));
+		assertArrayEquals(new long[0], index.search("mariana"));
+		assertArrayEquals(new long[] { 2L }, index.search("run"));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	public void churnMatchesScanTest() {
+		// enough ids to grow the maps several times, removals reuse slots out of id order
+		String[] names = { "Alan", "Alana", "Mariana", "Jose", "Bruna", "Anabela", "Leandro", "Ana" };
+		Map<Long, String> expected = new TreeMap<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 20000; i++) {
+			long id = random.nextInt(5000) + 1L;
+			if (random.nextInt(3) == 0) {
+				index.remove(id);
+				expected.remove(id);
+			} else {
+				String name = names[random.nextInt(names.length)] + random.nextInt(10);
+				index.put(id, name);
+				expected.put(id, name.toLowerCase());
+			}
+		}
+		for (long id = 1; id <= 4; id++) expected.remove(id);
+		for (long id = 1; id <= 4; id++) index.remove(id);
+
+		for (String query : List.of("ana", "an", "alan", "bela1", "leandro7", "xyz")) {
+			long[] scan = expected.entrySet().stream()
+					.filter(entry -> entry.getValue().contains(query))
+					.mapToLong(Map.Entry::getKey)
+					.toArray();
+			assertArrayEquals(scan, index.search(query), query);
+		}
+		assertEquals(expected.size(), index.size());
+	}
+
+	@Test
+	public void pageOrdersByValueThenIdTest() {
+		index.put(5L, "Alan");
+		long[] ids = index.search("a");
+
+		assertArrayEquals(new long[] { 1L, 5L, 2L }, index.page(ids, false, 0, 3));
+		assertArrayEquals(new long[] { 2L, 3L }, index.page(ids, false, 2, 2));
+		assertArrayEquals(new long[] { 3L, 2L, 5L }, index.page(ids, true, 0, 3));
+		assertArrayEquals(new long[0], index.page(ids, false, 5, 3));
+	}
+
+	@Test
+	public void pageMatchesFullSortTest() {
+		Random random = new Random(7);
+		Map<Long, String> values = new TreeMap<>();
+		for (long id = 10; id < 3000; id++) {
+			String name = "n" + random.nextInt(200);
+			index.put(id, name);
+			values.put(id, name);
+		}
+		long[] ids = index.search("n");
+		for (boolean descending : new boolean[] { false, true }) {
+			Comparator<Long> order = Comparator.comparing(values::get);
+			order = order.thenComparing(Comparator.naturalOrder());
+			long[] sorted = values.keySet().stream()
+					.sorted(descending ? order.reversed() : order)
+					.mapToLong(Long::longValue)
+					.toArray();
+			for (int offset : new int[] { 0, 1, 12, 500, 2985 }) {
+				long[] expected = Arrays.copyOfRange(sorted, Math.min(offset, sorted.length),
+						Math.min(offset + 12, sorted.length));
+				assertArrayEquals(expected, index.page(ids, descending, offset, 12), offset + " " + descending);
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.carlaospa.unittests.security;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.SignatureVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.carlaospa.security.jwt.JwtTokenProvider;
+import com.github.benmanes.caffeine.cache.Cache;
+
+public class JwtTokenProviderTest {
+
+	JwtTokenProvider provider;
+	Algorithm algorithm;
+
+	@BeforeEach
+	public void setUp() {
+		provider = provider(16);
+	}
+
+	@Test
+	public void repeatedTokenIsCachedTest() {
+		String token = token("leandro", 60000);
+
+		assertSame(provider.verifyToken(token), provider.verifyToken(token));
+	}
+
+	@Test
+	public void sameSignatureOtherTokenIsMissTest() {
+		String token = token("leandro", 60000);
+		assertNotNull(provider.verifyToken(token));
+
+		// another payload under the cached signature must go through the verifier
+		String[] parts = token.split("\\.");
+		String forged = parts[0] + "." + token("admin", 60000).split("\\.")[1] + "." + parts[2];
+		assertThrows(SignatureVerificationException.class, () -> provider.verifyToken(forged));
+	}
+
+	@Test
+	public void expiredEntryIsMissTest() throws Exception {
+		String token = token("leandro", 1000);
+		assertNotNull(provider.verifyToken(token));
+
+		Thread.sleep(2100);
+		assertThrows(TokenExpiredException.class, () -> provider.verifyToken(token));
+	}
+
+	@Test
+	public void boundedSizeTest() {
+		provider = provider(2);
+		for (int i = 0; i < 10; i++) {
+			assertNotNull(provider.verifyToken(token("user" + i, 60000)));
+		}
+
+		Cache<?, ?> verifiedTokens = (Cache<?, ?>) ReflectionTestUtils.getField(provider, "verifiedTokens");
+		verifiedTokens.cleanUp();
+		assertTrue(verifiedTokens.estimatedSize() <= 2);
+	}
+
+	private JwtTokenProvider provider(int verifiedCacheSize) {
+		var provider = new JwtTokenProvider();
+		ReflectionTestUtils.setField(provider, "secretKey", "53cr37");
+		ReflectionTestUtils.setField(provider, "verifiedCacheSize", verifiedCacheSize);
+		ReflectionTestUtils.invokeMethod(provider, "init");
+		String encodedSecret = (String) ReflectionTestUtils.getField(provider, "secretKey");
+		algorithm = Algorithm.HMAC256(encodedSecret.getBytes());
+		return provider;
+	}
+
+	private String token(String username, long validity) {
+		Date now = new Date();
+		return JWT.create()
+				.withSubject(username)
+				.withIssuedAt(now)
+				.withExpiresAt(new Date(now.getTime() + validity))
+				.sign(algorithm);
+	}
+}
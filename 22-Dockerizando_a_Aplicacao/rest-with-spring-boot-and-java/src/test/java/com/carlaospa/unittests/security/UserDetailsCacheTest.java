@@ -0,0 +1,59 @@
+package com.carlaospa.unittests.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.carlaospa.security.UserDetailsCache;
+
+public class UserDetailsCacheTest {
+
+	UserDetailsCache cache;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new UserDetailsCache();
+	}
+
+	@Test
+	public void evictTest() {
+		UserDetails leandro = user("leandro");
+		cache.put("leandro", leandro);
+		assertSame(leandro, cache.get("leandro"));
+
+		cache.evict("leandro");
+		assertNull(cache.get("leandro"));
+	}
+
+	@Test
+	public void boundedSizeTest() {
+		ReflectionTestUtils.setField(cache, "maxSize", 2);
+		cache.put("leandro", user("leandro"));
+		cache.put("flavio", user("flavio"));
+		cache.get("leandro");
+		cache.put("carlos", user("carlos"));
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get("flavio"));
+	}
+
+	@Test
+	public void expiredEntryTest() throws Exception {
+		ReflectionTestUtils.setField(cache, "expireLength", 1L);
+		cache.put("leandro", user("leandro"));
+		Thread.sleep(5);
+
+		assertNull(cache.get("leandro"));
+		assertEquals(0, cache.size());
+	}
+
+	private UserDetails user(String username) {
+		return User.withUsername(username).password("").authorities("ADMIN").build();
+	}
+}
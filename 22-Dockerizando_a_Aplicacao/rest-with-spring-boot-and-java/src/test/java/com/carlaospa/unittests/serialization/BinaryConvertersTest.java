@@ -0,0 +1,53 @@
+package com.carlaospa.unittests.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.carlaospa.data.vo.v1.PersonVO;
+import com.carlaospa.serialization.converter.CborJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.MessagePackJackson2HttpMessageConverter;
+import com.carlaospa.serialization.converter.SmileJackson2HttpMessageConverter;
+
+public class BinaryConvertersTest {
+
+	static Stream<AbstractJackson2HttpMessageConverter> converters() {
+		return Stream.of(new CborJackson2HttpMessageConverter(), new SmileJackson2HttpMessageConverter(),
+				new MessagePackJackson2HttpMessageConverter());
+	}
+
+	@ParameterizedTest
+	@MethodSource("converters")
+	public void roundTripTest(AbstractJackson2HttpMessageConverter converter) throws Exception {
+		MediaType mediaType = converter.getSupportedMediaTypes().get(0);
+		assertTrue(converter.canWrite(PersonVO.class, mediaType));
+		assertTrue(converter.canRead(PersonVO.class, mediaType));
+
+		var person = new PersonVO();
+		person.setKey(1L);
+		person.setFirstName("Ayrton");
+		person.setLastName("Senna");
+		person.setAddress("São Paulo");
+		person.setGender("Male");
+		person.setEnabled(true);
+
+		var output = new MockHttpOutputMessage();
+		converter.write(person, mediaType, output);
+
+		var input = new MockHttpInputMessage(output.getBodyAsBytes());
+		input.getHeaders().setContentType(mediaType);
+		var read = (PersonVO) converter.read(PersonVO.class, input);
+
+		assertEquals(person.getKey(), read.getKey());
+		assertEquals("São Paulo", read.getAddress());
+		assertEquals(person, read);
+	}
+}
@@ -0,0 +1,79 @@
+package com.carlaospa.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.services.FileBatchUploadService;
+import com.carlaospa.services.FileStorageService;
+
+public class FileBatchUploadServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	FileBatchUploadService service;
+
+	@BeforeEach
+	public void setUp() {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setBatchIoPermits(2);
+		config.setBatchRequestConcurrency(2);
+		service = new FileBatchUploadService(new FileStorageService(config), config);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	public void storeFilesInOrderTest() throws Exception {
+		MultipartFile[] files = new MultipartFile[20];
+		for (int i = 0; i < files.length; i++) {
+			files[i] = file("file" + i + ".txt", "content " + i);
+		}
+
+		var results = service.storeFiles(files, "http://localhost/api/file/v1/downloadFile/");
+
+		assertEquals(20, results.size());
+		for (int i = 0; i < files.length; i++) {
+			assertEquals("file" + i + ".txt", results.get(i).getFileName());
+			assertEquals("http://localhost/api/file/v1/downloadFile/file" + i + ".txt", results.get(i).getFileDownloadUri());
+			assertNull(results.get(i).getError());
+			assertEquals("content " + i, Files.readString(uploadDir.resolve("file" + i + ".txt")));
+		}
+	}
+
+	@Test
+	public void perFileErrorTest() {
+		MultipartFile[] files = {
+				file("good.txt", "good"),
+				file("../bad.txt", "bad"),
+				file("also good.txt", "also good") };
+
+		var results = service.storeFiles(files, "/downloadFile/");
+
+		assertNull(results.get(0).getError());
+		assertNotNull(results.get(1).getError());
+		assertNull(results.get(1).getFileDownloadUri());
+		assertEquals("/downloadFile/also%20good.txt", results.get(2).getFileDownloadUri());
+	}
+
+	private MockMultipartFile file(String filename, String content) {
+		return new MockMultipartFile("files", filename, "text/plain", content.getBytes(StandardCharsets.UTF_8));
+	}
+}
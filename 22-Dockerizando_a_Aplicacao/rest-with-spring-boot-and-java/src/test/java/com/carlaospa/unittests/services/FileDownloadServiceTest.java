@@ -0,0 +1,165 @@
+package com.carlaospa.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.services.FileDownloadService;
+import com.carlaospa.services.FileStorageService;
+import com.carlaospa.storage.InMemoryStorageBackend;
+
+public class FileDownloadServiceTest {
+
+	private static final String CONTENT = "0123456789abcdefghij";
+
+	@TempDir
+	Path uploadDir;
+
+	FileDownloadService service;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Files.writeString(uploadDir.resolve("test.txt"), CONTENT);
+
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		service = new FileDownloadService();
+		ReflectionTestUtils.setField(service, "storage", new FileStorageService(config));
+	}
+
+	@Test
+	public void fullDownloadTest() throws Exception {
+		var response = download(new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt"));
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENT, response.getContentAsString());
+		assertEquals("bytes", response.getHeader("Accept-Ranges"));
+		assertTrue(response.getContentType().startsWith("text/plain"));
+	}
+
+	@Test
+	public void singleRangeTest() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Range", "bytes=5-9");
+		var response = download(request);
+
+		assertEquals(206, response.getStatus());
+		assertEquals("56789", response.getContentAsString());
+		assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	public void multipleRangesTest() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Range", "bytes=0-1,-3");
+		var response = download(request);
+
+		assertEquals(206, response.getStatus());
+		assertTrue(response.getContentType().startsWith("multipart/byteranges"));
+		String body = response.getContentAsString(StandardCharsets.US_ASCII);
+		assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+		assertTrue(body.contains("Content-Range: bytes 17-19/20\r\n\r\nhij"));
+		assertEquals(body.length(), response.getContentLength());
+	}
+
+	@Test
+	public void unsatisfiableRangeTest() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Range", "bytes=50-60");
+		var response = download(request);
+
+		assertEquals(416, response.getStatus());
+		assertEquals("bytes */20", response.getHeader("Content-Range"));
+	}
+
+	@Test
+	public void notModifiedTest() throws Exception {
+		var first = download(new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt"));
+
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("If-None-Match", first.getHeader("ETag"));
+		var response = download(request);
+
+		assertEquals(304, response.getStatus());
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void staleIfRangeServesWholeFileTest() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Range", "bytes=5-9");
+		request.addHeader("If-Range", "\"stale\"");
+		var response = download(request);
+
+		assertEquals(200, response.getStatus());
+		assertEquals(CONTENT, response.getContentAsString());
+	}
+
+	@Test
+	public void rangesFromNonLocalBackendTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		var storage = new FileStorageService(config, new InMemoryStorageBackend());
+		storage.storeStream("test.txt", new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)));
+		ReflectionTestUtils.setField(service, "storage", storage);
+
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Range", "bytes=5-9");
+		assertEquals("56789", download(request).getContentAsString());
+
+		request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Range", "bytes=0-1,-3");
+		String body = download(request).getContentAsString(StandardCharsets.US_ASCII);
+		assertTrue(body.contains("Content-Range: bytes 17-19/20\r\n\r\nhij"));
+	}
+
+	@Test
+	public void precompressedTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.getCompression().setEnabled(true);
+		config.getCompression().setGzipTypes(List.of("text/plain"));
+		var storage = new FileStorageService(config);
+		storage.storeStream("test.txt", new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)));
+		ReflectionTestUtils.setField(service, "storage", storage);
+
+		var request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+		var encoded = download(request);
+
+		assertEquals("gzip", encoded.getHeader("Content-Encoding"));
+		assertEquals("Accept-Encoding", encoded.getHeader("Vary"));
+		assertEquals(CONTENT, new String(new GZIPInputStream(
+				new ByteArrayInputStream(encoded.getContentAsByteArray())).readAllBytes(), StandardCharsets.UTF_8));
+
+		request = new MockHttpServletRequest("GET", "/api/file/v1/downloadFile/test.txt");
+		request.addHeader("Accept-Encoding", "gzip;q=0");
+		var decoded = download(request);
+
+		assertNull(decoded.getHeader("Content-Encoding"));
+		assertEquals(CONTENT, decoded.getContentAsString());
+		assertNotEquals(encoded.getHeader("ETag"), decoded.getHeader("ETag"));
+	}
+
+	private MockHttpServletResponse download(MockHttpServletRequest request) throws Exception {
+		var response = new MockHttpServletResponse();
+		service.download("test.txt", request, response);
+		return response;
+	}
+}
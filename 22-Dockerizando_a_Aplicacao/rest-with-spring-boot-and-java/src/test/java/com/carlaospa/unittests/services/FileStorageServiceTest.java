@@ -0,0 +1,198 @@
+package com.carlaospa.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.exception.FileStorageException;
+import com.carlaospa.exception.MyFileNotFoundException;
+import com.carlaospa.services.FileStorageService;
+import com.carlaospa.storage.ContentEncoding;
+import com.carlaospa.storage.InMemoryStorageBackend;
+
+public class FileStorageServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	FileStorageService service;
+
+	@BeforeEach
+	public void setUp() {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		service = new FileStorageService(config);
+	}
+
+	@Test
+	public void storeStreamTest() throws Exception {
+		var stored = service.storeStream("hello.txt", input("hello world"));
+
+		assertEquals("hello.txt", stored.filename());
+		assertEquals(11, stored.size());
+		assertEquals("b94d27b9934d3e08a52e52d7da7dabfac484efe37a5380ee9088f7ace2efcde9", stored.checksum());
+		assertEquals("hello world", Files.readString(uploadDir.resolve("hello.txt")));
+		assertEquals(1, Files.list(uploadDir).count());
+	}
+
+	@Test
+	public void storeStreamReplacesExistingTest() throws Exception {
+		service.storeStream("hello.txt", input("first"));
+		service.storeStream("hello.txt", input("second"));
+
+		assertEquals("second", Files.readString(uploadDir.resolve("hello.txt")));
+		assertEquals(1, Files.list(uploadDir).count());
+	}
+
+	@Test
+	public void storeStreamTooLargeTest() throws Exception {
+		ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofBytes(4));
+
+		assertThrows(FileStorageException.class, () -> service.storeStream("big.txt", input("too large")));
+		assertEquals(0, Files.list(uploadDir).count());
+	}
+
+	@Test
+	public void storeStreamInvalidPathTest() {
+		assertThrows(FileStorageException.class, () -> service.storeStream("../escape.txt", input("x")));
+	}
+
+	@Test
+	public void internalNamesUnreachableTest() {
+		for (String name : List.of(".uploads/abc/data", ".names/report.csv", "dir\\a.txt", "a/b.txt", ".hidden")) {
+			assertThrows(FileStorageException.class, () -> service.storeStream(name, input("x")));
+			assertThrows(MyFileNotFoundException.class, () -> service.loadFile(name));
+		}
+	}
+
+	@Test
+	public void contentAddressableDeduplicationTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setContentAddressable(true);
+		service = new FileStorageService(config);
+
+		var first = service.storeStream("a.txt", input("same content"));
+		var second = service.storeStream("b.txt", input("same content"));
+		assertEquals(first.checksum(), second.checksum());
+
+		Path blobs = uploadDir.resolve(".blobs");
+		try (var files = Files.walk(blobs)) {
+			assertEquals(1, files.filter(Files::isRegularFile).count());
+		}
+
+		var file = service.loadFile("b.txt");
+		assertEquals("b.txt", file.filename());
+		assertEquals("\"" + first.checksum() + "\"", file.etag());
+		assertEquals("same content", Files.readString(file.path()));
+
+		service.storeStream("a.txt", input("new content"));
+		assertEquals("new content", Files.readString(service.loadFile("a.txt").path()));
+		assertEquals("same content", Files.readString(service.loadFile("b.txt").path()));
+	}
+
+	@Test
+	public void contentAddressableReadsFlatFilesTest() throws Exception {
+		Files.writeString(uploadDir.resolve("old.txt"), "stored before");
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setContentAddressable(true);
+		service = new FileStorageService(config);
+
+		assertEquals("stored before", Files.readString(service.loadFile("old.txt").path()));
+	}
+
+	@Test
+	public void contentAddressablePointersAreShardedTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setContentAddressable(true);
+		service = new FileStorageService(config);
+		service.storeStream("old.txt", input("stored flat"));
+
+		config.setShardLevels(2);
+		service = new FileStorageService(config);
+		service.storeStream("new.txt", input("stored sharded"));
+
+		Path names = uploadDir.resolve(".names");
+		assertTrue(Files.isRegularFile(uploadDir.resolve(service.getLayout().shardedKey(".names", "new.txt"))));
+		assertFalse(Files.exists(names.resolve("new.txt")));
+		assertEquals("stored sharded", Files.readString(service.loadFile("new.txt").path()));
+		// pointers written before sharding are still read
+		assertEquals("stored flat", Files.readString(service.loadFile("old.txt").path()));
+
+		service.storeStream("old.txt", input("stored again"));
+		assertFalse(Files.exists(names.resolve("old.txt")));
+		assertEquals("stored again", Files.readString(service.loadFile("old.txt").path()));
+	}
+
+	@Test
+	public void contentAddressableOnNonLocalBackendTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setContentAddressable(true);
+		var backend = new InMemoryStorageBackend();
+		service = new FileStorageService(config, backend);
+
+		service.storeStream("a.txt", input("same content"));
+		service.storeStream("b.txt", input("same content"));
+
+		// one blob and two name pointers
+		assertEquals(3, backend.size());
+		var file = service.loadFile("b.txt");
+		assertNull(file.path());
+		try (var in = service.openStream(file, 5, 7)) {
+			assertEquals("content", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+		assertEquals(0, Files.list(uploadDir).count());
+	}
+
+	@Test
+	public void compressionTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.getCompression().setEnabled(true);
+		config.getCompression().setZstdTypes(List.of("text/csv"));
+		service = new FileStorageService(config);
+		Files.writeString(uploadDir.resolve("report.csv"), "stored raw before compression");
+
+		String content = "id;name\n1;Ana\n".repeat(1000);
+		var stored = service.storeStream("report.csv", input(content));
+
+		assertEquals(ContentEncoding.ZSTD, stored.encoding());
+		assertEquals(content.length(), stored.size());
+		assertTrue(stored.storedSize() < stored.size());
+		// the raw copy is stale now
+		assertFalse(Files.exists(uploadDir.resolve("report.csv")));
+
+		var file = service.loadFile("report.csv");
+		assertEquals(ContentEncoding.ZSTD, file.encoding());
+		assertEquals(stored.storedSize(), file.size());
+		try (var in = service.openContent(file)) {
+			assertEquals(content, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+		}
+
+		// names the policy does not select stay raw
+		assertNull(service.storeStream("notes.md", input("# notes")).encoding());
+		assertEquals("# notes", Files.readString(uploadDir.resolve("notes.md")));
+	}
+
+	private ByteArrayInputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
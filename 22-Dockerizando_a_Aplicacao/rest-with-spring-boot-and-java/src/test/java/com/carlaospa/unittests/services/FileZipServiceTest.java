@@ -0,0 +1,83 @@
+package com.carlaospa.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.exception.InvalidDownloadException;
+import com.carlaospa.exception.MyFileNotFoundException;
+import com.carlaospa.services.FileStorageService;
+import com.carlaospa.services.FileZipService;
+
+public class FileZipServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	FileZipService service;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		Files.writeString(uploadDir.resolve("notes.txt"), "some notes ".repeat(100));
+		Files.write(uploadDir.resolve("photo.jpg"), new byte[] { 1, 2, 3, 4, 5 });
+
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setZipMaxEntries(3);
+		service = new FileZipService(new FileStorageService(config), config);
+	}
+
+	@Test
+	public void zipTest() throws Exception {
+		var response = new MockHttpServletResponse();
+		service.zip(List.of("notes.txt", "photo.jpg", "notes.txt"), response);
+
+		assertEquals("application/zip", response.getContentType());
+		try (var zip = new ZipInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			ZipEntry notes = zip.getNextEntry();
+			assertEquals("notes.txt", notes.getName());
+			assertEquals(ZipEntry.DEFLATED, notes.getMethod());
+			assertEquals("some notes ".repeat(100), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+
+			ZipEntry photo = zip.getNextEntry();
+			assertEquals("photo.jpg", photo.getName());
+			assertEquals(ZipEntry.STORED, photo.getMethod());
+			assertEquals(5, zip.readAllBytes().length);
+
+			assertNull(zip.getNextEntry());
+		}
+	}
+
+	@Test
+	public void missingFileFailsBeforeStreamingTest() {
+		var response = new MockHttpServletResponse();
+
+		assertThrows(MyFileNotFoundException.class, () -> service.zip(List.of("notes.txt", "missing.txt"), response));
+		assertEquals(0, response.getContentAsByteArray().length);
+	}
+
+	@Test
+	public void invalidRequestsTest() {
+		var response = new MockHttpServletResponse();
+
+		assertThrows(InvalidDownloadException.class, () -> service.zip(List.of(), response));
+		assertThrows(InvalidDownloadException.class, () -> service.zip(List.of("../etc/passwd"), response));
+		assertThrows(InvalidDownloadException.class, () -> service.zip(List.of(".uploads/abc/data"), response));
+		assertThrows(InvalidDownloadException.class, () -> service.zip(List.of(".names"), response));
+		assertThrows(InvalidDownloadException.class, () -> service.zip(List.of("a", "b", "c", "d"), response));
+	}
+}
@@ -0,0 +1,100 @@
+package com.carlaospa.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.exception.InvalidUploadException;
+import com.carlaospa.exception.ResourceNotFoundException;
+import com.carlaospa.services.FileStorageService;
+import com.carlaospa.services.ResumableUploadService;
+
+public class ResumableUploadServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	FileStorageConfig config;
+	FileStorageService storage;
+	ResumableUploadService service;
+
+	@BeforeEach
+	public void setUp() {
+		config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		storage = new FileStorageService(config);
+		service = new ResumableUploadService(storage, config);
+	}
+
+	@Test
+	public void outOfOrderChunksTest() throws Exception {
+		var session = service.create("report.csv", 10);
+
+		service.write(session.getId(), 5, input("56789"));
+		assertEquals(0, service.find(session.getId()).getOffset());
+
+		service.write(session.getId(), 0, input("01234"));
+		assertEquals(10, service.find(session.getId()).getOffset());
+
+		var stored = service.complete(session.getId());
+		assertEquals("report.csv", stored.filename());
+		assertEquals(10, stored.size());
+		assertEquals("0123456789", Files.readString(uploadDir.resolve("report.csv")));
+		assertThrows(ResourceNotFoundException.class, () -> service.find(session.getId()));
+	}
+
+	@Test
+	public void resumeAfterRestartTest() throws Exception {
+		var session = service.create("report.csv", 10);
+		service.write(session.getId(), 0, input("0123"));
+
+		var restarted = new ResumableUploadService(storage, config);
+		assertEquals(4, restarted.find(session.getId()).getOffset());
+
+		restarted.write(session.getId(), 4, input("456789"));
+		restarted.complete(session.getId());
+		assertEquals("0123456789", Files.readString(uploadDir.resolve("report.csv")));
+	}
+
+	@Test
+	public void incompleteUploadTest() {
+		var session = service.create("report.csv", 10);
+		service.write(session.getId(), 0, input("0123"));
+
+		assertThrows(InvalidUploadException.class, () -> service.complete(session.getId()));
+		assertFalse(Files.exists(uploadDir.resolve("report.csv")));
+	}
+
+	@Test
+	public void chunkBeyondLengthTest() {
+		var session = service.create("report.csv", 4);
+
+		assertThrows(InvalidUploadException.class, () -> service.write(session.getId(), 2, input("234")));
+		assertThrows(InvalidUploadException.class, () -> service.write(session.getId(), 5, input("5")));
+	}
+
+	@Test
+	public void invalidFilenameTest() {
+		assertThrows(InvalidUploadException.class, () -> service.create(".uploads/abc/data", 1));
+		assertThrows(InvalidUploadException.class, () -> service.create("dir/report.csv", 1));
+	}
+
+	@Test
+	public void invalidSessionIdTest() {
+		assertThrows(ResourceNotFoundException.class, () -> service.find("../../etc"));
+	}
+
+	private ByteArrayInputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.US_ASCII));
+	}
+}
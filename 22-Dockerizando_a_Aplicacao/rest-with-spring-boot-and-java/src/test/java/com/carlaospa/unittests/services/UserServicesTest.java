@@ -0,0 +1,73 @@
+package com.carlaospa.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.carlaospa.exception.ResourceNotFoundException;
+import com.carlaospa.repository.UserRepository;
+import com.carlaospa.security.UserDetailsCache;
+import com.carlaospa.services.UserServices;
+
+public class UserServicesTest {
+
+	UserRepository repository;
+	UserDetailsCache userCache;
+	UserServices services;
+
+	@BeforeEach
+	public void setUp() {
+		repository = mock(UserRepository.class);
+		userCache = mock(UserDetailsCache.class);
+		services = new UserServices(repository);
+		ReflectionTestUtils.setField(services, "userCache", userCache);
+		TransactionSynchronizationManager.initSynchronization();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		TransactionSynchronizationManager.clearSynchronization();
+	}
+
+	@Test
+	public void disableEvictsAfterCommitTest() {
+		when(repository.disableUser("leandro")).thenReturn(1);
+
+		services.disableUser("leandro");
+		verify(userCache, never()).evict("leandro");
+
+		commit();
+		verify(userCache).evict("leandro");
+	}
+
+	@Test
+	public void lockEvictsAfterCommitTest() {
+		when(repository.lockUser("leandro")).thenReturn(1);
+
+		services.lockUser("leandro");
+		verify(userCache, never()).evict("leandro");
+
+		commit();
+		verify(userCache).evict("leandro");
+	}
+
+	@Test
+	public void unknownUserTest() {
+		assertThrows(ResourceNotFoundException.class, () -> services.disableUser("nobody"));
+	}
+
+	private static void commit() {
+		for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+			synchronization.afterCommit();
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package com.carlaospa.unittests.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import com.carlaospa.storage.CompressionPolicy;
+import com.carlaospa.storage.ContentEncoding;
+
+public class CompressionTest {
+
+	@ParameterizedTest
+	@EnumSource(ContentEncoding.class)
+	public void roundTripTest(ContentEncoding encoding) throws Exception {
+		byte[] data = "id;name;city\n1;Ana;Recife\n".repeat(10000).getBytes(StandardCharsets.UTF_8);
+
+		var compressed = encoding.compress(new ByteArrayInputStream(data));
+		byte[] stored = compressed.readAllBytes();
+
+		assertEquals(stored.length, compressed.produced());
+		assertTrue(stored.length < data.length / 10);
+		assertArrayEquals(data, encoding.decoder(new ByteArrayInputStream(stored)).readAllBytes());
+	}
+
+	@ParameterizedTest
+	@EnumSource(ContentEncoding.class)
+	public void emptyInputTest(ContentEncoding encoding) throws Exception {
+		byte[] stored = encoding.compress(new ByteArrayInputStream(new byte[0])).readAllBytes();
+
+		assertEquals(0, encoding.decoder(new ByteArrayInputStream(stored)).readAllBytes().length);
+	}
+
+	@Test
+	public void policyTest() {
+		var policy = new CompressionPolicy(Map.of(
+				"zstd", List.of("text/csv", "application/json"),
+				"gzip", List.of("application/xml")));
+
+		assertEquals(ContentEncoding.ZSTD, policy.encodingFor("report.csv"));
+		assertEquals(ContentEncoding.ZSTD, policy.encodingFor("data.json"));
+		assertEquals(ContentEncoding.GZIP, policy.encodingFor("feed.xml"));
+		assertNull(policy.encodingFor("photo.png"));
+		assertNull(policy.encodingFor("no-extension"));
+		assertNull(CompressionPolicy.none().encodingFor("report.csv"));
+	}
+}
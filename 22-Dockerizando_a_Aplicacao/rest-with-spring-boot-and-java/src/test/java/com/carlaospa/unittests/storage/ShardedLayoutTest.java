@@ -0,0 +1,81 @@
+package com.carlaospa.unittests.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.carlaospa.config.FileStorageConfig;
+import com.carlaospa.services.FileStorageService;
+import com.carlaospa.services.ShardMigrationService;
+import com.carlaospa.storage.ShardedLayout;
+
+public class ShardedLayoutTest {
+
+	@TempDir
+	Path uploadDir;
+
+	@Test
+	public void shardedPathTest() {
+		var layout = new ShardedLayout(uploadDir, 2);
+		Path path = layout.shardedPath("report.csv");
+
+		assertEquals("report.csv", path.getFileName().toString());
+		assertEquals(uploadDir.resolve(".shards"), path.getParent().getParent().getParent());
+		assertEquals(2, path.getParent().getFileName().toString().length());
+		assertEquals(path, layout.shardedPath("report.csv"));
+	}
+
+	@Test
+	public void flatLayoutTest() {
+		var layout = new ShardedLayout(uploadDir, 0);
+
+		assertFalse(layout.isSharded());
+		assertEquals(uploadDir.resolve("report.csv"), layout.targetPath("report.csv"));
+	}
+
+	@Test
+	public void migrationKeepsFilesReadableTest() throws Exception {
+		Files.writeString(uploadDir.resolve("old.txt"), "old");
+		Files.writeString(uploadDir.resolve("stale.txt"), "stale");
+
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setShardLevels(2);
+		var storage = new FileStorageService(config);
+
+		assertEquals("old", Files.readString(storage.loadFile("old.txt").path()));
+
+		// a new upload lands in its shard; the stale flat copy must not win
+		var layout = storage.getLayout();
+		Files.createDirectories(layout.shardedPath("stale.txt").getParent());
+		Files.writeString(layout.shardedPath("stale.txt"), "new");
+
+		new ShardMigrationService(storage, config).migrateAll();
+
+		assertFalse(Files.exists(uploadDir.resolve("old.txt")));
+		assertFalse(Files.exists(uploadDir.resolve("stale.txt")));
+		assertTrue(Files.exists(layout.shardedPath("old.txt")));
+		assertEquals("old", Files.readString(storage.loadFile("old.txt").path()));
+		assertEquals("new", Files.readString(storage.loadFile("stale.txt").path()));
+	}
+
+	@Test
+	public void shardedUploadTest() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setShardLevels(2);
+		var storage = new FileStorageService(config);
+
+		storage.storeStream("new.txt", new ByteArrayInputStream("new".getBytes()));
+
+		assertFalse(Files.exists(uploadDir.resolve("new.txt")));
+		assertEquals(storage.getLayout().shardedPath("new.txt"), storage.loadFile("new.txt").path());
+	}
+}
@@ -0,0 +1,112 @@
+package com.carlaospa.unittests.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.carlaospa.storage.InMemoryStorageBackend;
+import com.carlaospa.storage.LocalStorageBackend;
+import com.carlaospa.storage.StorageBackend;
+
+public class StorageBackendTest {
+
+	@TempDir
+	static Path root;
+
+	static Stream<StorageBackend> backends() throws IOException {
+		return Stream.of(new LocalStorageBackend(Files.createTempDirectory(root, "local")),
+				new InMemoryStorageBackend());
+	}
+
+	@ParameterizedTest
+	@MethodSource("backends")
+	public void writeAndReadTest(StorageBackend backend) throws Exception {
+		backend.write(".shards/ab/report.csv", input("0123456789"));
+
+		assertEquals(10, backend.stat(".shards/ab/report.csv").size());
+		assertEquals("0123456789", read(backend.read(".shards/ab/report.csv")));
+		assertEquals("345", read(backend.read(".shards/ab/report.csv", 3, 3)));
+		assertEquals("789", read(backend.read(".shards/ab/report.csv", 7, -1)));
+	}
+
+	@ParameterizedTest
+	@MethodSource("backends")
+	public void replaceMoveAndDeleteTest(StorageBackend backend) throws Exception {
+		backend.write("a.txt", input("first"));
+		backend.write("a.txt", input("second"));
+		assertEquals("second", read(backend.read("a.txt")));
+
+		backend.move("a.txt", "b.txt");
+		assertNull(backend.stat("a.txt"));
+		assertEquals("second", read(backend.read("b.txt")));
+
+		backend.delete("b.txt");
+		backend.delete("b.txt");
+		assertNull(backend.stat("b.txt"));
+		assertThrows(FileNotFoundException.class, () -> backend.read("b.txt"));
+	}
+
+	@ParameterizedTest
+	@MethodSource("backends")
+	public void failedWriteLeavesNothingTest(StorageBackend backend) throws Exception {
+		backend.write("a.txt", input("kept"));
+		InputStream failing = new SequenceInputStream(input("partial"), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("connection reset");
+			}
+		});
+
+		assertThrows(IOException.class, () -> backend.write("a.txt", failing));
+		assertEquals("kept", read(backend.read("a.txt")));
+	}
+
+	@ParameterizedTest
+	@MethodSource("backends")
+	public void writeFileConsumesSourceTest(StorageBackend backend) throws Exception {
+		Path source = Files.writeString(Files.createTempDirectory(root, "source").resolve("data"), "assembled");
+
+		backend.writeFile("done.txt", source);
+
+		assertEquals("assembled", read(backend.read("done.txt")));
+		assertEquals(false, Files.exists(source));
+	}
+
+	@ParameterizedTest
+	@MethodSource("backends")
+	public void binaryRoundTripTest(StorageBackend backend) throws Exception {
+		byte[] data = new byte[200_000];
+		for (int i = 0; i < data.length; i++) data[i] = (byte) i;
+
+		backend.write("data.bin", new ByteArrayInputStream(data));
+
+		try (InputStream in = backend.read("data.bin")) {
+			assertArrayEquals(data, in.readAllBytes());
+		}
+	}
+
+	private static ByteArrayInputStream input(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String read(InputStream in) throws IOException {
+		try (in) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+}
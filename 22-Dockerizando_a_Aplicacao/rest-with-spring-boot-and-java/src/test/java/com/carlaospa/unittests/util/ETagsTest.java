@@ -0,0 +1,78 @@
+package com.carlaospa.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.carlaospa.exception.PreconditionFailedException;
+import com.carlaospa.model.Person;
+import com.carlaospa.util.ETags;
+
+public class ETagsTest {
+
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void matchesTest() {
+		assertTrue(ETags.matches("\"1\", \"2\"", "\"2\""));
+		assertTrue(ETags.matches("W/\"2\"", "\"2\""));
+		assertTrue(ETags.matches("*", "\"2\""));
+		assertFalse(ETags.matches("\"1\"", "\"2\""));
+		assertFalse(ETags.matches(null, "\"2\""));
+	}
+
+	@Test
+	public void pageChangesWithAnyVersionTest() {
+		var pageable = PageRequest.of(0, 2);
+		String before = ETags.page(new PageImpl<>(List.of(person(1L, 4L), person(2L, 0L)), pageable, 2),
+				Person::getId, Person::getVersion);
+		String after = ETags.page(new PageImpl<>(List.of(person(1L, 4L), person(2L, 1L)), pageable, 2),
+				Person::getId, Person::getVersion);
+
+		assertTrue(before.startsWith("W/\""));
+		assertNotEquals(before, after);
+	}
+
+	@Test
+	public void expectedVersionTest() {
+		assertNull(ETags.expectedVersion());
+
+		ifMatch("\"3\"");
+		assertEquals(3L, ETags.expectedVersion());
+		ifMatch("*");
+		assertNull(ETags.expectedVersion());
+		ifMatch("W/\"3\"");
+		assertThrows(PreconditionFailedException.class, ETags::expectedVersion);
+		ifMatch("\"abc\"");
+		assertThrows(PreconditionFailedException.class, ETags::expectedVersion);
+	}
+
+	private static void ifMatch(String tag) {
+		var request = new MockHttpServletRequest("PUT", "/api/person/v1");
+		request.addHeader("If-Match", tag);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	private static Person person(Long id, Long version) {
+		var person = new Person();
+		person.setId(id);
+		person.setVersion(version);
+		return person;
+	}
+}
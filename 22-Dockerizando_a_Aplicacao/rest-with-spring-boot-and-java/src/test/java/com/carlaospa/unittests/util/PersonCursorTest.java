@@ -0,0 +1,37 @@
+package com.carlaospa.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.carlaospa.exception.InvalidCursorException;
+import com.carlaospa.util.PersonCursor;
+
+public class PersonCursorTest {
+
+	@Test
+	public void encodeDecodeAfterTest() {
+		var cursor = PersonCursor.decode(PersonCursor.after("Ayrton", 42L).encode());
+
+		assertEquals("Ayrton", cursor.getFirstName());
+		assertEquals(Long.valueOf(42L), cursor.getId());
+		assertFalse(cursor.isBackward());
+	}
+
+	@Test
+	public void encodeDecodeBeforeTest() {
+		var cursor = PersonCursor.decode(PersonCursor.before("João & Maria", 7L).encode());
+
+		assertEquals("João & Maria", cursor.getFirstName());
+		assertEquals(Long.valueOf(7L), cursor.getId());
+		assertTrue(cursor.isBackward());
+	}
+
+	@Test
+	public void decodeInvalidCursorTest() {
+		assertThrows(InvalidCursorException.class, () -> PersonCursor.decode("not-a-cursor"));
+	}
+}
@@ -0,0 +1,59 @@
+package com.carlaospa.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.carlaospa.controllers.BookController;
+import com.carlaospa.controllers.FileController;
+import com.carlaospa.controllers.PersonController;
+import com.carlaospa.util.SelfLinkFactory;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public class SelfLinkFactoryTest {
+
+	@AfterEach
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void relativeLinkWithoutRequestTest() throws Exception {
+		var factory = SelfLinkFactory.of(PersonController.class, "findById", Long.class);
+
+		assertEquals("/api/person/v1/7", factory.selfLink(7L).getHref());
+		assertEquals(linkTo(methodOn(PersonController.class).findById(7L)).withSelfRel().getHref(), factory.selfLink(7L).getHref());
+		assertEquals("[</api/person/v1/7>;rel=\"self\"]", List.of(factory.selfLink(7L)).toString());
+	}
+
+	@Test
+	public void regexPathVariableTest() throws Exception {
+		var factory = SelfLinkFactory.of(FileController.class, "downloadFile",
+				String.class, HttpServletRequest.class, HttpServletResponse.class);
+
+		assertEquals("/api/file/v1/downloadFile/my%20report.csv", factory.selfLink("my report.csv").getHref());
+	}
+
+	@Test
+	public void sameLinkAsLinkToInsideRequestTest() throws Exception {
+		var request = new MockHttpServletRequest("GET", "/api/book/v1");
+		request.setServerName("carlao.com");
+		request.setServerPort(8080);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		var factory = SelfLinkFactory.of(BookController.class, "findById", Long.class);
+
+		assertEquals("http://carlao.com:8080/api/book/v1/3", factory.selfLink(3L).getHref());
+		assertEquals(linkTo(methodOn(BookController.class).findById(3L)).withSelfRel().getHref(), factory.selfLink(3L).getHref());
+	}
+}